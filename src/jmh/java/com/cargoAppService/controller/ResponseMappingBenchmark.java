@@ -0,0 +1,73 @@
+package com.cargoAppService.controller;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO mapping, run once per returned row on every read endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private Load load;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setShipperId("SHIP001");
+        load.setLoadingPoint("Pune");
+        load.setUnloadingPoint("Delhi");
+        load.setLoadingDate(new Timestamp(now));
+        load.setUnloadingDate(new Timestamp(now + 86400000L));
+        load.setProductType("Steel");
+        load.setTruckType("Flatbed");
+        load.setNoOfTrucks(2);
+        load.setWeight(1500);
+        load.setComment("Handle with care");
+        load.setStatus(Load.Status.POSTED);
+        load.setDatePosted(new Timestamp(now));
+
+        booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setLoad(load);
+        booking.setTransporterId("TRANS001");
+        booking.setProposedRate(5000);
+        booking.setComment("Available tomorrow");
+        booking.setStatus(Booking.Status.PENDING);
+        booking.setRequestedAt(new Timestamp(now));
+    }
+
+    @Benchmark
+    public LoadDTO.Response loadToResponseDto() {
+        return LoadDTO.Response.from(load);
+    }
+
+    @Benchmark
+    public BookingDTO.Response bookingToResponseDto() {
+        return BookingDTO.Response.from(booking);
+    }
+}
@@ -0,0 +1,73 @@
+package com.cargoAppService.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of {@code POST /load} and {@code POST /load/batch} items, for a valid payload and for
+ * one that violates every constraint (violation messages are interpolated, which is the costly part).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private LoadDTO.Create valid;
+    private LoadDTO.Create invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        valid = new LoadDTO.Create();
+        valid.setShipperId("SHIP001");
+        valid.setLoadingPoint("Pune");
+        valid.setUnloadingPoint("Delhi");
+        valid.setLoadingDate(new Timestamp(System.currentTimeMillis()));
+        valid.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 86400000L));
+        valid.setProductType("Steel");
+        valid.setTruckType("Flatbed");
+        valid.setNoOfTrucks(1);
+        valid.setWeight(1000);
+
+        invalid = new LoadDTO.Create();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoadDTO.Create>> validCreate() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoadDTO.Create>> invalidCreate() {
+        return validator.validate(invalid);
+    }
+}
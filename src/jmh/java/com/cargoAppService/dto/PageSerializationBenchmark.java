@@ -0,0 +1,101 @@
+package com.cargoAppService.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of a {@code GET /load} response page in each negotiable wire format, using the
+ * same builder Spring Boot configures its mappers from, with and without the gzip the server applies to
+ * large responses. The bytes on the wire per format are compared by {@code wireformat.WireSizeTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Page<LoadDTO.Response> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = mapper(format);
+        long now = System.currentTimeMillis();
+        List<LoadDTO.Response> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LoadDTO.Response response = new LoadDTO.Response();
+            response.setId(UUID.randomUUID());
+            response.setShipperId("SHIP" + (i % 20));
+            response.setLoadingPoint("City " + (i % 50));
+            response.setUnloadingPoint("City " + (i % 37));
+            response.setLoadingDate(new Timestamp(now + i));
+            response.setUnloadingDate(new Timestamp(now + 86400000L + i));
+            response.setProductType("Electronics");
+            response.setTruckType("Flatbed");
+            response.setNoOfTrucks(1 + i % 3);
+            response.setWeight(1000.5 + i);
+            response.setComment("Fragile items, handle with care");
+            response.setStatus("POSTED");
+            response.setDatePosted(new Timestamp(now - i));
+            content.add(response);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size), 10L * size);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePageGzipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor().build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
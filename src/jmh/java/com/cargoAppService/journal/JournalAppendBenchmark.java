@@ -0,0 +1,67 @@
+package com.cargoAppService.journal;
+
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What journaling costs a write request: the after-commit listener call, sampled per call from several
+ * request threads while the writer appends to real segment files in the background. The percentiles JMH
+ * prints are the latency added to {@code POST /load} and friends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JournalAppendBenchmark {
+
+    private Path directory;
+    private TransitionJournal journal;
+    private Load load;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new TransitionJournal(directory.toString(), DataSize.ofMegabytes(64), Duration.ofSeconds(1),
+                Duration.ofDays(30), 100_000);
+        journal.start();
+        load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(Load.Status.POSTED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.stop();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void onLoadEvent() {
+        journal.onLoadEvent(new LoadEvent(LoadEvent.Type.UPDATED, load));
+    }
+}
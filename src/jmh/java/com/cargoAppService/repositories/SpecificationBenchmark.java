@@ -0,0 +1,100 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@code GET /load} and {@code GET /booking} filter specifications, turning them into a
+ * criteria query, and having Hibernate translate that query (what {@code findAll(spec, pageable)} does
+ * before any SQL is sent). The entity manager runs against an empty in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private final UUID loadId = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:jmh;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        factoryBean.setPackagesToScan("com.cargoAppService.entities");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Load> loadFilterCriteria() {
+        return loadCriteria(LoadSpecifications.withFilters("SHIP001", "Flatbed", "posted"));
+    }
+
+    @Benchmark
+    public CriteriaQuery<Booking> bookingFilterCriteria() {
+        return bookingCriteria(BookingSpecifications.withFilters(loadId, "TRANS001", "pending"));
+    }
+
+    @Benchmark
+    public TypedQuery<Load> loadFilterQuery() {
+        return entityManager.createQuery(loadCriteria(LoadSpecifications.withFilters("SHIP001", "Flatbed", "posted")));
+    }
+
+    @Benchmark
+    public TypedQuery<Booking> bookingFilterQuery() {
+        return entityManager.createQuery(bookingCriteria(BookingSpecifications.withFilters(loadId, "TRANS001", "pending")));
+    }
+
+    private CriteriaQuery<Load> loadCriteria(Specification<Load> specification) {
+        CriteriaQuery<Load> query = criteriaBuilder.createQuery(Load.class);
+        Root<Load> root = query.from(Load.class);
+        return query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+
+    private CriteriaQuery<Booking> bookingCriteria(Specification<Booking> specification) {
+        CriteriaQuery<Booking> query = criteriaBuilder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        return query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+}
@@ -0,0 +1,96 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /load/search} lookups against a growing table. The searched place always has the same
+ * number of loads while the rest of the table (and its vocabulary) grows, so the timings should stay
+ * flat across {@code loads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadSearchBenchmark {
+
+    private static final String[] PRODUCTS = {"Electronics", "Textiles", "Steel", "Cement", "Furniture", "Grain"};
+    private static final String[] TRUCKS = {"Flatbed", "Container", "Reefer", "Tanker"};
+
+    @Param({"10000", "100000"})
+    private int loads;
+
+    private LoadSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new LoadSearchIndex(null, null, 500, 0.6);
+        Random random = new Random(42);
+        for (int i = 0; i < loads; i++) {
+            index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED,
+                    load(place(random), place(random), PRODUCTS[i % PRODUCTS.length], TRUCKS[i % TRUCKS.length], i)));
+        }
+        for (int i = 0; i < 50; i++) {
+            index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED,
+                    load("Ahmedabad", place(random), PRODUCTS[i % PRODUCTS.length], TRUCKS[i % TRUCKS.length], i)));
+        }
+    }
+
+    @Benchmark
+    public List<LoadSnapshot> prefix() {
+        return index.search("ahmeda", null, null, 20);
+    }
+
+    @Benchmark
+    public List<LoadSnapshot> typo() {
+        return index.search("ahmedbad", Load.Status.POSTED, null, 20);
+    }
+
+    @Benchmark
+    public List<LoadSnapshot> filtered() {
+        return index.search("ahmedabad", Load.Status.POSTED, "Reefer", 20);
+    }
+
+    // Roughly one distinct place name per ten loads, so the vocabulary grows with the table.
+    private String place(Random random) {
+        int n = random.nextInt(Math.max(1, loads / 10));
+        StringBuilder name = new StringBuilder("Z");
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return name.append("pur").toString();
+    }
+
+    private static Load load(String loadingPoint, String unloadingPoint, String productType, String truckType, long datePosted) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setLoadingPoint(loadingPoint);
+        load.setUnloadingPoint(unloadingPoint);
+        load.setProductType(productType);
+        load.setTruckType(truckType);
+        load.setDatePosted(new Timestamp(datePosted));
+        load.setStatus(Load.Status.POSTED);
+        return load;
+    }
+}
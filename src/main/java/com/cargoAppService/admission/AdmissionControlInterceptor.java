@@ -0,0 +1,224 @@
+package com.cargoAppService.admission;
+
+import com.cargoAppService.datasource.ReadYourWritesInterceptor;
+import com.cargoAppService.exceptions.RateLimitExceededException;
+import com.cargoAppService.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns requests away before they reach the services, so one client flooding an endpoint cannot take
+ * the connection pool from everyone else.
+ * <p>
+ * Rate limiting ({@code cargo.ratelimit.enabled}) gives every client a token bucket per endpoint, with
+ * separate rates for reads and writes, and answers 429 with {@code Retry-After} once it is empty.
+ * Clients are identified by the {@value ReadYourWritesInterceptor#CLIENT_HEADER} header, which shipper
+ * and transporter integrations should set to their shipper or transporter id, then by the
+ * {@code shipperId} or {@code transporterId} query parameter, always together with their address. The
+ * claimed id is not authenticated, so a caller cannot borrow another client's buckets from elsewhere,
+ * and one address holds at most {@code cargo.ratelimit.max-clients-per-address} buckets per direction
+ * before its further ids share one.
+ * <p>
+ * Admission control ({@code cargo.admission.enabled}) keeps an adaptive {@link ConcurrencyLimit} per
+ * endpoint and answers 503 with {@code Retry-After} to requests over it. Streaming responses release
+ * their slot once the controller returns and are not sampled.
+ */
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".permit";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final boolean rateLimitEnabled;
+    private final TokenBuckets readBuckets;
+    private final TokenBuckets writeBuckets;
+    private final boolean admissionEnabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(@Value("${cargo.ratelimit.enabled:false}") boolean rateLimitEnabled,
+                                       @Value("${cargo.ratelimit.read.requests-per-second:50}") double readRate,
+                                       @Value("${cargo.ratelimit.read.burst:100}") int readBurst,
+                                       @Value("${cargo.ratelimit.write.requests-per-second:20}") double writeRate,
+                                       @Value("${cargo.ratelimit.write.burst:40}") int writeBurst,
+                                       @Value("${cargo.ratelimit.max-clients:100000}") int maxClients,
+                                       @Value("${cargo.ratelimit.max-clients-per-address:1000}") int maxClientsPerAddress,
+                                       @Value("${cargo.admission.enabled:false}") boolean admissionEnabled,
+                                       @Value("${cargo.admission.initial-limit:20}") int initialLimit,
+                                       @Value("${cargo.admission.min-limit:4}") int minLimit,
+                                       @Value("${cargo.admission.max-limit:200}") int maxLimit,
+                                       @Value("${cargo.admission.latency-tolerance:2.0}") double latencyTolerance) {
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.readBuckets = new TokenBuckets(readRate, readBurst, maxClients, maxClientsPerAddress);
+        this.writeBuckets = new TokenBuckets(writeRate, writeBurst, maxClients, maxClientsPerAddress);
+        this.admissionEnabled = admissionEnabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public boolean isEnabled() {
+        return rateLimitEnabled || admissionEnabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error dispatches belong to a request that was already admitted.
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Endpoint endpoint = endpoint(request);
+        long now = System.nanoTime();
+        if (rateLimitEnabled) {
+            TokenBuckets buckets = SAFE_METHODS.contains(request.getMethod()) ? readBuckets : writeBuckets;
+            String address = request.getRemoteAddr();
+            long waitNanos = buckets.tryAcquire(address, clientOf(request, address) + ' ' + endpoint.name, now);
+            if (waitNanos > 0) {
+                endpoint.rateLimited.incrementAndGet();
+                throw new RateLimitExceededException("Rate limit exceeded for " + endpoint.name + ", please retry later.",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+        }
+        if (admissionEnabled) {
+            int inFlightBefore = endpoint.limit.tryAcquire();
+            if (inFlightBefore < 0) {
+                endpoint.shed.incrementAndGet();
+                throw new ServiceOverloadedException("Too many concurrent requests to " + endpoint.name + ", please retry later.", 1);
+            }
+            request.setAttribute(PERMIT, new Permit(endpoint, now, inFlightBefore));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request, false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, true);
+    }
+
+    private static void release(HttpServletRequest request, boolean sample) {
+        Object attribute = request.getAttribute(PERMIT);
+        if (!(attribute instanceof Permit)) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        Permit permit = (Permit) attribute;
+        permit.endpoint.limit.release();
+        if (sample) {
+            permit.endpoint.limit.onSample(System.nanoTime() - permit.startNanos, permit.inFlightBefore);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cargo.ratelimit.idle-sweep-interval:PT1M}", initialDelayString = "${cargo.ratelimit.idle-sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        readBuckets.evictIdle(now);
+        writeBuckets.evictIdle(now);
+    }
+
+    private Endpoint endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = request.getMethod() + ' ' + (pattern != null ? pattern : "UNKNOWN");
+        return endpoints.computeIfAbsent(name, this::newEndpoint);
+    }
+
+    private Endpoint newEndpoint(String name) {
+        Endpoint endpoint = new Endpoint(name, new ConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTolerance));
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            endpoint.register(registry);
+        }
+        return endpoint;
+    }
+
+    private static String clientOf(HttpServletRequest request, String address) {
+        String client = request.getHeader(ReadYourWritesInterceptor.CLIENT_HEADER);
+        if (client == null || client.isBlank()) {
+            client = request.getParameter("shipperId");
+        }
+        if (client == null || client.isBlank()) {
+            client = request.getParameter("transporterId");
+        }
+        return client == null || client.isBlank() ? address : client + '@' + address;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.ratelimit.clients", () -> readBuckets.size() + writeBuckets.size())
+             .description("Token buckets held for client and endpoint pairs")
+             .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        endpoints.values().forEach(endpoint -> endpoint.register(meterRegistry));
+    }
+
+    private static final class Endpoint {
+
+        private final String name;
+        private final ConcurrencyLimit limit;
+        private final AtomicLong rateLimited = new AtomicLong();
+        private final AtomicLong shed = new AtomicLong();
+
+        Endpoint(String name, ConcurrencyLimit limit) {
+            this.name = name;
+            this.limit = limit;
+        }
+
+        void register(MeterRegistry registry) {
+            FunctionCounter.builder("cargo.ratelimit.rejected", rateLimited, AtomicLong::get)
+                           .description("Requests rejected with 429 by the per-client rate limit")
+                           .tag("endpoint", name)
+                           .register(registry);
+            FunctionCounter.builder("cargo.admission.rejected", shed, AtomicLong::get)
+                           .description("Requests rejected with 503 by the adaptive concurrency limit")
+                           .tag("endpoint", name)
+                           .register(registry);
+            Gauge.builder("cargo.admission.limit", limit, ConcurrencyLimit::getLimit)
+                 .description("Current adaptive concurrency limit")
+                 .tag("endpoint", name)
+                 .register(registry);
+            Gauge.builder("cargo.admission.in-flight", limit, ConcurrencyLimit::getInFlight)
+                 .description("Requests being handled")
+                 .tag("endpoint", name)
+                 .register(registry);
+        }
+    }
+
+    private static final class Permit {
+
+        private final Endpoint endpoint;
+        private final long startNanos;
+        private final int inFlightBefore;
+
+        Permit(Endpoint endpoint, long startNanos, int inFlightBefore) {
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+            this.inFlightBefore = inFlightBefore;
+        }
+    }
+}
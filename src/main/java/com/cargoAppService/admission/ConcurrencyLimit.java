@@ -0,0 +1,101 @@
+package com.cargoAppService.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An adaptive limit on the requests one endpoint handles at once. Every completed request compares its
+ * latency with the long-run average: while latency stays within {@code tolerance} times the average the
+ * limit creeps up, and when requests start queueing behind each other (in the connection pool or the
+ * database) and latency rises, the limit shrinks in proportion. Requests over the limit are shed
+ * instead of joining the queue. This is the gradient algorithm used by Netflix's concurrency-limits.
+ * <p>
+ * The in-flight count, the limit and the average are each a single atomic updated with
+ * compare-and-set; concurrent samples may overwrite each other's smoothing step, which only slows
+ * adaptation slightly.
+ */
+public class ConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double QUEUE_SIZE = 4;
+    // Roughly the last 100 requests make up the long-run average.
+    private static final double LONG_RTT_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong longRttBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1, tolerance);
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(clamp(initialLimit)));
+    }
+
+    /**
+     * Admits a request and returns the number in flight before it, or returns -1 if the endpoint is at
+     * its limit.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Feeds the latency of a completed request into the limit. {@code inFlightBefore} is what
+     * {@link #tryAcquire()} returned for it.
+     */
+    public void onSample(long rttNanos, int inFlightBefore) {
+        double rtt = Math.max(1, rttNanos);
+        double longRtt = updateLongRtt(rtt);
+        double limit = Double.longBitsToDouble(limitBits.get());
+        // An endpoint using less than half its limit says nothing about whether the limit is right.
+        if (inFlightBefore + 1 < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double target = limit * gradient + QUEUE_SIZE;
+        limitBits.set(Double.doubleToLongBits(clamp(limit * (1 - SMOOTHING) + target * SMOOTHING)));
+    }
+
+    private double updateLongRtt(double rtt) {
+        while (true) {
+            long bits = longRttBits.get();
+            double longRtt = Double.longBitsToDouble(bits);
+            double next = longRtt == 0 ? rtt : longRtt * (1 - LONG_RTT_WEIGHT) + rtt * LONG_RTT_WEIGHT;
+            // Once load drops, recover quickly from an average inflated by the overload.
+            if (next > 2 * rtt) {
+                next *= 0.95;
+            }
+            if (longRttBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
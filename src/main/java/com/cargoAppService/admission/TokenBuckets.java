@@ -0,0 +1,126 @@
+package com.cargoAppService.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client and endpoint, each held in a single {@link AtomicLong} and updated with
+ * compare-and-set, so admitting a request never takes a lock.
+ * <p>
+ * A bucket stores the time at which it will be full again (the generic cell rate algorithm, which
+ * admits exactly what a token bucket of {@code burst} tokens refilled at {@code ratePerSecond} would).
+ * A bucket whose refill time has passed is full and so indistinguishable from a new one, which is what
+ * makes idle buckets safe to evict. At most {@code maxKeys} buckets are kept: when the map is full and
+ * no bucket is idle, new keys share one overflow bucket instead of growing it.
+ * <p>
+ * Keys may also belong to a group, such as the address a request came from. A group holds at most
+ * {@code maxKeysPerGroup} buckets; further keys in it share the group's own overflow bucket, so one
+ * source inventing keys cannot fill the map or escape its limit.
+ */
+public class TokenBuckets {
+
+    static final String OVERFLOW_KEY = "*";
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final int maxKeysPerGroup;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> groupSizes = new ConcurrentHashMap<>();
+
+    public TokenBuckets(double ratePerSecond, int burst, int maxKeys) {
+        this(ratePerSecond, burst, maxKeys, maxKeys);
+    }
+
+    public TokenBuckets(double ratePerSecond, int burst, int maxKeys, int maxKeysPerGroup) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.maxKeys = Math.max(1, maxKeys);
+        this.maxKeysPerGroup = Math.max(1, maxKeysPerGroup);
+    }
+
+    /**
+     * Takes a token from the key's bucket and returns 0, or returns how many nanoseconds until one is
+     * available without taking it.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        return tryAcquire(null, key, nowNanos);
+    }
+
+    /**
+     * Like {@link #tryAcquire(String, long)}, counting the key against {@code group} if it is not null.
+     */
+    public long tryAcquire(String group, String key, long nowNanos) {
+        AtomicLong bucket = bucket(group, key, nowNanos);
+        while (true) {
+            long full = bucket.get();
+            long next = (full - nowNanos > 0 ? full : nowNanos) + intervalNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String group, String key, long nowNanos) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictIdle(nowNanos);
+            if (buckets.size() >= maxKeys) {
+                key = OVERFLOW_KEY;
+                group = null;
+            }
+        }
+        if (group != null && groupSizes.getOrDefault(group, 0) >= maxKeysPerGroup) {
+            // The group's overflow bucket is not counted against it, so it can always be created.
+            key = OVERFLOW_KEY + ' ' + group;
+            group = null;
+        }
+        String owner = group;
+        return buckets.computeIfAbsent(key, ignored -> {
+            if (owner != null) {
+                groupSizes.merge(owner, 1, Integer::sum);
+            }
+            return new Bucket(owner, nowNanos);
+        });
+    }
+
+    /**
+     * Drops buckets that have refilled completely and returns how many were dropped. A request racing
+     * the removal may take its token from the dropped bucket, which admits at most one extra request.
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (bucket.get() - nowNanos <= 0 && buckets.remove(entry.getKey(), bucket)) {
+                if (bucket.group != null) {
+                    groupSizes.computeIfPresent(bucket.group, (group, size) -> size > 1 ? size - 1 : null);
+                }
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket extends AtomicLong {
+
+        private final String group;
+
+        Bucket(String group, long fullNanos) {
+            super(fullNanos);
+            this.group = group;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.cargoAppService.config;
+
+import com.cargoAppService.admission.AdmissionControlInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionConfig(AdmissionControlInterceptor admissionControlInterceptor) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+    }
+
+    // First in the chain, so a rejected request costs no other interceptor any work.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionControlInterceptor.isEnabled()) {
+            registry.addInterceptor(admissionControlInterceptor)
+                    .addPathPatterns("/load", "/load/**", "/booking", "/booking/**", "/stats/**")
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+}
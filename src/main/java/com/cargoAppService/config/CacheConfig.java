@@ -0,0 +1,53 @@
+package com.cargoAppService.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String LOADS = "loads";
+    public static final String BOOKINGS = "bookings";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cargo.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${cargo.cache.ttl:30s}") Duration ttl) {
+        int maxFences = (int) Math.min(maximumSize, Integer.MAX_VALUE);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new EvictionFencedCache(super.adaptCaffeineCache(name, cache), maxFences);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                                         .maximumSize(maximumSize)
+                                         .expireAfterWrite(ttl)
+                                         .recordStats());
+        cacheManager.setCacheNames(List.of(LOADS, BOOKINGS));
+        // Puts and evictions are deferred until the surrounding transaction commits, so a reader
+        // cannot re-cache a row between the eviction and the commit that changed it. Reads that were
+        // already loading when the eviction ran are dropped by EvictionFencedCache.
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Cache metrics are bound to the Caffeine cache inside the fence.
+    @Bean
+    public CacheMeterBinderProvider<EvictionFencedCache> evictionFencedCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> caffeine.getMeterBinder((CaffeineCache) cache.getDelegate(), tags);
+    }
+}
@@ -0,0 +1,93 @@
+package com.cargoAppService.config;
+
+import com.cargoAppService.datasource.ReadWriteRoutingDataSource;
+import com.cargoAppService.datasource.ReadYourWritesInterceptor;
+import com.cargoAppService.metrics.DataSourceProxyPostProcessor;
+import com.cargoAppService.metrics.SqlStatementListener;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica support, enabled with {@code cargo.datasource.routing.enabled=true}. The primary is the
+ * usual {@code spring.datasource.*} pool; every URL in {@code cargo.datasource.replicas.urls} gets a
+ * read-only pool of its own. Read-only transactions go to a replica, everything else to the primary.
+ * Without the property Spring Boot's single data source is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cargo.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    private final Duration readYourWritesWindow;
+    private final long readYourWritesClients;
+
+    public DataSourceRoutingConfig(@Value("${cargo.datasource.routing.read-your-writes:PT5S}") Duration readYourWritesWindow,
+                                   @Value("${cargo.datasource.routing.read-your-writes-clients:100000}") long readYourWritesClients) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.readYourWritesClients = readYourWritesClients;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties properties,
+            SqlStatementListener sqlStatementListener,
+            @Value("${cargo.datasource.replicas.urls}") List<String> urls,
+            @Value("${cargo.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${cargo.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${cargo.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${cargo.datasource.routing.selection:round-robin}") String selection) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            String key = "replica-" + pools.size();
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(key);
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            if (properties.getDriverClassName() != null) {
+                pool.setDriverClassName(properties.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setReadOnly(true);
+            pools.add(pool);
+            // Not a bean of its own, so it is wrapped for the statement metrics here.
+            replicas.put(key, DataSourceProxyPostProcessor.proxy(pool, key, sqlStatementListener));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, pools, ReadWriteRoutingDataSource.Selection.of(selection));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesWindow, readYourWritesClients));
+    }
+}
@@ -0,0 +1,129 @@
+package com.cargoAppService.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps a cache so that a value loaded before an eviction of its key is not kept after it.
+ * <p>
+ * Evictions run once the writing transaction has committed, but a read that began before the commit may
+ * still be loading the old row then; a plain cache would take its put and serve the old value until the
+ * TTL. Here every eviction takes a number from a counter and leaves it behind as the key's fence, and
+ * {@link #get(Object, Callable)} drops what it loaded if the key was fenced (or the cache cleared) after
+ * the load began. Cached methods go through it with {@code @Cacheable(sync = true)}; plain puts are not
+ * fenced.
+ * <p>
+ * Fences of at most {@code maxFences} keys are kept. Beyond that they are folded into one floor, which
+ * only costs the loads already running at the time their value.
+ */
+public class EvictionFencedCache implements Cache {
+
+    private final Cache delegate;
+    private final int maxFences;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    private final Map<Object, Long> fences = new ConcurrentHashMap<>();
+
+    public EvictionFencedCache(Cache delegate, int maxFences) {
+        this.delegate = delegate;
+        this.maxFences = Math.max(1, maxFences);
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long loadStarted = clock.get();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        delegate.put(key, value);
+        // Checked after the put, so an eviction that the check misses removes the value itself.
+        if (fencedSince(key, loadStarted)) {
+            delegate.evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        fence(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        fence(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        floor.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        floor.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        return delegate.invalidate();
+    }
+
+    private void fence(Object key) {
+        fences.merge(key, clock.incrementAndGet(), Math::max);
+        if (fences.size() > maxFences) {
+            // The floor is raised before the fences it covers are dropped, so no load slips between.
+            long folded = floor.accumulateAndGet(clock.get(), Math::max);
+            fences.values().removeIf(fence -> fence <= folded);
+        }
+    }
+
+    private boolean fencedSince(Object key, long loadStarted) {
+        Long fence = fences.get(key);
+        return floor.get() > loadStarted || (fence != null && fence > loadStarted);
+    }
+}
@@ -0,0 +1,30 @@
+package com.cargoAppService.config;
+
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.service.LoadLockInterceptor;
+import com.cargoAppService.service.LoadLockStripes;
+import com.cargoAppService.service.LoadLocked;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LockingConfig {
+
+    // Ordered between the retry advisor and the transaction advisor (Ordered.LOWEST_PRECEDENCE), so stripes are
+    // taken before a transaction, and its connection, is opened and released only after it completes.
+    // Dependencies are looked up on first use because advisors are created before regular beans.
+    @Bean
+    public static Advisor loadLockAdvisor(ObjectProvider<LoadLockStripes> loadLockStripes,
+                                          ObjectProvider<BookingRepository> bookingRepository) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(LoadLocked.class),
+                new LoadLockInterceptor(loadLockStripes, bookingRepository));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.cargoAppService.config;
+
+import com.cargoAppService.metrics.DataSourceProxyPostProcessor;
+import com.cargoAppService.metrics.SqlStatementListener;
+import com.cargoAppService.metrics.SqlStatementsPerRequestInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementsPerRequestInterceptor sqlStatementsPerRequestInterceptor;
+
+    public MetricsConfig(SqlStatementsPerRequestInterceptor sqlStatementsPerRequestInterceptor) {
+        this.sqlStatementsPerRequestInterceptor = sqlStatementsPerRequestInterceptor;
+    }
+
+    // Backs the @Timed annotations on the services.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public static DataSourceProxyPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementListener> sqlStatementListener) {
+        return new DataSourceProxyPostProcessor(sqlStatementListener);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementsPerRequestInterceptor);
+    }
+}
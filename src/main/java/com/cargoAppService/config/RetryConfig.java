@@ -0,0 +1,20 @@
+package com.cargoAppService.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.RetryConfiguration;
+
+@Configuration
+public class RetryConfig {
+
+    // Declared instead of @EnableRetry so the retry advisor can be ordered outside the transaction
+    // advisor (and the @LoadLocked advisor): every @Retryable attempt then runs in a fresh transaction with
+    // fresh reads, and backs off without holding any lock stripes.
+    @Bean
+    public static RetryConfiguration retryConfiguration() {
+        RetryConfiguration configuration = new RetryConfiguration();
+        configuration.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return configuration;
+    }
+}
@@ -1,16 +1,31 @@
 package com.cargoAppService.controller;
 
 import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.CursorPage;
 import com.cargoAppService.entities.Booking;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.service.BookingBatchService;
+import com.cargoAppService.service.BookingGroupCommitter;
 import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -18,15 +33,26 @@ import java.util.UUID;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingBatchService bookingBatchService;
+    private final BookingGroupCommitter bookingGroupCommitter;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingBatchService bookingBatchService,
+                             BookingGroupCommitter bookingGroupCommitter, ExportService exportService,
+                             ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.bookingBatchService = bookingBatchService;
+        this.bookingGroupCommitter = bookingGroupCommitter;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ResponseEntity<BookingDTO.Response> createBooking(@Valid @RequestBody BookingDTO.Create createDto) {
-        Booking newBooking = bookingService.createBooking(createDto);
-        return new ResponseEntity<>(toResponseDto(newBooking), HttpStatus.CREATED);
+        Booking newBooking = bookingGroupCommitter.isEnabled() ? bookingGroupCommitter.createBooking(createDto)
+                : bookingService.createBooking(createDto);
+        return new ResponseEntity<>(BookingDTO.Response.from(newBooking), HttpStatus.CREATED);
     }
 
     @GetMapping
@@ -35,22 +61,108 @@ public class BookingController {
             @RequestParam(required = false) String transporterId,
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Booking> bookings = bookingService.getBookings(loadId, transporterId, status, pageable);
-        return ResponseEntity.ok(bookings.map(this::toResponseDto));
+        if (ETags.pageNotModified(request, bookings.getContent(), Booking::getId, Booking::getVersion,
+                bookings.getNumber(), bookings.getSize(), bookings.getTotalElements())) {
+            return null;
+        }
+        return ResponseEntity.ok(bookings.map(BookingDTO.Response::from));
+    }
+
+    @GetMapping(params = {"fields", "!after"})
+    public ResponseEntity<Page<Map<String, Object>>> getBookingFields(
+            @RequestParam(required = false) UUID loadId,
+            @RequestParam(required = false) String transporterId,
+            @RequestParam(required = false) String status,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(bookingService.getBookingFields(loadId, transporterId, status, fields, pageable));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<BookingDTO.Response>> getBookingsAfter(
+            @RequestParam(required = false) UUID loadId,
+            @RequestParam(required = false) String transporterId,
+            @RequestParam(required = false) String status,
+            @RequestParam String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        if (fields != null) {
+            throw new InvalidRequestException("Sparse fieldsets are not supported with cursor pagination; drop 'fields' or 'after'.");
+        }
+        CursorPage<Booking> bookings = bookingService.getBookingsAfter(loadId, transporterId, status, after, size);
+        if (ETags.pageNotModified(request, bookings.getContent(), Booking::getId, Booking::getVersion,
+                bookings.getSize(), bookings.getNextCursor())) {
+            return null;
+        }
+        return ResponseEntity.ok(bookings.map(BookingDTO.Response::from));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) UUID loadId,
+            @RequestParam(required = false) String transporterId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (exportFormat == ExportFormat.CSV) {
+                writer.write(CsvRows.line("id", "loadId", "transporterId", "proposedRate", "comment", "status",
+                        "requestedAt"));
+            }
+            exportService.exportBookings(loadId, transporterId, status, booking -> {
+                BookingDTO.Response dto = BookingDTO.Response.from(booking);
+                if (exportFormat == ExportFormat.CSV) {
+                    writer.write(CsvRows.line(dto.getId(), dto.getLoadId(), dto.getTransporterId(),
+                            dto.getProposedRate(), dto.getComment(), dto.getStatus(), dto.getRequestedAt()));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                             .contentType(exportFormat.getMediaType())
+                             .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("bookings"))
+                             .body(body);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<BookingDTO.Response> getBookingById(@PathVariable UUID bookingId) {
-        Booking booking = bookingService.getBookingById(bookingId);
-        return ResponseEntity.ok(toResponseDto(booking));
+    public ResponseEntity<BookingDTO.Response> getBookingById(@PathVariable UUID bookingId, WebRequest request) {
+        // As for loads, a cached copy older than the row is dropped and read again.
+        long current = bookingService.getBookingVersion(bookingId).getVersion();
+        BookingDTO.Response booking = bookingService.getBookingById(bookingId);
+        if (booking.getVersion() < current) {
+            bookingService.evictBooking(bookingId);
+            booking = bookingService.getBookingById(bookingId);
+        }
+        if (ETags.notModified(request, booking.getVersion(), booking.getUpdatedAt())) {
+            return null;
+        }
+        return ResponseEntity.ok(booking);
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<BookingDTO.BatchResponse> decideBookings(
+            @RequestBody List<BookingDTO.Decision> decisions,
+            @RequestParam(defaultValue = "false") boolean rejectOtherPending) {
+        BookingDTO.BatchResponse response = bookingBatchService.decide(decisions, rejectOtherPending);
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
     }
 
     @PutMapping("/{bookingId}")
     public ResponseEntity<BookingDTO.Response> updateBooking(@PathVariable UUID bookingId, @Valid @RequestBody BookingDTO.Update updateDto) {
         Booking updatedBooking = bookingService.updateBooking(bookingId, updateDto);
-        return ResponseEntity.ok(toResponseDto(updatedBooking));
+        return ResponseEntity.ok(BookingDTO.Response.from(updatedBooking));
     }
 
     @DeleteMapping("/{bookingId}")
@@ -58,16 +170,4 @@ public class BookingController {
         bookingService.deleteBooking(bookingId);
         return ResponseEntity.noContent().build();
     }
-
-    private BookingDTO.Response toResponseDto(Booking booking) {
-        BookingDTO.Response response = new BookingDTO.Response();
-        response.setId(booking.getId());
-        response.setLoadId(booking.getLoad().getId());
-        response.setTransporterId(booking.getTransporterId());
-        response.setProposedRate(booking.getProposedRate());
-        response.setComment(booking.getComment());
-        response.setStatus(booking.getStatus().name());
-        response.setRequestedAt(booking.getRequestedAt());
-        return response;
-    }
 }
@@ -0,0 +1,28 @@
+package com.cargoAppService.controller;
+
+import java.util.StringJoiner;
+
+final class CsvRows {
+
+    private CsvRows() {
+    }
+
+    static String line(Object... values) {
+        StringJoiner line = new StringJoiner(",", "", "\n");
+        for (Object value : values) {
+            line.add(escape(value));
+        }
+        return line.toString();
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
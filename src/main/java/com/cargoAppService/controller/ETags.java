@@ -0,0 +1,87 @@
+package com.cargoAppService.controller;
+
+import com.cargoAppService.config.WireFormatConfig;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Conditional GET support. Both checks set the validators on the response and return true when the
+ * request already holds the current representation, in which case the response is a 304 and the
+ * handler returns without a body.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    // Every write bumps the version, so it changes exactly when the representation does. The version and
+    // time must be those of the body being returned, not looked up beside it.
+    static boolean notModified(WebRequest request, long version, Timestamp updatedAt) {
+        varyByAccept(request);
+        String eTag = '"' + Long.toString(version) + representation(request) + '"';
+        return request.checkNotModified(eTag, updatedAt.getTime());
+    }
+
+    // Weak validator over what a page shows: its position and the id and version of every entry. Checked
+    // before the page is mapped or serialized.
+    static <T> boolean pageNotModified(WebRequest request, List<T> content, Function<T, UUID> id,
+                                       ToLongFunction<T> version, Object... page) {
+        varyByAccept(request);
+        StringBuilder key = new StringBuilder(representation(request)).append('|');
+        for (Object part : page) {
+            key.append(part).append('|');
+        }
+        for (T entry : content) {
+            key.append(id.apply(entry)).append(':').append(version.applyAsLong(entry)).append('|');
+        }
+        return request.checkNotModified("W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + '"');
+    }
+
+    // JSON, Smile and CBOR bodies of the same version are different representations and need different
+    // validators. Mirrors the converter order: anything that accepts JSON gets JSON.
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+                if (mediaType.isCompatibleWith(WireFormatConfig.APPLICATION_SMILE)) {
+                    return "-smile";
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return "-cbor";
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // Content negotiation rejects the request on its own.
+        }
+        return "";
+    }
+
+    private static void varyByAccept(WebRequest request) {
+        if (request instanceof NativeWebRequest) {
+            HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.cargoAppService.controller;
+
+import com.cargoAppService.exceptions.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+enum ExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    static ExportFormat of(String format) {
+        for (ExportFormat candidate : values()) {
+            if (candidate.extension.equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + format + ". Use ndjson or csv.");
+    }
+
+    MediaType getMediaType() {
+        return mediaType;
+    }
+
+    String attachment(String name) {
+        return "attachment; filename=\"" + name + "." + extension + "\"";
+    }
+}
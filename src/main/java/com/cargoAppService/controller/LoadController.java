@@ -1,34 +1,87 @@
 package com.cargoAppService.controller;
 
+import com.cargoAppService.dto.CursorPage;
 import com.cargoAppService.dto.LoadDTO;
 
 import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.journal.JournalRecord;
+import com.cargoAppService.journal.TransitionJournal;
+import com.cargoAppService.service.ExportService;
+import com.cargoAppService.service.LoadBatchService;
 import com.cargoAppService.service.LoadService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 
 @RestController
 @RequestMapping("/load")
 public class LoadController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final LoadService loadService;
+    private final LoadBatchService loadBatchService;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final LoadEventStream loadEventStream;
+    private final TransitionJournal transitionJournal;
 
-    public LoadController(LoadService loadService) {
+    public LoadController(LoadService loadService, LoadBatchService loadBatchService, ExportService exportService,
+                          ObjectMapper objectMapper, LoadEventStream loadEventStream,
+                          TransitionJournal transitionJournal) {
         this.loadService = loadService;
+        this.loadBatchService = loadBatchService;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.loadEventStream = loadEventStream;
+        this.transitionJournal = transitionJournal;
     }
 
     @PostMapping
     public ResponseEntity<LoadDTO.Response> createLoad(@Valid @RequestBody LoadDTO.Create createDto) {
         Load createdLoad = loadService.createLoad(createDto);
-        return new ResponseEntity<>(toResponseDto(createdLoad), HttpStatus.CREATED);
+        return new ResponseEntity<>(LoadDTO.Response.from(createdLoad), HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LoadDTO.BatchResponse> createLoads(@RequestBody List<LoadDTO.Create> createDtos) {
+        return toBatchResponse(loadBatchService.createLoads(createDtos));
+    }
+
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON)
+    public ResponseEntity<LoadDTO.BatchResponse> createLoadsNdjson(InputStream body) throws IOException {
+        // Read line by line so an oversized upload is rejected before it is buffered.
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return toBatchResponse(loadBatchService.createLoads(lines));
     }
 
     @GetMapping
@@ -37,22 +90,143 @@ public class LoadController {
             @RequestParam(required = false) String truckType,
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Load> loads = loadService.getLoads(shipperId, truckType, status, pageable);
-        return ResponseEntity.ok(loads.map(this::toResponseDto));
+        if (ETags.pageNotModified(request, loads.getContent(), Load::getId, Load::getVersion,
+                loads.getNumber(), loads.getSize(), loads.getTotalElements())) {
+            return null;
+        }
+        return ResponseEntity.ok(loads.map(LoadDTO.Response::from));
+    }
+
+    @GetMapping(params = {"fields", "!after"})
+    public ResponseEntity<Page<Map<String, Object>>> getLoadFields(
+            @RequestParam(required = false) String shipperId,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String status,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(loadService.getLoadFields(shipperId, truckType, status, fields, pageable));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<LoadDTO.Response>> getLoadsAfter(
+            @RequestParam(required = false) String shipperId,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String status,
+            @RequestParam String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        if (fields != null) {
+            throw new InvalidRequestException("Sparse fieldsets are not supported with cursor pagination; drop 'fields' or 'after'.");
+        }
+        CursorPage<Load> loads = loadService.getLoadsAfter(shipperId, truckType, status, after, size);
+        if (ETags.pageNotModified(request, loads.getContent(), Load::getId, Load::getVersion, loads.getSize(), loads.getNextCursor())) {
+            return null;
+        }
+        return ResponseEntity.ok(loads.map(LoadDTO.Response::from));
+    }
+
+    @GetMapping("/match")
+    public ResponseEntity<List<LoadDTO.Response>> matchLoads(
+            @RequestParam(required = false) String transporterId,
+            @RequestParam String truckType,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<LoadSnapshot> loads = loadService.matchLoads(transporterId, truckType, origin, destination, from, to, limit);
+        return ResponseEntity.ok(loads.stream().map(LoadDTO.Response::from).collect(Collectors.toList()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<LoadDTO.Response>> searchLoads(
+            @RequestParam String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<LoadSnapshot> loads = loadService.searchLoads(q, status, truckType, limit);
+        return ResponseEntity.ok(loads.stream().map(LoadDTO.Response::from).collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLoads(
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return loadEventStream.subscribe(truckType, origin, destination, lastEventId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLoads(
+            @RequestParam(required = false) String shipperId,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (exportFormat == ExportFormat.CSV) {
+                writer.write(CsvRows.line("id", "shipperId", "loadingPoint", "unloadingPoint", "loadingDate",
+                        "unloadingDate", "productType", "truckType", "noOfTrucks", "weight", "comment", "status",
+                        "datePosted", "activeBookingCount"));
+            }
+            exportService.exportLoads(shipperId, truckType, status, load -> {
+                LoadDTO.Response dto = LoadDTO.Response.from(load);
+                if (exportFormat == ExportFormat.CSV) {
+                    writer.write(CsvRows.line(dto.getId(), dto.getShipperId(), dto.getLoadingPoint(),
+                            dto.getUnloadingPoint(), dto.getLoadingDate(), dto.getUnloadingDate(), dto.getProductType(),
+                            dto.getTruckType(), dto.getNoOfTrucks(), dto.getWeight(), dto.getComment(), dto.getStatus(),
+                            dto.getDatePosted(), dto.getActiveBookingCount()));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                             .contentType(exportFormat.getMediaType())
+                             .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("loads"))
+                             .body(body);
     }
 
     @GetMapping("/{loadId}")
-    public ResponseEntity<LoadDTO.Response> getLoadById(@PathVariable UUID loadId) {
-        Load load = loadService.getLoadById(loadId);
-        return ResponseEntity.ok(toResponseDto(load));
+    public ResponseEntity<LoadDTO.Response> getLoadById(@PathVariable UUID loadId, WebRequest request) {
+        // The cache may hold a copy older than the row, e.g. after a write on another instance.
+        long current = loadService.getLoadVersion(loadId).getVersion();
+        LoadDTO.Response load = loadService.getLoadById(loadId);
+        if (load.getVersion() < current) {
+            loadService.evictLoad(loadId);
+            load = loadService.getLoadById(loadId);
+        }
+        if (ETags.notModified(request, load.getVersion(), load.getUpdatedAt())) {
+            return null;
+        }
+        return ResponseEntity.ok(load);
+    }
+
+    @GetMapping("/{loadId}/history")
+    public ResponseEntity<List<LoadDTO.Transition>> getLoadHistory(@PathVariable UUID loadId) {
+        List<JournalRecord> history = transitionJournal.history(loadId);
+        if (history.isEmpty()) {
+            // Unknown loads are a 404; known loads may just not be journaled yet.
+            loadService.getLoadVersion(loadId);
+        }
+        return ResponseEntity.ok(history.stream().map(LoadController::toTransitionDto).collect(Collectors.toList()));
     }
 
     @PutMapping("/{loadId}")
     public ResponseEntity<LoadDTO.Response> updateLoad(@PathVariable UUID loadId, @RequestBody LoadDTO.Update updateDto) {
         Load updatedLoad = loadService.updateLoad(loadId, updateDto);
-        return ResponseEntity.ok(toResponseDto(updatedLoad));
+        return ResponseEntity.ok(LoadDTO.Response.from(updatedLoad));
     }
 
     @DeleteMapping("/{loadId}")
@@ -61,21 +235,20 @@ public class LoadController {
         return ResponseEntity.ok("Load Status is changed to Cancelled");
     }
 
-    private LoadDTO.Response toResponseDto(Load load) {
-        LoadDTO.Response response = new LoadDTO.Response();
-        response.setId(load.getId());
-        response.setShipperId(load.getShipperId());
-        response.setLoadingPoint(load.getLoadingPoint());
-        response.setUnloadingPoint(load.getUnloadingPoint());
-        response.setLoadingDate(load.getLoadingDate());
-        response.setUnloadingDate(load.getUnloadingDate());
-        response.setProductType(load.getProductType());
-        response.setTruckType(load.getTruckType());
-        response.setNoOfTrucks(load.getNoOfTrucks());
-        response.setWeight(load.getWeight());
-        response.setComment(load.getComment());
-        response.setStatus(load.getStatus().name());
-        response.setDatePosted(load.getDatePosted());
-        return response;
+    private ResponseEntity<LoadDTO.BatchResponse> toBatchResponse(LoadDTO.BatchResponse response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
+    private static LoadDTO.Transition toTransitionDto(JournalRecord record) {
+        LoadDTO.Transition transition = new LoadDTO.Transition();
+        transition.setAt(new Timestamp(record.getAt()));
+        transition.setSubject(record.getSubject().name());
+        transition.setId(record.getId());
+        transition.setEvent(record.getEvent());
+        transition.setStatus(record.getStatus());
+        transition.setPreviousStatus(record.getPreviousStatus());
+        transition.setTransporterId(record.getTransporterId());
+        return transition;
     }
 }
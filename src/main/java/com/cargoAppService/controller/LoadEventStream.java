@@ -0,0 +1,418 @@
+package com.cargoAppService.controller;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feed behind {@code GET /load/stream}. Committed load and booking events are serialized once into a
+ * ring buffer of the last {@code cargo.stream.buffer-size} events and fanned out to the subscribers
+ * whose truck type and lane filter they match.
+ * <p>
+ * Publishing only appends to a lock-free inbox and wakes a single dispatcher thread, which numbers the
+ * events, writes the ring buffer and registers new subscribers; committing transactions never wait on it.
+ * <p>
+ * Every subscriber has its own queue, drained by a small pool of sender threads. A subscriber that falls
+ * more than {@code cargo.stream.subscriber-backlog} events behind is disconnected instead of holding
+ * events for it; it reconnects with {@code Last-Event-ID} and catches up from the ring buffer. A send
+ * that has been blocked on a slow socket for longer than {@code cargo.stream.send-timeout} also drops the
+ * subscriber, and the pool gets a replacement thread until that send returns. When the
+ * events it missed have already left the buffer, or were numbered by another instance or an earlier
+ * run, it gets a {@code reset} event and should reload the board with {@code GET /load}.
+ */
+@Component
+public class LoadEventStream implements MeterBinder, DisposableBean {
+
+    static final String RESET = "reset";
+
+    private static final long IDLE = 0;
+    private static final long STALLED = Long.MIN_VALUE;
+
+    private static final Logger log = LoggerFactory.getLogger(LoadEventStream.class);
+
+    private static final SseEmitter.SseEventBuilder HEARTBEAT = SseEmitter.event().comment("keep-alive");
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int backlog;
+    // Event ids are "<epoch>-<sequence>"; the epoch tells ids from another run apart.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Ring and sequence are only touched by the dispatcher thread.
+    private final Entry[] ring;
+    private long nextSequence = 1;
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final int maxStalledSenders;
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public LoadEventStream(ObjectMapper objectMapper,
+                           @Value("${cargo.stream.buffer-size:4096}") int bufferSize,
+                           @Value("${cargo.stream.subscriber-backlog:256}") int backlog,
+                           @Value("${cargo.stream.timeout:PT30M}") Duration timeout,
+                           @Value("${cargo.stream.senders:4}") int senders,
+                           @Value("${cargo.stream.send-timeout:PT10S}") Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[Math.max(1, bufferSize)];
+        this.backlog = Math.max(1, backlog);
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        int size = Math.max(1, senders);
+        // Replacements for threads stuck on stalled sockets are bounded too; beyond that, slow clients queue.
+        this.maxStalledSenders = 4 * size;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "load-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "load-stream-dispatch");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Opens a stream of the events matching the given filters, all of which are optional and compared
+     * case-insensitively. With a {@code lastEventId}, the buffered events after it are sent first.
+     */
+    public SseEmitter subscribe(String truckType, String origin, String destination, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, key(truckType), key(origin), key(destination));
+        emitter.onCompletion(subscriber::gone);
+        emitter.onTimeout(subscriber::gone);
+        emitter.onError(error -> subscriber.gone());
+        // On the dispatcher, between appends, so nothing is sent twice or falls between replay and live.
+        hand(() -> {
+            replay(subscriber, lastEventId);
+            subscribers.add(subscriber);
+            if (subscriber.closed) {
+                subscribers.remove(subscriber);
+            }
+            subscriber.schedule();
+        });
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long oldest = Math.max(1, nextSequence - ring.length);
+        long last = sequenceOf(lastEventId);
+        if (last < oldest - 1 || last >= nextSequence) {
+            subscriber.replay.add(new Entry(nextSequence - 1, RESET, null, null, null, "{}"));
+            return;
+        }
+        for (long sequence = last + 1; sequence < nextSequence; sequence++) {
+            Entry entry = ring[(int) (sequence % ring.length)];
+            if (subscriber.accepts(entry)) {
+                subscriber.replay.add(entry);
+            }
+        }
+    }
+
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLoadEvent(LoadEvent event) {
+        Load load = event.getLoad();
+        publish("load." + event.getType().name().toLowerCase(Locale.ROOT), load.getTruckType(),
+                load.getLoadingPoint(), load.getUnloadingPoint(), LoadDTO.Response.from(load));
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        BookingDTO.StatusChange change = new BookingDTO.StatusChange();
+        change.setId(event.getBookingId());
+        change.setLoadId(event.getLoadId());
+        change.setTransporterId(event.getTransporterId());
+        change.setStatus(event.getStatus().name());
+        change.setPreviousStatus(event.getPreviousStatus() == null ? null : event.getPreviousStatus().name());
+        publish("booking." + event.getType().name().toLowerCase(Locale.ROOT), event.getTruckType(),
+                event.getLoadingPoint(), event.getUnloadingPoint(), change);
+    }
+
+    // The payload is a freshly built DTO, so it can be serialized later on the dispatcher.
+    private void publish(String name, String truckType, String origin, String destination, Object payload) {
+        hand(() -> append(name, truckType, origin, destination, payload));
+    }
+
+    private void hand(Runnable command) {
+        inbox.add(command);
+        LockSupport.unpark(dispatcher);
+    }
+
+    private void dispatch() {
+        while (running) {
+            Runnable command = inbox.poll();
+            if (command == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                command.run();
+            } catch (RuntimeException ex) {
+                log.warn("Dropped a load stream event", ex);
+            }
+        }
+    }
+
+    private void append(String name, String truckType, String origin, String destination, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        Entry entry = new Entry(nextSequence, name, key(truckType), key(origin), key(destination), data);
+        ring[(int) (nextSequence % ring.length)] = entry;
+        nextSequence++;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(entry)) {
+                subscriber.offer(entry);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cargo.stream.heartbeat:PT15S}", initialDelayString = "${cargo.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(null));
+    }
+
+    /**
+     * Drops subscribers whose current send has been blocked for longer than the send timeout, and gives the
+     * sender pool a thread for each until the send returns, so slow sockets cannot starve everyone else.
+     */
+    @Scheduled(fixedDelayString = "${cargo.stream.send-timeout:PT10S}", initialDelayString = "${cargo.stream.send-timeout:PT10S}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted.get();
+            if (started == IDLE || started == STALLED || now - started <= sendTimeoutNanos || !subscribers.remove(subscriber)) {
+                continue;
+            }
+            dropped.incrementAndGet();
+            subscriber.closed = true;
+            if (stalledSenders.incrementAndGet() > maxStalledSenders) {
+                stalledSenders.decrementAndGet();
+            } else if (subscriber.sendStarted.compareAndSet(started, STALLED)) {
+                resizeSenders(1);
+            } else {
+                // The send returned in the meantime.
+                stalledSenders.decrementAndGet();
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.stream.subscribers", this, LoadEventStream::subscriberCount)
+             .description("Open load event streams")
+             .register(meterRegistry);
+        FunctionCounter.builder("cargo.stream.dropped", dropped, AtomicLong::get)
+                       .description("Load event streams closed for falling behind")
+                       .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String truckType;
+        private final String origin;
+        private final String destination;
+        // Filled before the subscriber is registered and not counted against the backlog.
+        private final Queue<Entry> replay = new ConcurrentLinkedQueue<>();
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the send in progress started, IDLE, or STALLED once it has a replacement thread.
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+
+        private Subscriber(SseEmitter emitter, String truckType, String origin, String destination) {
+            this.emitter = emitter;
+            this.truckType = truckType;
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        private void gone() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private boolean accepts(Entry entry) {
+            return (truckType == null || truckType.equals(entry.truckType))
+                    && (origin == null || origin.equals(entry.origin))
+                    && (destination == null || destination.equals(entry.destination));
+        }
+
+        private void offer(Entry entry) {
+            if (queued.incrementAndGet() > backlog) {
+                // Completed by the sender: a send blocked on this client holds the emitter, and must not
+                // hold up the fan-out as well.
+                if (subscribers.remove(this)) {
+                    dropped.incrementAndGet();
+                    closed = true;
+                    schedule();
+                }
+                return;
+            }
+            queue.add(entry == null ? Entry.HEARTBEAT : entry);
+            schedule();
+        }
+
+        private void schedule() {
+            if ((closed || !(replay.isEmpty() && queue.isEmpty())) && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Entry entry;
+                while (!closed && (entry = replay.poll()) != null) {
+                    send(entry);
+                }
+                while (!closed && (entry = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    send(entry);
+                }
+                if (closed) {
+                    replay.clear();
+                    queue.clear();
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter completed; the container reports it to onError/onCompletion.
+                subscribers.remove(this);
+                replay.clear();
+                queue.clear();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // An entry offered between the last poll and clearing the flag would otherwise wait for the next one.
+            schedule();
+        }
+
+        private void send(Entry entry) throws IOException {
+            long now = System.nanoTime();
+            sendStarted.set(now == IDLE || now == STALLED ? now + 1 : now);
+            try {
+                if (entry == Entry.HEARTBEAT) {
+                    emitter.send(HEARTBEAT);
+                } else {
+                    emitter.send(SseEmitter.event()
+                                           .id(epoch + "-" + entry.sequence)
+                                           .name(entry.name)
+                                           .data(entry.data, MediaType.APPLICATION_JSON));
+                }
+            } finally {
+                if (sendStarted.getAndSet(IDLE) == STALLED) {
+                    // The stalled send returned; the replacement thread is no longer needed.
+                    stalledSenders.decrementAndGet();
+                    resizeSenders(-1);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private static final Entry HEARTBEAT = new Entry(0, null, null, null, null, null);
+
+        private final long sequence;
+        private final String name;
+        private final String truckType;
+        private final String origin;
+        private final String destination;
+        private final String data;
+
+        private Entry(long sequence, String name, String truckType, String origin, String destination, String data) {
+            this.sequence = sequence;
+            this.name = name;
+            this.truckType = truckType;
+            this.origin = origin;
+            this.destination = destination;
+            this.data = data;
+        }
+    }
+}
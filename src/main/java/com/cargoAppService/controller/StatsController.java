@@ -0,0 +1,31 @@
+package com.cargoAppService.controller;
+
+import com.cargoAppService.dto.LaneStatsDTO;
+import com.cargoAppService.service.LaneRateStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final LaneRateStats laneRateStats;
+
+    public StatsController(LaneRateStats laneRateStats) {
+        this.laneRateStats = laneRateStats;
+    }
+
+    @GetMapping("/lanes")
+    public ResponseEntity<List<LaneStatsDTO.Response>> getLaneStats(
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(laneRateStats.lanes(truckType, origin, destination, limit));
+    }
+}
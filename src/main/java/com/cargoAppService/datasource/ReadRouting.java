@@ -0,0 +1,51 @@
+package com.cargoAppService.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary. Used for clients inside their
+ * read-your-writes window and for work that builds derived state, which must not be built from a
+ * replica that is lagging behind the events it will receive next.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        pin();
+        try {
+            return work.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY.get() != null;
+    }
+
+    // Nested pins are counted so an inner onPrimary does not release an outer one.
+    static void pin() {
+        Integer depth = PRIMARY.get();
+        PRIMARY.set(depth == null ? 1 : depth + 1);
+    }
+
+    static void unpin() {
+        Integer depth = PRIMARY.get();
+        if (depth == null || depth <= 1) {
+            PRIMARY.remove();
+        } else {
+            PRIMARY.set(depth - 1);
+        }
+    }
+}
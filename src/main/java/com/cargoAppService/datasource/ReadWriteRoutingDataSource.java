@@ -0,0 +1,105 @@
+package com.cargoAppService.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends connections of read-only transactions to one of the replicas and everything else to the
+ * primary. The lookup happens when the connection is obtained, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * asks for a connection before the transaction is marked read-only, the lazy proxy only fetches one
+ * when the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_BUSY;
+
+        public static Selection of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final List<String> replicaKeys;
+    private final List<HikariDataSource> replicaPools;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, AtomicLong> routed = new LinkedHashMap<>();
+
+    /**
+     * @param replicas     replica data sources by key, each possibly wrapped around the pool it draws from
+     * @param replicaPools the pools behind {@code replicas}, in the same order; closed with this data source
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      List<HikariDataSource> replicaPools, Selection selection) {
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.replicaPools = replicaPools;
+        this.selection = selection;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        routed.put(PRIMARY, new AtomicLong());
+        replicaKeys.forEach(key -> routed.put(key, new AtomicLong()));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPinnedToPrimary()
+                && !replicaKeys.isEmpty() ? selectReplica() : PRIMARY;
+        routed.get(key).incrementAndGet();
+        return key;
+    }
+
+    private String selectReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicaKeys.size());
+        if (selection == Selection.ROUND_ROBIN || replicaPools.size() != replicaKeys.size()) {
+            return replicaKeys.get(start);
+        }
+        // Fewest connections in use wins; rotating the starting point spreads ties.
+        int best = start;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            int candidate = (start + i) % replicaKeys.size();
+            HikariPoolMXBean pool = replicaPools.get(candidate).getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return replicaKeys.get(best);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        routed.forEach((key, count) -> FunctionCounter.builder("cargo.datasource.routed", count, AtomicLong::get)
+                                                      .description("Connections handed out, by routing target")
+                                                      .tag("target", key)
+                                                      .register(meterRegistry));
+    }
+
+    @Override
+    public void destroy() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
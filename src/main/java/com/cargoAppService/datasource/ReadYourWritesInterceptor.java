@@ -0,0 +1,79 @@
+package com.cargoAppService.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Pins a client's reads to the primary for {@code cargo.datasource.routing.read-your-writes} after it
+ * sent a write, so it does not read its own change back from a replica that has not applied it yet.
+ * Clients are told apart by the {@value #CLIENT_HEADER} header; requests without it are not tracked,
+ * since behind a load balancer or NAT one address stands for many clients and a single write would
+ * pin all of them. The write is recorded when it arrives, so a read that races the response is covered,
+ * and again when it completes, so a write that takes longer than the window is covered as well.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window, long maximumClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                                     .expireAfterWrite(window)
+                                     .maximumSize(maximumClients)
+                                     .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = clientOf(request);
+        if (client == null) {
+            return true;
+        }
+        recordWrite(request, client);
+        if (recentWriters.getIfPresent(client) != null) {
+            ReadRouting.pin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        releasePin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        String client = clientOf(request);
+        if (client != null) {
+            recordWrite(request, client);
+        }
+        releasePin();
+    }
+
+    private void recordWrite(HttpServletRequest request, String client) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    // Container threads are reused, so nothing may be left pinned once the request leaves the thread.
+    private static void releasePin() {
+        while (ReadRouting.isPinnedToPrimary()) {
+            ReadRouting.unpin();
+        }
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(CLIENT_HEADER);
+        return client == null || client.isBlank() ? null : client;
+    }
+}
@@ -1,6 +1,7 @@
 package com.cargoAppService.dto;
 
-
+import com.cargoAppService.entities.Booking;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
@@ -8,9 +9,18 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 public class BookingDTO {
+
+    // Clients may send "accepted"; the status is upper-cased on the way in so @Pattern and valueOf agree.
+    private static String normalizeStatus(String status) {
+        return status == null ? null : status.trim().toUpperCase(Locale.ROOT);
+    }
+
     @Data
     public static class Create {
         @NotNull(message = "Load ID cannot be null.")
@@ -30,6 +40,10 @@ public class BookingDTO {
         @NotBlank(message = "Status is required for an update.")
         @Pattern(regexp = "ACCEPTED|REJECTED", message = "Status must be either ACCEPTED or REJECTED.")
         private String status;
+
+        public void setStatus(String status) {
+            this.status = normalizeStatus(status);
+        }
     }
 
     @Data
@@ -41,5 +55,64 @@ public class BookingDTO {
         private String comment;
         private String status;
         private Timestamp requestedAt;
+        // Validators of exactly this copy, which may be cached; not part of the body.
+        @JsonIgnore
+        private long version;
+        @JsonIgnore
+        private Timestamp updatedAt;
+
+        public static Response from(Booking booking) {
+            Response response = new Response();
+            response.setId(booking.getId());
+            response.setLoadId(booking.getLoad().getId());
+            response.setTransporterId(booking.getTransporterId());
+            response.setProposedRate(booking.getProposedRate());
+            response.setComment(booking.getComment());
+            response.setStatus(booking.getStatus().name());
+            response.setRequestedAt(booking.getRequestedAt());
+            response.setVersion(booking.getVersion());
+            response.setUpdatedAt(booking.getUpdatedAt());
+            return response;
+        }
+    }
+
+    @Data
+    public static class StatusChange {
+        private UUID id;
+        private UUID loadId;
+        private String transporterId;
+        private String status;
+        private String previousStatus;
+    }
+
+    @Data
+    public static class Decision {
+        @NotNull(message = "Booking ID cannot be null.")
+        private UUID bookingId;
+
+        @NotBlank(message = "Status is required for an update.")
+        @Pattern(regexp = "ACCEPTED|REJECTED", message = "Status must be either ACCEPTED or REJECTED.")
+        private String status;
+
+        public void setStatus(String status) {
+            this.status = normalizeStatus(status);
+        }
+    }
+
+    @Data
+    public static class BatchItemResult {
+        private int index;
+        private UUID id;
+        private String status;
+        private String previousStatus;
+        private Map<String, String> errors;
+    }
+
+    @Data
+    public static class BatchResponse {
+        private int updated;
+        private int failed;
+        private List<BatchItemResult> results;
+        private List<UUID> autoRejected;
     }
-}
\ No newline at end of file
+}
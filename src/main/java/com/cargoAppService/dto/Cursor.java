@@ -0,0 +1,40 @@
+package com.cargoAppService.dto;
+
+import com.cargoAppService.exceptions.InvalidRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a keyset-ordered listing: the sort timestamp and id of the last row a client has seen.
+ * Clients only ever see the encoded form, so the layout can change without breaking them.
+ */
+@Value
+public class Cursor {
+
+    private static final char SEPARATOR = '|';
+
+    Timestamp timestamp;
+    UUID id;
+
+    public static String encode(Timestamp timestamp, UUID id) {
+        String raw = timestamp.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Timestamp timestamp = Timestamp.from(Instant.parse(raw.substring(0, separator)));
+            UUID id = UUID.fromString(raw.substring(separator + 1));
+            return new Cursor(timestamp, id);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+}
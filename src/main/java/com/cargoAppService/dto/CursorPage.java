@@ -0,0 +1,31 @@
+package com.cargoAppService.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Value
+public class CursorPage<T> {
+
+    List<T> content;
+    int size;
+    String nextCursor;
+
+    /**
+     * Builds a page from a window fetched with {@code size + 1} rows; the extra row only signals that
+     * another page exists and is dropped from the content.
+     */
+    public static <T> CursorPage<T> of(List<T> window, int size, Function<T, String> cursorOf) {
+        if (window.size() <= size) {
+            return new CursorPage<>(window, size, null);
+        }
+        List<T> content = window.subList(0, size);
+        return new CursorPage<>(content, size, cursorOf.apply(content.get(size - 1)));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), size, nextCursor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.cargoAppService.dto;
+
+
+import lombok.Data;
+
+public class LaneStatsDTO {
+    @Data
+    public static class Response {
+        private String truckType;
+        private String loadingPoint;
+        private String unloadingPoint;
+        private long bids;
+        private long accepted;
+        private long rejected;
+        private Double minRate;
+        private Double p50Rate;
+        private Double p90Rate;
+        private Double maxRate;
+    }
+}
@@ -1,5 +1,8 @@
 package com.cargoAppService.dto;
 
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadSnapshot;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import javax.validation.constraints.Min;
@@ -7,6 +10,9 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class LoadDTO {
@@ -38,6 +44,8 @@ public class LoadDTO {
     public static class Update {
         private String loadingPoint;
         private String unloadingPoint;
+        private Timestamp loadingDate;
+        private Timestamp unloadingDate;
         private String productType;
         private String truckType;
         private Integer noOfTrucks;
@@ -60,5 +68,82 @@ public class LoadDTO {
         private String comment;
         private String status;
         private Timestamp datePosted;
+        private int activeBookingCount;
+        // Validators of exactly this copy, which may be cached; not part of the body.
+        @JsonIgnore
+        private long version;
+        @JsonIgnore
+        private Timestamp updatedAt;
+
+        public static Response from(Load load) {
+            Response response = new Response();
+            response.setId(load.getId());
+            response.setShipperId(load.getShipperId());
+            response.setLoadingPoint(load.getLoadingPoint());
+            response.setUnloadingPoint(load.getUnloadingPoint());
+            response.setLoadingDate(load.getLoadingDate());
+            response.setUnloadingDate(load.getUnloadingDate());
+            response.setProductType(load.getProductType());
+            response.setTruckType(load.getTruckType());
+            response.setNoOfTrucks(load.getNoOfTrucks());
+            response.setWeight(load.getWeight());
+            response.setComment(load.getComment());
+            response.setStatus(load.getStatus().name());
+            response.setDatePosted(load.getDatePosted());
+            response.setActiveBookingCount(load.getActiveBookingCount());
+            response.setVersion(load.getVersion());
+            response.setUpdatedAt(load.getUpdatedAt());
+            return response;
+        }
+
+        public static Response from(LoadSnapshot load) {
+            Response response = new Response();
+            response.setId(load.getId());
+            response.setShipperId(load.getShipperId());
+            response.setLoadingPoint(load.getLoadingPoint());
+            response.setUnloadingPoint(load.getUnloadingPoint());
+            response.setLoadingDate(timestamp(load.getLoadingDate()));
+            response.setUnloadingDate(timestamp(load.getUnloadingDate()));
+            response.setProductType(load.getProductType());
+            response.setTruckType(load.getTruckType());
+            response.setNoOfTrucks(load.getNoOfTrucks());
+            response.setWeight(load.getWeight());
+            response.setComment(load.getComment());
+            response.setStatus(load.getStatus().name());
+            response.setDatePosted(timestamp(load.getDatePosted()));
+            response.setActiveBookingCount(load.getActiveBookingCount());
+            response.setVersion(load.getVersion());
+            return response;
+        }
+
+        private static Timestamp timestamp(Instant instant) {
+            return instant == null ? null : Timestamp.from(instant);
+        }
+    }
+
+    @Data
+    public static class Transition {
+        private Timestamp at;
+        private String subject;
+        private UUID id;
+        private String event;
+        private String status;
+        private String previousStatus;
+        private String transporterId;
+    }
+
+    @Data
+    public static class BatchItemResult {
+        private int index;
+        private UUID id;
+        private String status;
+        private Map<String, String> errors;
+    }
+
+    @Data
+    public static class BatchResponse {
+        private int created;
+        private int failed;
+        private List<BatchItemResult> results;
     }
 }
@@ -1,6 +1,8 @@
 package com.cargoAppService.entities;
 
 import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
@@ -12,9 +14,17 @@ import java.util.UUID;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
+    @Version
+    private long version;
+
+    // Last-Modified of the resource; bulk updates in LoadRepository set it explicitly.
+    @UpdateTimestamp
+    private Timestamp updatedAt;
+
     private String transporterId;
     private double proposedRate;
     private String comment;
@@ -29,6 +39,10 @@ public class Booking {
     private Load load;
 
     public enum Status {
-        PENDING, ACCEPTED, REJECTED
+        PENDING, ACCEPTED, REJECTED;
+
+        public boolean isActive() {
+            return this == PENDING || this == ACCEPTED;
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.cargoAppService.entities;
 
 import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
@@ -13,9 +15,17 @@ import java.util.UUID;
 public class Load {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
+    @Version
+    private long version;
+
+    // Last-Modified of the resource; bulk updates in LoadRepository set it explicitly.
+    @UpdateTimestamp
+    private Timestamp updatedAt;
+
     private String shipperId;
     private String loadingPoint;
     private String unloadingPoint;
@@ -31,10 +41,13 @@ public class Load {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Number of PENDING or ACCEPTED bookings, maintained by LoadRepository.adjustActiveBookingCount.
+    private int activeBookingCount;
+
     @OneToMany(mappedBy = "load", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Booking> bookings;
 
     public enum Status {
-        POSTED, BOOKED, CANCELLED
+        POSTED, BOOKED, CANCELLED, EXPIRED
     }
 }
\ No newline at end of file
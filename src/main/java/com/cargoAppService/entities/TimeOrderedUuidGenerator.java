@@ -0,0 +1,43 @@
+package com.cargoAppService.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates UUIDv7-style ids: 48 bits of Unix milliseconds, then a 12-bit counter, then 62 random bits.
+ * New rows therefore land at the right edge of the primary-key index (and of indexes on foreign keys to
+ * recent rows) instead of on random pages.
+ * <p>
+ * Ids are strictly increasing within the JVM. The timestamp and counter are advanced together with one
+ * compare-and-set, so a burst of more than 4096 ids in a millisecond borrows from the next millisecond
+ * instead of blocking. The random bits come from {@link ThreadLocalRandom}; the ids are unique, not secret.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "time-ordered-uuid";
+    public static final String STRATEGY = "com.cargoAppService.entities.TimeOrderedUuidGenerator";
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000_0000_0000_0000L;
+
+    // Milliseconds shifted left by 12, plus the counter, of the last id handed out.
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSignificant = (stamp >>> 12) << 16 | VERSION_7 | (stamp & 0xFFF);
+        long leastSignificant = VARIANT_RFC_4122 | ThreadLocalRandom.current().nextLong() >>> 2;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cargoAppService.events;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import lombok.Value;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that created, updated or deleted a booking. {@code previousStatus}
+ * is null for created bookings. The lane fields are copied from the booking's load so listeners do not
+ * need a session to read them. A write that moves the load's active-booking counter also publishes a
+ * {@link LoadEvent} with the load as re-read after the update.
+ */
+@Value
+public class BookingEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    Type type;
+    UUID bookingId;
+    UUID loadId;
+    String transporterId;
+    double proposedRate;
+    Booking.Status status;
+    Booking.Status previousStatus;
+    Timestamp requestedAt;
+    String truckType;
+    String loadingPoint;
+    String unloadingPoint;
+
+    public static BookingEvent of(Type type, Booking booking, Booking.Status previousStatus) {
+        Load load = booking.getLoad();
+        return new BookingEvent(type, booking.getId(), load.getId(), booking.getTransporterId(),
+                booking.getProposedRate(), booking.getStatus(), previousStatus, booking.getRequestedAt(),
+                load.getTruckType(), load.getLoadingPoint(), load.getUnloadingPoint());
+    }
+}
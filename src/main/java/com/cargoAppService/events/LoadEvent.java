@@ -0,0 +1,20 @@
+package com.cargoAppService.events;
+
+import com.cargoAppService.entities.Load;
+import lombok.Value;
+
+/**
+ * Published inside the transaction that changed a load. Listeners that keep derived state should use
+ * {@code @TransactionalEventListener} so they only see committed changes. The load is the state as of
+ * the change, including its version, and must be treated as read-only.
+ */
+@Value
+public class LoadEvent {
+
+    public enum Type {
+        CREATED, UPDATED, CANCELLED, EXPIRED, BOOKINGS_CHANGED
+    }
+
+    Type type;
+    Load load;
+}
@@ -0,0 +1,43 @@
+package com.cargoAppService.events;
+
+import com.cargoAppService.entities.Load;
+import lombok.Value;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An immutable copy of a load's columns, for in-memory indexes that outlive the session the load was
+ * read in. Dates are held as instants so nothing reachable from a snapshot can be changed in place.
+ */
+@Value
+public class LoadSnapshot {
+
+    UUID id;
+    long version;
+    String shipperId;
+    String loadingPoint;
+    String unloadingPoint;
+    Instant loadingDate;
+    Instant unloadingDate;
+    String productType;
+    String truckType;
+    int noOfTrucks;
+    double weight;
+    String comment;
+    Instant datePosted;
+    Load.Status status;
+    int activeBookingCount;
+
+    public static LoadSnapshot of(Load load) {
+        return new LoadSnapshot(load.getId(), load.getVersion(), load.getShipperId(), load.getLoadingPoint(),
+                load.getUnloadingPoint(), instant(load.getLoadingDate()), instant(load.getUnloadingDate()),
+                load.getProductType(), load.getTruckType(), load.getNoOfTrucks(), load.getWeight(), load.getComment(),
+                instant(load.getDatePosted()), load.getStatus(), load.getActiveBookingCount());
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cargoAppService.journal;
+
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * One state transition of a load or of a booking on it. {@code previousStatus} is null for the first
+ * record of an entity; {@code transporterId} is only set for bookings.
+ */
+@Value
+public class JournalRecord {
+
+    public enum Subject {
+        LOAD, BOOKING
+    }
+
+    long at;
+    Subject subject;
+    UUID id;
+    UUID loadId;
+    String event;
+    String status;
+    String previousStatus;
+    String transporterId;
+
+    JournalRecord withPreviousStatus(String previousStatus) {
+        return new JournalRecord(at, subject, id, loadId, event, status, previousStatus, transporterId);
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(at);
+            out.writeByte(subject.ordinal());
+            writeUuid(out, id);
+            writeUuid(out, loadId);
+            out.writeUTF(event);
+            out.writeUTF(status);
+            writeNullable(out, previousStatus);
+            writeNullable(out, transporterId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalRecord decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return new JournalRecord(in.readLong(), Subject.values()[in.readByte()], readUuid(in), readUuid(in),
+                    in.readUTF(), in.readUTF(), readNullable(in), readNullable(in));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
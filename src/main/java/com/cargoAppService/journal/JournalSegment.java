@@ -0,0 +1,206 @@
+package com.cargoAppService.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped journal file. After an 8-byte header (magic and format) come records of
+ * {@code [int length][int crc32][payload]}. The length is written last, so a record is only visible once
+ * complete; a zero length marks the end, and a record with a bad length or checksum, as left by a crash
+ * mid-write, is treated as the end too.
+ * <p>
+ * Only the journal writer appends; any thread may read records below the end it has published.
+ */
+final class JournalSegment {
+
+    static final int HEADER_SIZE = 8;
+    private static final int MAGIC = 0x434A524E;
+    private static final int FORMAT = 1;
+    private static final int RECORD_OVERHEAD = 8;
+
+    // sun.misc.Unsafe.invokeCleaner (jdk.unsupported) is the only way to unmap a buffer before it is
+    // collected; without it segments are unmapped by the garbage collector as before.
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field instance = type.getDeclaredField("theUnsafe");
+            instance.setAccessible(true);
+            unsafe = instance.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path path;
+    private final int id;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int end;
+
+    private JournalSegment(Path path, int id, FileChannel channel, MappedByteBuffer buffer, int end) {
+        this.path = path;
+        this.id = id;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.end = end;
+    }
+
+    static JournalSegment create(Path path, int id, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, HEADER_SIZE + RECORD_OVERHEAD));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT);
+        return new JournalSegment(path, id, channel, buffer, HEADER_SIZE);
+    }
+
+    static JournalSegment open(Path path, int id) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            channel.close();
+            unmap(buffer);
+            throw new IOException("Not a journal segment: " + path);
+        }
+        JournalSegment segment = new JournalSegment(path, id, channel, buffer, HEADER_SIZE);
+        segment.end = segment.scan(null);
+        segment.clearTornTail();
+        return segment;
+    }
+
+    int id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    static int recordSize(byte[] payload) {
+        return RECORD_OVERHEAD + payload.length;
+    }
+
+    /**
+     * Appends a record and returns its offset, or -1 if it does not fit.
+     */
+    int append(byte[] payload) {
+        int offset = end;
+        if ((long) offset + RECORD_OVERHEAD + payload.length > buffer.capacity()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + 4);
+        target.putInt((int) crc.getValue());
+        target.put(payload);
+        buffer.putInt(offset, payload.length);
+        end = offset + RECORD_OVERHEAD + payload.length;
+        return offset;
+    }
+
+    byte[] read(int offset) {
+        ByteBuffer source = buffer.duplicate();
+        int length = source.getInt(offset);
+        byte[] payload = new byte[length];
+        source.position(offset + RECORD_OVERHEAD);
+        source.get(payload);
+        return payload;
+    }
+
+    /**
+     * Calls {@code consumer} with every intact record and its offset, and returns the end offset.
+     */
+    int scan(ObjLongConsumer<byte[]> consumer) {
+        ByteBuffer source = buffer.duplicate();
+        int offset = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (offset + RECORD_OVERHEAD <= source.capacity()) {
+            int length = source.getInt(offset);
+            if (length <= 0 || (long) offset + RECORD_OVERHEAD + length > source.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            source.position(offset + RECORD_OVERHEAD);
+            source.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != source.getInt(offset + 4)) {
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(payload, offset);
+            }
+            offset += RECORD_OVERHEAD + length;
+        }
+        return offset;
+    }
+
+    // A record cut off by a crash is zeroed, so it cannot pass for a record once appends resume over it.
+    private void clearTornTail() {
+        if (end + 4 > buffer.capacity()) {
+            return;
+        }
+        long tornLength = Math.max(0, buffer.getInt(end));
+        int limit = (int) Math.min(buffer.capacity(), end + RECORD_OVERHEAD + tornLength);
+        for (int offset = end; offset < limit; offset++) {
+            buffer.put(offset, (byte) 0);
+        }
+    }
+
+    int size() {
+        return end;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Closes the file and unmaps it right away rather than whenever the buffer is collected, so a
+     * replaced segment does not keep its old file mapped. The segment must not be read afterwards.
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            unmap(buffer);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException ex) {
+            // Left to the garbage collector, as without the cleaner.
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
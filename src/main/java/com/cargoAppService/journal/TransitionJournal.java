@@ -0,0 +1,454 @@
+package com.cargoAppService.journal;
+
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local append-only history of load and booking status transitions, kept next to the database instead of
+ * in it so it adds no write to the transactions it records.
+ * <p>
+ * Committed load and booking events are put on a lock-free queue, which is all the request thread does.
+ * A single writer appends them to memory-mapped segment files under {@code cargo.journal.directory},
+ * rolling to a new file every {@code cargo.journal.segment-size} and forcing dirty pages to disk every
+ * {@code cargo.journal.sync-interval}; a crash loses at most that window, and a torn last record is
+ * detected by its checksum and dropped on restart. Every record is indexed by load in memory, rebuilt
+ * from the segments at startup.
+ * <p>
+ * Compaction rewrites full segments without the records of loads that were cancelled or expired more
+ * than {@code cargo.journal.retention} ago. A rewritten segment replaces the original with an atomic
+ * rename, so a crash leaves either the old or the new file, and only if none of the loads it drops changed
+ * while it was being written. Replaced segments are unmapped straight away.
+ */
+@Component
+public class TransitionJournal implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TransitionJournal.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{10})\\.seg");
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+    private final Duration retention;
+    private final int queueCapacity;
+
+    private final Queue<JournalRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Appends and reads share the lock; compaction takes it exclusively to swap segments and reindex.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentSkipListMap<Integer, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    // Segment id in the high and offset in the low 32 bits; arrays are replaced, never changed.
+    private final Map<UUID, long[]> positions = new ConcurrentHashMap<>();
+    private final Map<UUID, String> loadStatuses = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> terminalAt = new ConcurrentHashMap<>();
+
+    private volatile JournalSegment active;
+    private volatile boolean running;
+    private Thread writer;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+
+    public TransitionJournal(@Value("${cargo.journal.directory:journal}") String directory,
+                             @Value("${cargo.journal.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${cargo.journal.sync-interval:PT1S}") Duration syncInterval,
+                             @Value("${cargo.journal.retention:P30D}") Duration retention,
+                             @Value("${cargo.journal.queue-capacity:100000}") int queueCapacity) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(4096, segmentSize.toBytes()));
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.retention = retention;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @TransactionalEventListener
+    public void onLoadEvent(LoadEvent event) {
+        Load load = event.getLoad();
+        enqueue(new JournalRecord(System.currentTimeMillis(), JournalRecord.Subject.LOAD, load.getId(), load.getId(),
+                event.getType().name(), load.getStatus().name(), null, null));
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        enqueue(new JournalRecord(System.currentTimeMillis(), JournalRecord.Subject.BOOKING, event.getBookingId(),
+                event.getLoadId(), event.getType().name(), event.getStatus().name(),
+                event.getPreviousStatus() == null ? null : event.getPreviousStatus().name(), event.getTransporterId()));
+        // The load's own transition is journalled from its LoadEvent, which carries the state the write
+        // left in the database; the history has no resync to correct a derived one.
+    }
+
+    private void enqueue(JournalRecord record) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        // The history is best effort: a writer that falls behind costs records, never request latency.
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(record);
+    }
+
+    /**
+     * The recorded transitions of a load and of the bookings on it, oldest first. Transitions committed
+     * in the last few milliseconds may not be included yet.
+     */
+    public List<JournalRecord> history(UUID loadId) {
+        lock.readLock().lock();
+        try {
+            long[] recorded = positions.get(loadId);
+            if (recorded == null) {
+                return Collections.emptyList();
+            }
+            List<JournalRecord> history = new ArrayList<>(recorded.length);
+            for (long position : recorded) {
+                history.add(JournalRecord.decode(segments.get((int) (position >>> 32)).read((int) position)));
+            }
+            return history;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void drain() {
+        long lastSync = System.nanoTime();
+        boolean dirty = false;
+        while (running || !queue.isEmpty()) {
+            if (dirty && System.nanoTime() - lastSync >= syncIntervalNanos) {
+                active.force();
+                dirty = false;
+                lastSync = System.nanoTime();
+            }
+            JournalRecord record = queue.poll();
+            if (record == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            queued.decrementAndGet();
+            try {
+                dirty |= append(record);
+            } catch (IOException | RuntimeException ex) {
+                dropped.incrementAndGet();
+                log.warn("Could not journal {} {} of load {}", record.getSubject(), record.getEvent(), record.getLoadId(), ex);
+            }
+        }
+        active.force();
+    }
+
+    private boolean append(JournalRecord record) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (record.getSubject() == JournalRecord.Subject.LOAD) {
+                String previous = loadStatuses.put(record.getLoadId(), record.getStatus());
+                // Counter changes that leave the status as it was are not transitions.
+                if (LoadEvent.Type.BOOKINGS_CHANGED.name().equals(record.getEvent()) && record.getStatus().equals(previous)) {
+                    return false;
+                }
+                record = record.withPreviousStatus(previous);
+            }
+            byte[] payload = record.encode();
+            int offset = active.append(payload);
+            if (offset < 0) {
+                roll();
+                offset = active.append(payload);
+                if (offset < 0) {
+                    throw new IllegalStateException("Journal record does not fit in a segment");
+                }
+            }
+            index(record, active.id(), offset);
+            appended.incrementAndGet();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        int id = active.id() + 1;
+        JournalSegment next = JournalSegment.create(directory.resolve(segmentName(id)), id, segmentSize);
+        segments.put(id, next);
+        active = next;
+    }
+
+    private void index(JournalRecord record, int segmentId, int offset) {
+        long position = (long) segmentId << 32 | offset;
+        positions.merge(record.getLoadId(), new long[]{position}, (current, added) -> {
+            long[] merged = Arrays.copyOf(current, current.length + 1);
+            merged[current.length] = position;
+            return merged;
+        });
+        if (record.getSubject() == JournalRecord.Subject.LOAD) {
+            loadStatuses.put(record.getLoadId(), record.getStatus());
+            if (isTerminal(record.getStatus())) {
+                terminalAt.put(record.getLoadId(), record.getAt());
+            } else {
+                terminalAt.remove(record.getLoadId());
+            }
+        }
+    }
+
+    private static boolean isTerminal(String status) {
+        return Load.Status.CANCELLED.name().equals(status) || Load.Status.EXPIRED.name().equals(status);
+    }
+
+    /**
+     * Rewrites the segments before the active one that hold records past retention, and returns how many
+     * records were removed.
+     */
+    @Scheduled(fixedDelayString = "${cargo.journal.compaction-interval:PT1H}", initialDelayString = "${cargo.journal.compaction-interval:PT1H}")
+    public int compact() {
+        if (!running) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        List<Rewrite> rewrites = new ArrayList<>();
+        int removed = 0;
+        int swapped = 0;
+        // Segments before the active one no longer change, so appends and reads go on during the copy; the
+        // shared lock only keeps stop() from unmapping a segment that is being copied.
+        lock.readLock().lock();
+        try {
+            for (JournalSegment segment : segments.headMap(active.id()).values()) {
+                List<byte[]> kept = new ArrayList<>();
+                Map<UUID, Long> dropped = new HashMap<>();
+                AtomicInteger expired = new AtomicInteger();
+                AtomicLong size = new AtomicLong(JournalSegment.HEADER_SIZE);
+                segment.scan((payload, offset) -> {
+                    UUID loadId = JournalRecord.decode(payload).getLoadId();
+                    Long terminal = terminalAt.get(loadId);
+                    if (terminal != null && terminal < cutoff) {
+                        dropped.put(loadId, terminal);
+                        expired.incrementAndGet();
+                    } else {
+                        kept.add(payload);
+                        size.addAndGet(JournalSegment.recordSize(payload));
+                    }
+                });
+                if (expired.get() == 0) {
+                    continue;
+                }
+                Path temporary = segment.path().resolveSibling(segment.path().getFileName() + COMPACTING_SUFFIX);
+                Files.deleteIfExists(temporary);
+                if (!kept.isEmpty()) {
+                    JournalSegment copy = JournalSegment.create(temporary, segment.id(), (int) size.get());
+                    kept.forEach(copy::append);
+                    copy.force();
+                    copy.close();
+                }
+                rewrites.add(new Rewrite(segment, temporary, dropped, expired.get()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (rewrites.isEmpty()) {
+            return 0;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                if (!running) {
+                    // Stopped in the meantime; the copies are deleted at the next start.
+                    return 0;
+                }
+                for (Rewrite rewrite : rewrites) {
+                    JournalSegment segment = rewrite.segment;
+                    // A load that was reopened or closed again since the copy was made keeps its records.
+                    if (!rewrite.dropped.entrySet().stream()
+                                        .allMatch(entry -> entry.getValue().equals(terminalAt.get(entry.getKey())))) {
+                        Files.deleteIfExists(rewrite.temporary);
+                        continue;
+                    }
+                    segments.remove(segment.id());
+                    if (Files.exists(rewrite.temporary)) {
+                        segment.close();
+                        Files.move(rewrite.temporary, segment.path(), StandardCopyOption.ATOMIC_MOVE,
+                                StandardCopyOption.REPLACE_EXISTING);
+                        segments.put(segment.id(), JournalSegment.open(segment.path(), segment.id()));
+                    } else {
+                        segment.delete();
+                    }
+                    removed += rewrite.removed;
+                    swapped++;
+                }
+                if (swapped > 0) {
+                    reindex();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        log.info("Compacted {} journal segments, removing {} records", swapped, removed);
+        return removed;
+    }
+
+    private void reindex() {
+        positions.clear();
+        loadStatuses.clear();
+        terminalAt.clear();
+        for (JournalSegment segment : segments.values()) {
+            segment.scan((payload, offset) -> index(JournalRecord.decode(payload), segment.id(), (int) offset));
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            directoryLock = lockChannel.tryLock();
+            if (directoryLock == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Journal directory " + directory.toAbsolutePath() + " is used by another process");
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    Matcher matcher = SEGMENT_NAME.matcher(name);
+                    if (name.endsWith(COMPACTING_SUFFIX)) {
+                        // Left by a compaction that did not finish; the original segment is still in place.
+                        Files.delete(file);
+                    } else if (matcher.matches()) {
+                        int id = Integer.parseInt(matcher.group(1));
+                        segments.put(id, JournalSegment.open(file, id));
+                    }
+                }
+            }
+            reindex();
+            if (segments.isEmpty()) {
+                segments.put(1, JournalSegment.create(directory.resolve(segmentName(1)), 1, segmentSize));
+            }
+            active = segments.lastEntry().getValue();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        running = true;
+        writer = new Thread(this::drain, "transition-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // Closing unmaps the segments, so no reader may still be using one.
+        lock.writeLock().lock();
+        try {
+            segments.values().forEach(JournalSegment::close);
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            directoryLock.release();
+            lockChannel.close();
+        } catch (IOException ex) {
+            log.warn("Could not release the journal directory lock", ex);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started before and stopped after the web server and the group committer, so no transition is missed.
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+
+    private static String segmentName(int id) {
+        return String.format("journal-%010d.seg", id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.journal.queued", queued, AtomicInteger::get)
+             .description("Transitions waiting to be journaled")
+             .register(meterRegistry);
+        Gauge.builder("cargo.journal.segments", segments, Map::size)
+             .description("Journal segment files")
+             .register(meterRegistry);
+        FunctionCounter.builder("cargo.journal.appended", appended, AtomicLong::get)
+                       .description("Transitions written to the journal")
+                       .register(meterRegistry);
+        FunctionCounter.builder("cargo.journal.dropped", dropped, AtomicLong::get)
+                       .description("Transitions that could not be journaled")
+                       .register(meterRegistry);
+    }
+
+    private static final class Rewrite {
+
+        private final JournalSegment segment;
+        private final Path temporary;
+        // The terminal time each dropped load had when its records were left out of the copy.
+        private final Map<UUID, Long> dropped;
+        private final int removed;
+
+        private Rewrite(JournalSegment segment, Path temporary, Map<UUID, Long> dropped, int removed) {
+            this.segment = segment;
+            this.temporary = temporary;
+            this.dropped = dropped;
+            this.removed = removed;
+        }
+    }
+}
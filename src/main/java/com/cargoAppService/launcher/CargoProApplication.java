@@ -3,6 +3,7 @@ package com.cargoAppService.launcher;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication(scanBasePackages = "com.cargoAppService")
@@ -10,10 +11,15 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(basePackages = "com.cargoAppService.entities")
 public class CargoProApplication {
 
+    // Startup steps kept for the startup report and /actuator/startup; steps past this are dropped.
+    public static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(CargoProApplication.class, args);
+        SpringApplication application = new SpringApplication(CargoProApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
 
         System.out.println("\nCargoPro Backend System is running!");
         System.out.println("Access Swagger UI at: http://localhost:8080/swagger-ui.html\n");
     }
-}
\ No newline at end of file
+}
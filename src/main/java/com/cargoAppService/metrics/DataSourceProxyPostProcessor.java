@@ -0,0 +1,42 @@
+package com.cargoAppService.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps data sources so {@link SqlStatementListener} sees every statement. The listener is looked up
+ * lazily because post-processors are instantiated before any regular bean. Data sources that only
+ * delegate (routing, lazy connection proxies) are left alone; wrapping them as well would count every
+ * statement twice.
+ */
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementListener> sqlStatementListener;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<SqlStatementListener> sqlStatementListener) {
+        this.sqlStatementListener = sqlStatementListener;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)
+                && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return proxy((DataSource) bean, beanName, sqlStatementListener.getObject());
+        }
+        return bean;
+    }
+
+    // Also used for data sources that are not beans of their own, such as read replica pools.
+    public static DataSource proxy(DataSource dataSource, String name, SqlStatementListener sqlStatementListener) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                                     .name(name)
+                                     .listener(sqlStatementListener)
+                                     .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.cargoAppService.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Observes every JDBC execution on the application data source. Executions are timed per statement
+ * type, counted for the request running on the current thread, and statements slower than the
+ * threshold are counted and logged, the log being sampled so a slow database cannot flood it.
+ * <p>
+ * The listener is created together with the data source, long before the meter registry exists, so
+ * its meters are only registered once Spring Boot binds it; statements executed earlier (migrations)
+ * are not timed.
+ */
+@Component
+public class SqlStatementListener implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger("com.cargoAppService.sql.slow");
+
+    private final long slowThresholdMillis;
+    private final double slowLogSampleRate;
+    private final ThreadLocal<int[]> requestCount = new ThreadLocal<>();
+    private volatile Map<QueryType, Timer> timers;
+    private volatile Counter slowStatements;
+
+    public SqlStatementListener(@Value("${cargo.sql.slow-query.threshold-ms:200}") long slowThresholdMillis,
+                                @Value("${cargo.sql.slow-query.log-sample-rate:1.0}") double slowLogSampleRate) {
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.slowLogSampleRate = slowLogSampleRate;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Map<QueryType, Timer> typeTimers = new EnumMap<>(QueryType.class);
+        for (QueryType type : QueryType.values()) {
+            typeTimers.put(type, Timer.builder("cargo.sql.statements")
+                                      .description("JDBC statement executions")
+                                      .tag("type", type.name().toLowerCase())
+                                      .publishPercentiles(0.5, 0.95, 0.99)
+                                      .register(meterRegistry));
+        }
+        slowStatements = Counter.builder("cargo.sql.slow")
+                                .description("JDBC statement executions slower than the slow-query threshold")
+                                .register(meterRegistry);
+        timers = typeTimers;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Map<QueryType, Timer> typeTimers = timers;
+        if (typeTimers != null) {
+            QueryType type = queryInfoList.isEmpty() ? QueryType.OTHER : QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+            typeTimers.get(type).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+        }
+
+        int[] count = requestCount.get();
+        if (count != null) {
+            count[0]++;
+        }
+
+        if (execInfo.getElapsedTime() >= slowThresholdMillis) {
+            if (slowStatements != null) {
+                slowStatements.increment();
+            }
+            if (ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                log.warn("Slow SQL ({} ms, batch size {}): {}", execInfo.getElapsedTime(), execInfo.getBatchSize(),
+                        queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+            }
+        }
+    }
+
+    /**
+     * Starts counting the statements executed by the current thread.
+     */
+    public void startCounting() {
+        requestCount.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread and returns the number of statements seen since
+     * {@link #startCounting()}, or -1 if counting was not started.
+     */
+    public int stopCounting() {
+        int[] count = requestCount.get();
+        requestCount.remove();
+        return count == null ? -1 : count[0];
+    }
+}
@@ -0,0 +1,70 @@
+package com.cargoAppService.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request issued, per endpoint, so N+1 query patterns show up as
+ * a jump in {@code cargo.sql.statements.per.request} instead of only as latency.
+ */
+@Component
+public class SqlStatementsPerRequestInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementsPerRequestInterceptor.class);
+
+    private final SqlStatementListener sqlStatementListener;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlStatementsPerRequestInterceptor(SqlStatementListener sqlStatementListener, MeterRegistry meterRegistry,
+                                              @Value("${cargo.sql.per-request.warn-threshold:50}") int warnThreshold) {
+        this.sqlStatementListener = sqlStatementListener;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlStatementListener.startCounting();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = sqlStatementListener.stopCounting();
+        if (statements < 0) {
+            return;
+        }
+        String uri = uri(request);
+        DistributionSummary.builder("cargo.sql.statements.per.request")
+                           .description("SQL statements executed while handling one request")
+                           .tag("method", request.getMethod())
+                           .tag("uri", uri)
+                           .publishPercentiles(0.5, 0.95, 0.99)
+                           .register(meterRegistry)
+                           .record(statements);
+        if (statements > warnThreshold) {
+            log.warn("{} {} executed {} SQL statements", request.getMethod(), uri, statements);
+        }
+    }
+
+    // Streaming responses finish on another thread; their statements are not attributed to the request.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlStatementListener.stopCounting();
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
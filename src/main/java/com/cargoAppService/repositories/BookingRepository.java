@@ -2,12 +2,58 @@ package com.cargoAppService.repositories;
 
 
 import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpecificationExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpecificationExecutor<Booking>, BookingRepositoryCustom {
+
+    @Query("select b.version as version, b.updatedAt as updatedAt from Booking b where b.id = :bookingId")
+    Optional<EntityVersion> findVersionById(@Param("bookingId") UUID bookingId);
+
+    @Query("select b.load.id from Booking b where b.id = :bookingId")
+    Optional<UUID> findLoadIdById(@Param("bookingId") UUID bookingId);
+
+    // (load id, transporter id) pairs for every booking on a load in the given status.
+    @Query("select b.load.id, b.transporterId from Booking b where b.load.status = :status")
+    List<Object[]> findLoadBidders(@Param("status") Load.Status status);
+
+    @Query("select distinct b.load.id from Booking b where b.id in :bookingIds")
+    List<UUID> findLoadIdsByIds(@Param("bookingIds") Collection<UUID> bookingIds);
+
+    @Query("select b from Booking b join fetch b.load where b.id in :bookingIds")
+    List<Booking> findAllWithLoadByIds(@Param("bookingIds") Collection<UUID> bookingIds);
+
+    @Query("select b from Booking b join fetch b.load where b.load.id in :loadIds and b.status = :status")
+    List<Booking> findAllWithLoadByLoadIds(@Param("loadIds") Collection<UUID> loadIds,
+                                           @Param("status") Booking.Status status);
+
+    // Bookings in the given status on any of the loads, apart from the excluded ones.
+    @Query("select b from Booking b join fetch b.load "
+            + "where b.load.id in :loadIds and b.status = :status and b.id not in :excludedIds")
+    List<Booking> findOthersOnLoads(@Param("loadIds") Collection<UUID> loadIds,
+                                    @Param("status") Booking.Status status,
+                                    @Param("excludedIds") Collection<UUID> excludedIds);
+
+    /**
+     * Moves every listed booking that is still in status {@code from} to {@code to} in one UPDATE and
+     * returns how many rows changed; fewer than requested means another writer got there first. The
+     * version is bumped so entity-level writers holding an older copy fail their optimistic check.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :to, b.version = b.version + 1, b.updatedAt = current_timestamp "
+            + "where b.id in :bookingIds and b.status = :from")
+    int updateStatus(@Param("bookingIds") Collection<UUID> bookingIds,
+                     @Param("from") Booking.Status from,
+                     @Param("to") Booking.Status to);
 }
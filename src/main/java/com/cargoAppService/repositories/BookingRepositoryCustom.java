@@ -0,0 +1,20 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.entities.Booking;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findWindow(Specification<Booking> spec, Sort sort, int limit);
+
+    Stream<Booking> streamAll(Specification<Booking> spec, Sort sort, int fetchSize);
+
+    Page<Map<String, Object>> findProjected(Specification<Booking> spec, Map<String, String> fieldPaths, Pageable pageable);
+}
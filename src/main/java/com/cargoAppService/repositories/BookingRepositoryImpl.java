@@ -0,0 +1,34 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.entities.Booking;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findWindow(Specification<Booking> spec, Sort sort, int limit) {
+        return CriteriaQueries.findWindow(entityManager, Booking.class, spec, sort, limit);
+    }
+
+    @Override
+    public Stream<Booking> streamAll(Specification<Booking> spec, Sort sort, int fetchSize) {
+        return CriteriaQueries.stream(entityManager, Booking.class, spec, sort, fetchSize);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findProjected(Specification<Booking> spec, Map<String, String> fieldPaths, Pageable pageable) {
+        return CriteriaQueries.findProjected(entityManager, Booking.class, spec, fieldPaths, pageable);
+    }
+}
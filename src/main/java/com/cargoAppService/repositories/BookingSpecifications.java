@@ -0,0 +1,44 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.dto.Cursor;
+import com.cargoAppService.entities.Booking;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class BookingSpecifications {
+
+    // Newest first, id breaks ties so the order is total and a cursor never skips or repeats rows.
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("requestedAt"), Sort.Order.desc("id"));
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> withFilters(UUID loadId, String transporterId, String status) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (loadId != null) {
+                predicates.add(cb.equal(root.get("load").get("id"), loadId));
+            }
+            if (transporterId != null) {
+                predicates.add(cb.equal(root.get("transporterId"), transporterId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), Booking.Status.valueOf(status.toUpperCase())));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Booking> after(Cursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("requestedAt"), cursor.getTimestamp()),
+                cb.and(
+                        cb.equal(root.get("requestedAt"), cursor.getTimestamp()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
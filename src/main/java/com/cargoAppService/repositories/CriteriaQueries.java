@@ -0,0 +1,113 @@
+package com.cargoAppService.repositories;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+final class CriteriaQueries {
+
+    private CriteriaQueries() {
+    }
+
+    // Runs the specification with a LIMIT and no companion count query.
+    static <T> List<T> findWindow(EntityManager entityManager, Class<T> type, Specification<T> spec, Sort sort, int limit) {
+        return entityManager.createQuery(select(entityManager, type, spec, sort))
+                            .setMaxResults(limit)
+                            .getResultList();
+    }
+
+    // Streams the specification through a server-side cursor; entities are loaded read-only so no
+    // dirty-checking snapshots are kept for them.
+    static <T> Stream<T> stream(EntityManager entityManager, Class<T> type, Specification<T> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(select(entityManager, type, spec, sort))
+                            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                            .setHint(QueryHints.HINT_READONLY, true)
+                            .getResultStream();
+    }
+
+    /**
+     * Selects only the requested attribute paths as tuples, keyed by the caller's field names, so no
+     * entities are hydrated or snapshotted for dirty checking.
+     */
+    static <T> Page<Map<String, Object>> findProjected(EntityManager entityManager, Class<T> type, Specification<T> spec,
+                                                       Map<String, String> fieldPaths, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Selection<?>> selections = new ArrayList<>();
+        fieldPaths.forEach((field, path) -> selections.add(path(root, path).alias(field)));
+        query.multiselect(selections);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fieldPaths.keySet()) {
+                Object value = tuple.get(field);
+                row.put(field, value instanceof Enum ? ((Enum<?>) value).name() : value);
+            }
+            content.add(row);
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, type, spec));
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String dottedPath) {
+        Path<?> path = root;
+        for (String attribute : dottedPath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    private static <T> CriteriaQuery<T> select(EntityManager entityManager, Class<T> type, Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+}
@@ -0,0 +1,14 @@
+package com.cargoAppService.repositories;
+
+import java.sql.Timestamp;
+
+/**
+ * Version and last-modified time of a load or booking, read without hydrating the entity so conditional
+ * GETs can be answered from two columns.
+ */
+public interface EntityVersion {
+
+    long getVersion();
+
+    Timestamp getUpdatedAt();
+}
@@ -0,0 +1,73 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.exceptions.InvalidRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps response field names to the entity attribute paths a sparse-fieldset projection selects.
+ */
+public final class FieldPaths {
+
+    public static final Map<String, String> LOAD = paths(
+            "id", "id",
+            "shipperId", "shipperId",
+            "loadingPoint", "loadingPoint",
+            "unloadingPoint", "unloadingPoint",
+            "loadingDate", "loadingDate",
+            "unloadingDate", "unloadingDate",
+            "productType", "productType",
+            "truckType", "truckType",
+            "noOfTrucks", "noOfTrucks",
+            "weight", "weight",
+            "comment", "comment",
+            "status", "status",
+            "datePosted", "datePosted",
+            "activeBookingCount", "activeBookingCount");
+
+    public static final Map<String, String> BOOKING = paths(
+            "id", "id",
+            // The foreign key column is read directly; no join to loads is needed.
+            "loadId", "load.id",
+            "transporterId", "transporterId",
+            "proposedRate", "proposedRate",
+            "comment", "comment",
+            "status", "status",
+            "requestedAt", "requestedAt");
+
+    private FieldPaths() {
+    }
+
+    /**
+     * Resolves a comma-separated {@code fields} parameter against the available fields, keeping the
+     * caller's order and dropping duplicates.
+     */
+    public static Map<String, String> select(String fields, Map<String, String> available) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String path = available.get(name);
+            if (path == null) {
+                throw new InvalidRequestException("Unknown field: " + name + ". Allowed fields: " + available.keySet());
+            }
+            selected.put(name, path);
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidRequestException("At least one field must be requested.");
+        }
+        return selected;
+    }
+
+    private static Map<String, String> paths(String... pairs) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            paths.put(pairs[i], pairs[i + 1]);
+        }
+        return Collections.unmodifiableMap(paths);
+    }
+}
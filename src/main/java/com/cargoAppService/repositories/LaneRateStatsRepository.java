@@ -0,0 +1,129 @@
+package com.cargoAppService.repositories;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Checkpoint storage for {@code LaneRateStats}. The digests are opaque blobs, so this goes through JDBC
+ * rather than mapping entities.
+ */
+@Repository
+public class LaneRateStatsRepository {
+
+    private static final int CHECKPOINT_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LaneRateStatsRepository(DataSource dataSource, @Value("${cargo.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class LaneRow {
+        private final String truckType;
+        private final String loadingPoint;
+        private final String unloadingPoint;
+        private final long bids;
+        private final long accepted;
+        private final long rejected;
+        private final byte[] rateDigest;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Timestamp> findCoveredUntil() {
+        return jdbcTemplate.query("select covered_until from lane_rate_checkpoint where id = ?",
+                (rs, rowNum) -> rs.getTimestamp(1), CHECKPOINT_ID).stream().findFirst();
+    }
+
+    /**
+     * Reads {@code covered_until} and locks the checkpoint row until the caller's transaction ends, so
+     * instances checkpointing at the same time fold every booking exactly once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Timestamp> lockCoveredUntil() {
+        return jdbcTemplate.query("select covered_until from lane_rate_checkpoint where id = ? for update",
+                (rs, rowNum) -> rs.getTimestamp(1), CHECKPOINT_ID).stream().findFirst();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveCoveredUntil(Timestamp coveredUntil) {
+        if (jdbcTemplate.update("update lane_rate_checkpoint set covered_until = ? where id = ?", coveredUntil, CHECKPOINT_ID) == 0) {
+            jdbcTemplate.update("insert into lane_rate_checkpoint (id, covered_until) values (?, ?)", CHECKPOINT_ID, coveredUntil);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<LaneRow> findAll() {
+        return jdbcTemplate.query(
+                "select truck_type, loading_point, unloading_point, bids, accepted, rejected, rate_digest from lane_rate_stats",
+                (rs, rowNum) -> new LaneRow(rs.getString(1), rs.getString(2), rs.getString(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getBytes(7)));
+    }
+
+    /**
+     * Reads and locks the stored row of a lane, matched like the in-memory lanes: trimmed and ignoring
+     * case.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<LaneRow> lockLane(String truckType, String loadingPoint, String unloadingPoint) {
+        return jdbcTemplate.query(
+                "select truck_type, loading_point, unloading_point, bids, accepted, rejected, rate_digest from lane_rate_stats "
+                        + "where lower(truck_type) = ? and lower(loading_point) = ? and lower(unloading_point) = ? for update",
+                (rs, rowNum) -> new LaneRow(rs.getString(1), rs.getString(2), rs.getString(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getBytes(7)),
+                key(truckType), key(loadingPoint), key(unloadingPoint)).stream().findFirst();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveLane(LaneRow lane) {
+        int updated = jdbcTemplate.update("update lane_rate_stats set bids = ?, accepted = ?, rejected = ?, rate_digest = ? "
+                        + "where truck_type = ? and loading_point = ? and unloading_point = ?",
+                lane.getBids(), lane.getAccepted(), lane.getRejected(), lane.getRateDigest(),
+                lane.getTruckType(), lane.getLoadingPoint(), lane.getUnloadingPoint());
+        if (updated == 0) {
+            jdbcTemplate.update("insert into lane_rate_stats (truck_type, loading_point, unloading_point, bids, accepted, "
+                            + "rejected, rate_digest) values (?, ?, ?, ?, ?, ?, ?)",
+                    lane.getTruckType(), lane.getLoadingPoint(), lane.getUnloadingPoint(), lane.getBids(),
+                    lane.getAccepted(), lane.getRejected(), lane.getRateDigest());
+        }
+    }
+
+    /**
+     * Streams (truck type, loading point, unloading point, proposed rate) for every booking requested
+     * after {@code after} and no later than {@code until}; either bound may be null.
+     */
+    @Transactional(readOnly = true)
+    public void replayBookings(Timestamp after, Timestamp until, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("select l.truck_type, l.loading_point, l.unloading_point, b.proposed_rate "
+                + "from bookings b join loads l on l.id = b.load_id where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (after != null) {
+            sql.append(" and b.requested_at > ?");
+            args.add(after);
+        }
+        if (until != null) {
+            sql.append(" and b.requested_at <= ?");
+            args.add(until);
+        }
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,12 +1,123 @@
 package com.cargoAppService.repositories;
 
+import com.cargoAppService.entities.Booking;
 import com.cargoAppService.entities.Load;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface LoadRepository extends JpaRepository<Load, UUID>, JpaSpecificationExecutor<Load> {
-}
+public interface LoadRepository extends JpaRepository<Load, UUID>, JpaSpecificationExecutor<Load>, LoadRepositoryCustom {
+
+    @Query("select l.version as version, l.updatedAt as updatedAt from Load l where l.id = :loadId")
+    Optional<EntityVersion> findVersionById(@Param("loadId") UUID loadId);
+
+    /**
+     * Counts a new booking against a load unless the load has been cancelled or has expired in the
+     * meantime; returns 0 in that case so the caller can reject the booking.
+     */
+    default int incrementActiveBookingCount(UUID loadId) {
+        return incrementActiveBookingCount(loadId, Load.Status.BOOKED, Load.Status.CANCELLED, Load.Status.EXPIRED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Load l set l.activeBookingCount = l.activeBookingCount + 1, l.status = :booked, "
+            + "l.version = l.version + 1, l.updatedAt = current_timestamp "
+            + "where l.id = :loadId and l.status <> :cancelled and l.status <> :expired")
+    int incrementActiveBookingCount(@Param("loadId") UUID loadId,
+                                    @Param("booked") Load.Status booked,
+                                    @Param("cancelled") Load.Status cancelled,
+                                    @Param("expired") Load.Status expired);
+
+    /**
+     * {@link #incrementActiveBookingCount(UUID)} by {@code delta} for many loads at once. Returns how many
+     * loads were updated, which is fewer than requested if some were cancelled or expired in the meantime.
+     */
+    default int incrementActiveBookingCounts(Collection<UUID> loadIds, int delta) {
+        return incrementActiveBookingCounts(loadIds, delta, Load.Status.BOOKED, Load.Status.CANCELLED, Load.Status.EXPIRED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Load l set l.activeBookingCount = l.activeBookingCount + :delta, l.status = :booked, "
+            + "l.version = l.version + 1, l.updatedAt = current_timestamp "
+            + "where l.id in :loadIds and l.status <> :cancelled and l.status <> :expired")
+    int incrementActiveBookingCounts(@Param("loadIds") Collection<UUID> loadIds,
+                                     @Param("delta") int delta,
+                                     @Param("booked") Load.Status booked,
+                                     @Param("cancelled") Load.Status cancelled,
+                                     @Param("expired") Load.Status expired);
 
+    /**
+     * Adds {@code delta} to the active booking count in a single UPDATE and derives the status from the
+     * new count, so concurrent booking writers never lose each other's increments. Cancelled and expired
+     * loads keep their status. The version is bumped so entity-level writers holding an older copy of the load fail
+     * their optimistic check instead of overwriting the new status.
+     */
+    default int adjustActiveBookingCount(UUID loadId, int delta) {
+        return adjustActiveBookingCount(loadId, delta, Load.Status.BOOKED, Load.Status.POSTED, Load.Status.CANCELLED,
+                Load.Status.EXPIRED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Load l set l.activeBookingCount = l.activeBookingCount + :delta, "
+            + "l.status = case when l.status = :cancelled or l.status = :expired then l.status "
+            + "when l.activeBookingCount + :delta > 0 then :booked else :posted end, "
+            + "l.version = l.version + 1, l.updatedAt = current_timestamp "
+            + "where l.id = :loadId")
+    int adjustActiveBookingCount(@Param("loadId") UUID loadId,
+                                 @Param("delta") int delta,
+                                 @Param("booked") Load.Status booked,
+                                 @Param("posted") Load.Status posted,
+                                 @Param("cancelled") Load.Status cancelled,
+                                 @Param("expired") Load.Status expired);
+
+    /**
+     * {@link #adjustActiveBookingCount(UUID, int)} for many loads that all move by the same delta.
+     */
+    default int adjustActiveBookingCounts(Collection<UUID> loadIds, int delta) {
+        return adjustActiveBookingCounts(loadIds, delta, Load.Status.BOOKED, Load.Status.POSTED, Load.Status.CANCELLED,
+                Load.Status.EXPIRED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Load l set l.activeBookingCount = l.activeBookingCount + :delta, "
+            + "l.status = case when l.status = :cancelled or l.status = :expired then l.status "
+            + "when l.activeBookingCount + :delta > 0 then :booked else :posted end, "
+            + "l.version = l.version + 1, l.updatedAt = current_timestamp "
+            + "where l.id in :loadIds")
+    int adjustActiveBookingCounts(@Param("loadIds") Collection<UUID> loadIds,
+                                  @Param("delta") int delta,
+                                  @Param("booked") Load.Status booked,
+                                  @Param("posted") Load.Status posted,
+                                  @Param("cancelled") Load.Status cancelled,
+                                 @Param("expired") Load.Status expired);
+
+    /**
+     * Expires the listed loads that are still POSTED or BOOKED, whose loading date is not after
+     * {@code now} and that no booking has been accepted for. The check is part of the UPDATE, so an
+     * acceptance committed after the caller read the loads is still seen. The caller rejects the
+     * pending bookings, so no active bookings remain.
+     */
+    default int expire(Collection<UUID> loadIds, Timestamp now) {
+        return expire(loadIds, now, Load.Status.EXPIRED, Load.Status.POSTED, Load.Status.BOOKED, Booking.Status.ACCEPTED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Load l set l.status = :expired, l.activeBookingCount = 0, "
+            + "l.version = l.version + 1, l.updatedAt = current_timestamp "
+            + "where l.id in :loadIds and l.loadingDate <= :now and (l.status = :posted or l.status = :booked) "
+            + "and not exists (select b from Booking b where b.load = l and b.status = :accepted)")
+    int expire(@Param("loadIds") Collection<UUID> loadIds,
+               @Param("now") Timestamp now,
+               @Param("expired") Load.Status expired,
+               @Param("posted") Load.Status posted,
+               @Param("booked") Load.Status booked,
+               @Param("accepted") Booking.Status accepted);
+}
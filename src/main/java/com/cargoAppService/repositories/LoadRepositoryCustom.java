@@ -0,0 +1,25 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.entities.Load;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface LoadRepositoryCustom {
+
+    List<Load> findWindow(Specification<Load> spec, Sort sort, int limit);
+
+    Stream<Load> streamAll(Specification<Load> spec, Sort sort, int fetchSize);
+
+    Page<Map<String, Object>> findProjected(Specification<Load> spec, Map<String, String> fieldPaths, Pageable pageable);
+
+    // (id, loading date, version) of every load in one of the statuses that has a loading date; the
+    // status prefix of idx_loads_status_posted serves the filter.
+    Stream<Object[]> streamLoadingDates(Collection<Load.Status> statuses, int fetchSize);
+}
@@ -0,0 +1,45 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.entities.Load;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class LoadRepositoryImpl implements LoadRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Load> findWindow(Specification<Load> spec, Sort sort, int limit) {
+        return CriteriaQueries.findWindow(entityManager, Load.class, spec, sort, limit);
+    }
+
+    @Override
+    public Stream<Load> streamAll(Specification<Load> spec, Sort sort, int fetchSize) {
+        return CriteriaQueries.stream(entityManager, Load.class, spec, sort, fetchSize);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findProjected(Specification<Load> spec, Map<String, String> fieldPaths, Pageable pageable) {
+        return CriteriaQueries.findProjected(entityManager, Load.class, spec, fieldPaths, pageable);
+    }
+
+    @Override
+    public Stream<Object[]> streamLoadingDates(Collection<Load.Status> statuses, int fetchSize) {
+        return entityManager.createQuery("select l.id, l.loadingDate, l.version from Load l "
+                                    + "where l.status in :statuses and l.loadingDate is not null", Object[].class)
+                            .setParameter("statuses", statuses)
+                            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                            .getResultStream();
+    }
+}
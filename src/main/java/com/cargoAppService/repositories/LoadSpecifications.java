@@ -0,0 +1,48 @@
+package com.cargoAppService.repositories;
+
+import com.cargoAppService.dto.Cursor;
+import com.cargoAppService.entities.Load;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LoadSpecifications {
+
+    // Newest first, id breaks ties so the order is total and a cursor never skips or repeats rows.
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("datePosted"), Sort.Order.desc("id"));
+
+    private LoadSpecifications() {
+    }
+
+    public static Specification<Load> withFilters(String shipperId, String truckType, String status) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (shipperId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("shipperId"), shipperId));
+            }
+            if (truckType != null) {
+                predicates.add(criteriaBuilder.equal(root.get("truckType"), truckType));
+            }
+            if (status != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), Load.Status.valueOf(status.toUpperCase())));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Loads that can still be booked, i.e. neither cancelled nor expired.
+    public static Specification<Load> isOpen() {
+        return (root, query, criteriaBuilder) -> root.get("status").in(Load.Status.POSTED, Load.Status.BOOKED);
+    }
+
+    public static Specification<Load> after(Cursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("datePosted"), cursor.getTimestamp()),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("datePosted"), cursor.getTimestamp()),
+                        criteriaBuilder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
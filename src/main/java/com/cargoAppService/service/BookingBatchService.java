@@ -0,0 +1,214 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BookingBatchService {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String UNCHANGED = "UNCHANGED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+
+    private final BookingRepository bookingRepository;
+    private final LoadRepository loadRepository;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxItems;
+
+    public BookingBatchService(BookingRepository bookingRepository,
+                               LoadRepository loadRepository,
+                               Validator validator,
+                               CacheManager cacheManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${cargo.booking.batch.max-items:1000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.loadRepository = loadRepository;
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Applies a list of accept/reject decisions in one transaction with one UPDATE per (current status,
+     * target status) pair instead of one versioned write per booking. Conditioning every UPDATE on the
+     * status that was read keeps the active booking counters exact: if another writer changed one of the
+     * bookings in between, the row count comes up short and the whole batch is retried.
+     * <p>
+     * With {@code rejectOtherPending}, every other PENDING booking on a load that gets an acceptance is
+     * rejected by the same statement that applies the explicit rejections. Only the first acceptance per
+     * load in a batch is applied; later ones are reported as INVALID.
+     */
+    @ConflictRetryable
+    @LoadLocked("loadsOf(#decisions.![#this?.bookingId])")
+    @Transactional
+    public BookingDTO.BatchResponse decide(List<BookingDTO.Decision> decisions, boolean rejectOtherPending) {
+        if (decisions.isEmpty() || decisions.size() > maxItems) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + maxItems + " decisions.");
+        }
+
+        List<BookingDTO.BatchItemResult> results = new ArrayList<>(decisions.size());
+        Map<UUID, BookingDTO.BatchItemResult> resultsById = new LinkedHashMap<>();
+        Map<UUID, Booking.Status> targets = new HashMap<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDTO.BatchItemResult result = new BookingDTO.BatchItemResult();
+            result.setIndex(i);
+            results.add(result);
+
+            BookingDTO.Decision decision = decisions.get(i);
+            Map<String, String> errors = validate(decision);
+            if (errors.isEmpty() && targets.containsKey(decision.getBookingId())) {
+                errors = Collections.singletonMap("bookingId", "Booking appears more than once in the batch.");
+            }
+            if (decision != null) {
+                result.setId(decision.getBookingId());
+            }
+            if (!errors.isEmpty()) {
+                result.setStatus(INVALID);
+                result.setErrors(errors);
+                continue;
+            }
+            resultsById.put(decision.getBookingId(), result);
+            targets.put(decision.getBookingId(), Booking.Status.valueOf(decision.getStatus()));
+        }
+
+        List<UUID> autoRejected = new ArrayList<>();
+        if (!targets.isEmpty()) {
+            apply(targets, resultsById, rejectOtherPending, autoRejected);
+        }
+
+        BookingDTO.BatchResponse response = new BookingDTO.BatchResponse();
+        response.setResults(results);
+        response.setAutoRejected(autoRejected);
+        response.setUpdated((int) results.stream().filter(r -> UPDATED.equals(r.getStatus())).count());
+        response.setFailed((int) results.stream()
+                                        .filter(r -> INVALID.equals(r.getStatus()) || NOT_FOUND.equals(r.getStatus()))
+                                        .count());
+        return response;
+    }
+
+    private void apply(Map<UUID, Booking.Status> targets, Map<UUID, BookingDTO.BatchItemResult> resultsById,
+                       boolean rejectOtherPending, List<UUID> autoRejected) {
+        Map<UUID, Booking> bookings = bookingRepository.findAllWithLoadByIds(targets.keySet()).stream()
+                                                       .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Booking.Status, Map<Booking.Status, List<Booking>>> transitions = new EnumMap<>(Booking.Status.class);
+        Map<UUID, Booking.Status> changes = new LinkedHashMap<>();
+        Set<UUID> acceptingLoads = new HashSet<>();
+        resultsById.forEach((bookingId, result) -> {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                result.setStatus(NOT_FOUND);
+                result.setErrors(Collections.singletonMap("bookingId", "Booking not found with id: " + bookingId));
+                return;
+            }
+            Booking.Status target = targets.get(bookingId);
+            if (target == Booking.Status.ACCEPTED && !acceptingLoads.add(booking.getLoad().getId())) {
+                result.setStatus(INVALID);
+                result.setErrors(Collections.singletonMap("status",
+                        "Another booking on load " + booking.getLoad().getId() + " is accepted earlier in the batch."));
+                return;
+            }
+            result.setPreviousStatus(booking.getStatus().name());
+            result.setStatus(booking.getStatus() == target ? UNCHANGED : UPDATED);
+            if (booking.getStatus() != target) {
+                transitions.computeIfAbsent(booking.getStatus(), from -> new EnumMap<>(Booking.Status.class))
+                           .computeIfAbsent(target, to -> new ArrayList<>())
+                           .add(booking);
+                changes.put(bookingId, target);
+            }
+        });
+
+        if (rejectOtherPending && !acceptingLoads.isEmpty()) {
+            for (Booking other : bookingRepository.findOthersOnLoads(acceptingLoads, Booking.Status.PENDING, targets.keySet())) {
+                transitions.computeIfAbsent(Booking.Status.PENDING, from -> new EnumMap<>(Booking.Status.class))
+                           .computeIfAbsent(Booking.Status.REJECTED, to -> new ArrayList<>())
+                           .add(other);
+                changes.put(other.getId(), Booking.Status.REJECTED);
+                bookings.put(other.getId(), other);
+                autoRejected.add(other.getId());
+            }
+        }
+
+        transitions.forEach((from, byTarget) -> byTarget.forEach((to, group) -> {
+            List<UUID> ids = group.stream().map(Booking::getId).collect(Collectors.toList());
+            if (bookingRepository.updateStatus(ids, from, to) != ids.size()) {
+                throw new OptimisticLockingFailureException("Bookings changed while the batch was being applied.");
+            }
+        }));
+
+        // Loads moving by the same delta share one counter UPDATE.
+        Map<UUID, Integer> deltas = new HashMap<>();
+        Cache bookingCache = cacheManager.getCache(CacheConfig.BOOKINGS);
+        changes.forEach((bookingId, status) -> {
+            Booking booking = bookings.get(bookingId);
+            Booking.Status previousStatus = booking.getStatus();
+            deltas.merge(booking.getLoad().getId(), activeDelta(previousStatus, status), Integer::sum);
+            // The entity is detached by the bulk update; the new status is only set for the event.
+            booking.setStatus(status);
+            eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.UPDATED, booking, previousStatus));
+            if (bookingCache != null) {
+                bookingCache.evict(bookingId);
+            }
+        });
+        deltas.values().removeIf(delta -> delta == 0);
+        deltas.keySet().stream()
+              .collect(Collectors.groupingBy(deltas::get))
+              .forEach((delta, loadIds) -> loadRepository.adjustActiveBookingCounts(loadIds, delta));
+
+        Cache loadCache = cacheManager.getCache(CacheConfig.LOADS);
+        if (!deltas.isEmpty()) {
+            loadRepository.findAllById(deltas.keySet()).forEach(load -> {
+                if (loadCache != null) {
+                    loadCache.evict(load.getId());
+                }
+                eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load));
+            });
+        }
+    }
+
+    private static int activeDelta(Booking.Status previousStatus, Booking.Status newStatus) {
+        return (newStatus.isActive() ? 1 : 0) - (previousStatus.isActive() ? 1 : 0);
+    }
+
+    private Map<String, String> validate(BookingDTO.Decision decision) {
+        if (decision == null) {
+            return Collections.singletonMap("decision", "Item is empty or malformed.");
+        }
+        Set<ConstraintViolation<BookingDTO.Decision>> violations = validator.validate(decision);
+        Map<String, String> errors = new LinkedHashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+}
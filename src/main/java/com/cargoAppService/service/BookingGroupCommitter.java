@@ -0,0 +1,320 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.exceptions.ResourceNotFoundException;
+import com.cargoAppService.exceptions.ServiceOverloadedException;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opt-in group commit for {@code POST /booking} ({@code cargo.booking.group-commit.enabled}). Create
+ * requests wait in a bounded queue; a single writer takes up to {@code max-batch-size} of them, or
+ * whatever arrived within {@code max-wait} of the first, and creates them in one transaction: one
+ * read of the loads, batched booking inserts and one counter update per group of loads receiving the
+ * same number of bookings. Callers block until their own booking is committed or rejected.
+ * <p>
+ * A request that cannot be bookable (unknown, cancelled or expired load) fails on its own without
+ * affecting the rest of the batch. If the batch transaction itself fails, for example because a load
+ * was cancelled concurrently, each of its requests is handed back to its caller, which creates the
+ * booking through {@link BookingService} on its own thread, so one bad request never fails its
+ * neighbours and the writer is not held up by the retries. When the queue is full, the caller creates
+ * its booking directly instead. A caller waits at most {@code timeout} for its batch; past that it
+ * creates the booking itself if the writer has not taken it yet, and gets a 503 otherwise.
+ */
+@Component
+public class BookingGroupCommitter implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingGroupCommitter.class);
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final LoadRepository loadRepository;
+    private final LoadLockStripes loadLockStripes;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long timeoutNanos;
+    private final BlockingQueue<Pending> queue;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private volatile DistributionSummary batchSizes;
+
+    public BookingGroupCommitter(BookingService bookingService, BookingRepository bookingRepository,
+                                 LoadRepository loadRepository, LoadLockStripes loadLockStripes,
+                                 CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${cargo.booking.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${cargo.booking.group-commit.max-batch-size:200}") int maxBatchSize,
+                                 @Value("${cargo.booking.group-commit.max-wait:PT0.0005S}") Duration maxWait,
+                                 @Value("${cargo.booking.group-commit.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${cargo.booking.group-commit.timeout:PT10S}") Duration timeout) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.loadRepository = loadRepository;
+        this.loadLockStripes = loadLockStripes;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates a booking as part of the next group commit and returns it once committed. Throws the same
+     * exceptions as {@link BookingService#createBooking}.
+     */
+    public Booking createBooking(BookingDTO.Create createDto) {
+        Pending pending = new Pending(createDto);
+        if (!running || !queue.offer(pending)) {
+            return bookingService.createBooking(createDto);
+        }
+        // The writer may have drained the queue for the last time between the check and the offer.
+        if (!running && queue.remove(pending)) {
+            return bookingService.createBooking(createDto);
+        }
+        Booking booking;
+        try {
+            booking = pending.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (queue.remove(pending)) {
+                return bookingService.createBooking(createDto);
+            }
+            throw new ServiceOverloadedException("The booking was not committed in time and may still be created.", 1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the booking to be committed.", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        // Handed back after its batch failed; retried alone on the caller's thread.
+        return booking != null ? booking : bookingService.createBooking(createDto);
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    // Past the deadline, whatever is already queued still joins the batch.
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(Pending::handBack);
+                return;
+            } catch (Throwable ex) {
+                // Whatever went wrong, no caller may be left waiting and the writer has to keep going.
+                log.error("Group commit of {} bookings failed unexpectedly", batch.size(), ex);
+                batch.forEach(pending -> pending.result.completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void commit(List<Pending> batch) {
+        DistributionSummary summary = batchSizes;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+        Set<UUID> loadIds = new LinkedHashSet<>();
+        batch.forEach(pending -> loadIds.add(pending.request.getLoadId()));
+        Set<UUID> changedLoads;
+        try (LoadLockStripes.Held held = loadLockStripes.lockAll(loadIds)) {
+            changedLoads = transactionTemplate.execute(status -> insert(batch, loadIds));
+        } catch (RuntimeException ex) {
+            log.debug("Group commit of {} bookings failed; handing them back to be created one by one", batch.size(), ex);
+            batch.forEach(Pending::handBack);
+            return;
+        }
+        Cache loadCache = cacheManager.getCache(CacheConfig.LOADS);
+        if (loadCache != null) {
+            changedLoads.forEach(loadCache::evict);
+        }
+        for (Pending pending : batch) {
+            if (pending.error != null) {
+                pending.result.completeExceptionally(pending.error);
+            } else {
+                pending.result.complete(pending.booking);
+            }
+        }
+    }
+
+    private Set<UUID> insert(List<Pending> batch, Set<UUID> loadIds) {
+        Map<UUID, Load> loads = new HashMap<>();
+        loadRepository.findAllById(loadIds).forEach(load -> loads.put(load.getId(), load));
+
+        List<Booking> bookings = new ArrayList<>(batch.size());
+        Map<UUID, Integer> added = new HashMap<>();
+        for (Pending pending : batch) {
+            UUID loadId = pending.request.getLoadId();
+            pending.booking = null;
+            pending.error = null;
+            Load load = loads.get(loadId);
+            try {
+                if (load == null) {
+                    throw new ResourceNotFoundException("Load not found with id: " + loadId);
+                }
+                BookingService.requireOpen(load);
+            } catch (RuntimeException ex) {
+                pending.error = ex;
+                continue;
+            }
+            pending.booking = BookingService.newBooking(load, pending.request);
+            bookings.add(pending.booking);
+            added.merge(loadId, 1, Integer::sum);
+        }
+        if (bookings.isEmpty()) {
+            return added.keySet();
+        }
+        bookingRepository.saveAll(bookings);
+
+        // One UPDATE per distinct increment, which flushes the inserts above as JDBC batches first.
+        Map<Integer, List<UUID>> byDelta = new HashMap<>();
+        added.forEach((loadId, delta) -> byDelta.computeIfAbsent(delta, key -> new ArrayList<>()).add(loadId));
+        for (Map.Entry<Integer, List<UUID>> group : byDelta.entrySet()) {
+            if (loadRepository.incrementActiveBookingCounts(group.getValue(), group.getKey()) != group.getValue().size()) {
+                throw new OptimisticLockingFailureException("A load was cancelled or expired while bookings were added to it.");
+            }
+        }
+        bookings.forEach(booking -> eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.CREATED, booking, null)));
+        loadRepository.findAllById(added.keySet())
+                      .forEach(load -> eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load)));
+        return added.keySet();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drain, "booking-group-commit");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    // Stopped after the web server, so the queue only has to be drained, not defended against new requests.
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.handBack();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.booking.group-commit.queued", queue, BlockingQueue::size)
+             .description("Booking create requests waiting for the next group commit")
+             .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("cargo.booking.group-commit.batch.size")
+                                        .description("Booking create requests per group commit")
+                                        .publishPercentiles(0.5, 0.95, 0.99)
+                                        .register(meterRegistry);
+    }
+
+    static final class Pending {
+
+        private final BookingDTO.Create request;
+        private final CompletableFuture<Booking> result = new CompletableFuture<>();
+        // Set by the writer inside the batch transaction and only published once it commits.
+        private Booking booking;
+        private RuntimeException error;
+
+        Pending(BookingDTO.Create request) {
+            this.request = request;
+        }
+
+        // Tells the waiting caller to create the booking itself.
+        void handBack() {
+            result.complete(null);
+        }
+    }
+}
@@ -1,108 +1,212 @@
 package com.cargoAppService.service;
 
 
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.datasource.ReadRouting;
 import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.Cursor;
+import com.cargoAppService.dto.CursorPage;
 import com.cargoAppService.entities.Booking;
 import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
 import com.cargoAppService.exceptions.BookingValidationException;
 import com.cargoAppService.exceptions.ResourceNotFoundException;
 import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.BookingSpecifications;
+import com.cargoAppService.repositories.EntityVersion;
+import com.cargoAppService.repositories.FieldPaths;
 import com.cargoAppService.repositories.LoadRepository;
-import javax.persistence.criteria.Predicate;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
+@Timed(value = "cargo.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final LoadRepository loadRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPageSize;
 
-    public BookingService(BookingRepository bookingRepository, LoadRepository loadRepository) {
+    public BookingService(BookingRepository bookingRepository, LoadRepository loadRepository, CacheManager cacheManager,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${cargo.page.max-size:100}") int maxPageSize) {
         this.bookingRepository = bookingRepository;
         this.loadRepository = loadRepository;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
     }
 
+    @ConflictRetryable
+    @LoadLocked("#createDto.loadId")
+    @CacheEvict(cacheNames = CacheConfig.LOADS, key = "#createDto.loadId")
     @Transactional
     public Booking createBooking(BookingDTO.Create createDto) {
         Load load = loadRepository.findById(createDto.getLoadId())
                                   .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + createDto.getLoadId()));
 
-        if (load.getStatus() == Load.Status.CANCELLED) {
+        requireOpen(load);
+
+        Booking savedBooking = bookingRepository.save(newBooking(load, createDto));
+        // Moves the load to BOOKED as part of the same statement; a cancel that committed after our read
+        // leaves nothing to update, and the booking is rolled back.
+        if (loadRepository.incrementActiveBookingCount(load.getId()) == 0) {
             throw new BookingValidationException("Cannot create booking for a cancelled load.");
         }
+        eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.CREATED, savedBooking, null));
+        publishBookingsChanged(load.getId());
+        return savedBooking;
+    }
 
-        Booking booking = new Booking();
-        booking.setLoad(load);
-        booking.setTransporterId(createDto.getTransporterId());
-        booking.setProposedRate(createDto.getProposedRate());
-        booking.setComment(createDto.getComment());
-        booking.setStatus(Booking.Status.PENDING);
-        booking.setRequestedAt(new Timestamp(System.currentTimeMillis()));
+    @Transactional(readOnly = true)
+    public Page<Booking> getBookings(UUID loadId, String transporterId, String status, Pageable pageable) {
+        PageSizes.require(pageable.getPageSize(), maxPageSize);
+        return bookingRepository.findAll(BookingSpecifications.withFilters(loadId, transporterId, status), pageable);
+    }
 
-        load.setStatus(Load.Status.BOOKED);
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getBookingFields(UUID loadId, String transporterId, String status, String fields,
+                                                      Pageable pageable) {
+        PageSizes.require(pageable.getPageSize(), maxPageSize);
+        Map<String, String> fieldPaths = FieldPaths.select(fields, FieldPaths.BOOKING);
+        return bookingRepository.findProjected(BookingSpecifications.withFilters(loadId, transporterId, status), fieldPaths, pageable);
+    }
 
-        loadRepository.save(load);
-        return bookingRepository.save(booking);
+    @Transactional(readOnly = true)
+    public CursorPage<Booking> getBookingsAfter(UUID loadId, String transporterId, String status, String after, int size) {
+        PageSizes.require(size, maxPageSize);
+        Specification<Booking> spec = BookingSpecifications.withFilters(loadId, transporterId, status);
+        if (after != null && !after.isEmpty()) {
+            spec = spec.and(BookingSpecifications.after(Cursor.decode(after)));
+        }
+        // One extra row tells us whether there is a next page without running a count query.
+        List<Booking> window = bookingRepository.findWindow(spec, BookingSpecifications.KEYSET_ORDER, size + 1);
+        return CursorPage.of(window, size, booking -> Cursor.encode(booking.getRequestedAt(), booking.getId()));
     }
 
+    // Caches the response DTO rather than the entity; Booking.load is a lazy proxy that must not outlive the session.
+    // Read from the primary, as in LoadService.getLoadById.
+    @Cacheable(cacheNames = CacheConfig.BOOKINGS, key = "#bookingId", sync = true)
     @Transactional(readOnly = true)
-    public Page<Booking> getBookings(UUID loadId, String transporterId, String status, Pageable pageable) {
-        return bookingRepository.findAll((root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (loadId != null) {
-                predicates.add(cb.equal(root.get("load").get("id"), loadId));
-            }
-            if (transporterId != null) {
-                predicates.add(cb.equal(root.get("transporterId"), transporterId));
-            }
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), Booking.Status.valueOf(status.toUpperCase())));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        }, pageable);
+    public BookingDTO.Response getBookingById(UUID bookingId) {
+        return ReadRouting.onPrimary(() -> BookingDTO.Response.from(findBooking(bookingId)));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.BOOKINGS, key = "#bookingId")
+    public void evictBooking(UUID bookingId) {
+    }
+
+    // Two columns by primary key; tells conditional GETs whether the cached booking is current.
     @Transactional(readOnly = true)
-    public Booking getBookingById(UUID bookingId) {
-        return bookingRepository.findById(bookingId)
+    public EntityVersion getBookingVersion(UUID bookingId) {
+        return bookingRepository.findVersionById(bookingId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
     }
 
+    @ConflictRetryable
+    @LoadLocked("loadOf(#bookingId)")
+    @CacheEvict(cacheNames = CacheConfig.BOOKINGS, key = "#bookingId")
     @Transactional
     public Booking updateBooking(UUID bookingId, BookingDTO.Update updateDto) {
-        Booking booking = getBookingById(bookingId);
+        Booking booking = findBooking(bookingId);
+        Booking.Status previousStatus = booking.getStatus();
         Booking.Status newStatus = Booking.Status.valueOf(updateDto.getStatus().toUpperCase());
 
         // When a booking is accepted, update the status to ACCEPTED.
         booking.setStatus(newStatus);
-
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+
+        // Rejecting the last active booking returns the load to POSTED.
+        int delta = activeDelta(previousStatus, newStatus);
+        eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.UPDATED, savedBooking, previousStatus));
+        if (delta != 0) {
+            UUID loadId = booking.getLoad().getId();
+            loadRepository.adjustActiveBookingCount(loadId, delta);
+            publishBookingsChanged(loadId);
+            evictLoad(loadId);
+        }
+        return savedBooking;
     }
 
+    @ConflictRetryable
+    @LoadLocked("loadOf(#bookingId)")
+    @CacheEvict(cacheNames = CacheConfig.BOOKINGS, key = "#bookingId")
     @Transactional
     public void deleteBooking(UUID bookingId) {
-        Booking booking = getBookingById(bookingId);
-        Load load = booking.getLoad();
+        Booking booking = findBooking(bookingId);
+        UUID loadId = booking.getLoad().getId();
 
         bookingRepository.delete(booking);
+        // The counter replaces scanning Load.bookings; deleting the last active booking reverts the load to POSTED.
+        int delta = booking.getStatus().isActive() ? -1 : 0;
+        eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.DELETED, booking, booking.getStatus()));
+
+        if (delta != 0) {
+            loadRepository.adjustActiveBookingCount(loadId, delta);
+            publishBookingsChanged(loadId);
+            evictLoad(loadId);
+        }
+    }
 
-        loadRepository.flush();
-        Load refreshedLoad = loadRepository.findById(load.getId()).get();
+    static Booking newBooking(Load load, BookingDTO.Create createDto) {
+        Booking booking = new Booking();
+        booking.setLoad(load);
+        booking.setTransporterId(createDto.getTransporterId());
+        booking.setProposedRate(createDto.getProposedRate());
+        booking.setComment(createDto.getComment());
+        booking.setStatus(Booking.Status.PENDING);
+        booking.setRequestedAt(new Timestamp(System.currentTimeMillis()));
+        return booking;
+    }
 
-        boolean hasActiveBookings = refreshedLoad.getBookings().stream()
-                                                 .anyMatch(b -> b.getStatus() == Booking.Status.PENDING || b.getStatus() == Booking.Status.ACCEPTED);
+    static void requireOpen(Load load) {
+        if (load.getStatus() == Load.Status.CANCELLED) {
+            throw new BookingValidationException("Cannot create booking for a cancelled load.");
+        }
+        if (load.getStatus() == Load.Status.EXPIRED) {
+            throw new BookingValidationException("Cannot create booking for an expired load.");
+        }
+    }
+
+    private static int activeDelta(Booking.Status previousStatus, Booking.Status newStatus) {
+        return (newStatus.isActive() ? 1 : 0) - (previousStatus.isActive() ? 1 : 0);
+    }
+
+    private Booking findBooking(UUID bookingId) {
+        return bookingRepository.findById(bookingId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+    }
+
+    // Re-read after the counter update: it may have applied on top of other writes to the load, so the
+    // copy read before it cannot tell the load's new count, status or version.
+    private void publishBookingsChanged(UUID loadId) {
+        loadRepository.findById(loadId)
+                      .ifPresent(load -> eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load)));
+    }
 
-        if (!hasActiveBookings) {
-            refreshedLoad.setStatus(Load.Status.POSTED);
-            loadRepository.save(refreshedLoad);
+    // The parent id is only known once the booking is read, so it cannot be expressed as a @CacheEvict key.
+    private void evictLoad(UUID loadId) {
+        Cache loads = cacheManager.getCache(CacheConfig.LOADS);
+        if (loads != null) {
+            loads.evict(loadId);
         }
     }
 }
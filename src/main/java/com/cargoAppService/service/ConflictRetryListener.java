@@ -0,0 +1,49 @@
+package com.cargoAppService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts optimistic-lock conflicts seen by {@code @Retryable} service methods and how many of them
+ * ran out of attempts. Retry listeners are collected by the retry advisor while post-processors are
+ * still being set up, so the counters are registered when Spring Boot binds this listener rather
+ * than by injecting the meter registry, which would create it too early to be configured.
+ */
+@Component
+public class ConflictRetryListener extends RetryListenerSupport implements MeterBinder {
+
+    private volatile Counter conflicts;
+    private volatile Counter exhausted;
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        conflicts = Counter.builder("cargo.optimistic.conflicts")
+                           .description("Optimistic lock conflicts that triggered a retry")
+                           .register(meterRegistry);
+        exhausted = Counter.builder("cargo.optimistic.exhausted")
+                           .description("Operations that still conflicted after the last retry")
+                           .register(meterRegistry);
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        increment(conflicts, throwable);
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        increment(exhausted, throwable);
+    }
+
+    private static void increment(Counter counter, Throwable throwable) {
+        if (counter != null && throwable instanceof OptimisticLockingFailureException) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cargoAppService.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional write a bounded number of times when it loses an optimistic version check.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(value = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${cargo.retry.max-attempts:4}",
+        backoff = @Backoff(delayExpression = "${cargo.retry.initial-backoff-ms:5}",
+                multiplierExpression = "${cargo.retry.backoff-multiplier:2}",
+                maxDelayExpression = "${cargo.retry.max-backoff-ms:50}",
+                random = true))
+public @interface ConflictRetryable {
+}
@@ -0,0 +1,74 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.BookingSpecifications;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.repositories.LoadSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class ExportService {
+
+    private final LoadRepository loadRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    public ExportService(LoadRepository loadRepository,
+                         BookingRepository bookingRepository,
+                         EntityManager entityManager,
+                         @Value("${cargo.export.fetch-size:500}") int fetchSize,
+                         @Value("${cargo.export.clear-interval:1000}") int clearInterval) {
+        this.loadRepository = loadRepository;
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportLoads(String shipperId, String truckType, String status, RowWriter<Load> writer) throws IOException {
+        try (Stream<Load> loads = loadRepository.streamAll(
+                LoadSpecifications.withFilters(shipperId, truckType, status), LoadSpecifications.KEYSET_ORDER, fetchSize)) {
+            return drain(loads, writer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportBookings(UUID loadId, String transporterId, String status, RowWriter<Booking> writer) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamAll(
+                BookingSpecifications.withFilters(loadId, transporterId, status), BookingSpecifications.KEYSET_ORDER, fetchSize)) {
+            return drain(bookings, writer);
+        }
+    }
+
+    private <T> long drain(Stream<T> rows, RowWriter<T> writer) throws IOException {
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+            // Rows already written are of no further use; detaching them keeps the persistence
+            // context, and with it the heap, from growing with the size of the export.
+            if (++count % clearInterval == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+}
@@ -0,0 +1,376 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.dto.LaneStatsDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.repositories.LaneRateStatsRepository;
+import com.tdunning.math.stats.MergingDigest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Proposed-rate statistics per lane (truck type, loading point, unloading point) for
+ * {@code GET /stats/lanes}: bid/accept/reject counters and a t-digest of every proposed rate, updated
+ * from committed booking events, so a lookup never scans bookings.
+ * <p>
+ * Every {@code cargo.stats.checkpoint-interval} and on shutdown, {@code lane_rate_stats} is brought up to
+ * date under a lock on the checkpoint row, so any number of instances can share it: bids are folded in
+ * from the bookings table up to {@code covered_until}, which trails the clock by
+ * {@code cargo.stats.settle-time}, and accept/reject counts are added as the deltas this instance saw
+ * since its last checkpoint. On startup, before the web server accepts requests, the stored lanes are
+ * loaded and bookings requested after {@code covered_until} are replayed.
+ * <p>
+ * Bids are recovered from the bookings table as long as no booking transaction commits later than the
+ * settle time after it set {@code requested_at} (clock skew between instances included). Decisions this
+ * instance saw after its last checkpoint are lost if it dies without shutting down. Each instance only
+ * sees its own events until it restarts.
+ */
+@Component
+public class LaneRateStats implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LaneRateStats.class);
+    private static final double COMPRESSION = 100;
+
+    private final LaneRateStatsRepository repository;
+    private final TransactionTemplate transaction;
+    private final int maxResults;
+    private final Duration settleTime;
+
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public LaneRateStats(LaneRateStatsRepository repository, PlatformTransactionManager transactionManager,
+                         @Value("${cargo.stats.max-results:500}") int maxResults,
+                         @Value("${cargo.stats.settle-time:PT1M}") Duration settleTime) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxResults = maxResults;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Returns the statistics of lanes matching the optional filters, busiest lane first. With all three
+     * filters set this is a single map lookup.
+     */
+    public List<LaneStatsDTO.Response> lanes(String truckType, String origin, String destination, int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new InvalidRequestException("Limit must be between 1 and " + maxResults + ".");
+        }
+        if (truckType != null && origin != null && destination != null) {
+            Lane lane = lanes.get(new LaneKey(truckType, origin, destination));
+            return lane == null ? List.of() : List.of(lane.toResponse());
+        }
+        String truckTypeKey = truckType == null ? null : key(truckType);
+        String originKey = origin == null ? null : key(origin);
+        String destinationKey = destination == null ? null : key(destination);
+        return lanes.entrySet().stream()
+                    .filter(entry -> (truckTypeKey == null || entry.getKey().truckType.equals(truckTypeKey))
+                            && (originKey == null || entry.getKey().origin.equals(originKey))
+                            && (destinationKey == null || entry.getKey().destination.equals(destinationKey)))
+                    .map(entry -> entry.getValue().toResponse())
+                    .sorted(Comparator.comparingLong(LaneStatsDTO.Response::getBids).reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getTruckType() == null || event.getLoadingPoint() == null || event.getUnloadingPoint() == null) {
+            return;
+        }
+        Lane lane = lane(event.getTruckType(), event.getLoadingPoint(), event.getUnloadingPoint());
+        if (event.getType() == BookingEvent.Type.CREATED) {
+            lane.bid(event.getProposedRate());
+        } else if (event.getType() == BookingEvent.Type.UPDATED) {
+            lane.decide(event.getPreviousStatus(), event.getStatus());
+        }
+        // Deleting a booking does not take back a rate that was offered.
+    }
+
+    @Scheduled(fixedDelayString = "${cargo.stats.checkpoint-interval:PT1M}", initialDelayString = "${cargo.stats.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        Timestamp settled = new Timestamp(System.currentTimeMillis() - settleTime.toMillis());
+        Map<LaneKey, Fold> folds = new HashMap<>();
+        Map<Lane, long[]> decisions = new HashMap<>();
+        for (Map.Entry<LaneKey, Lane> entry : lanes.entrySet()) {
+            long[] decided = entry.getValue().takeDecisions();
+            if (decided != null) {
+                decisions.put(entry.getValue(), decided);
+                folds.computeIfAbsent(entry.getKey(), key -> new Fold(entry.getValue())).decided(decided);
+            }
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                Timestamp coveredUntil = repository.lockCoveredUntil().orElse(null);
+                if (coveredUntil == null || coveredUntil.before(settled)) {
+                    repository.replayBookings(coveredUntil, settled, rs -> {
+                        String truckType = rs.getString(1);
+                        String loadingPoint = rs.getString(2);
+                        String unloadingPoint = rs.getString(3);
+                        if (truckType != null && loadingPoint != null && unloadingPoint != null) {
+                            folds.computeIfAbsent(new LaneKey(truckType, loadingPoint, unloadingPoint),
+                                    key -> new Fold(truckType.trim(), loadingPoint.trim(), unloadingPoint.trim()))
+                                 .bid(rs.getDouble(4));
+                        }
+                    });
+                    repository.moveCoveredUntil(settled);
+                }
+                for (Fold fold : folds.values()) {
+                    repository.saveLane(fold.mergeInto(repository.lockLane(fold.truckType, fold.loadingPoint, fold.unloadingPoint)));
+                }
+            });
+        } catch (DataAccessException | TransactionException ex) {
+            decisions.forEach(Lane::returnDecisions);
+            log.warn("Lane rate checkpoint failed; {} lanes will be retried", folds.size(), ex);
+        }
+    }
+
+    private void restore() {
+        Optional<Timestamp> coveredUntil = repository.findCoveredUntil();
+        if (coveredUntil.isPresent()) {
+            for (LaneRateStatsRepository.LaneRow row : repository.findAll()) {
+                lanes.put(new LaneKey(row.getTruckType(), row.getLoadingPoint(), row.getUnloadingPoint()), new Lane(row));
+            }
+        }
+        repository.replayBookings(coveredUntil.orElse(null), null, rs -> {
+            if (rs.getString(1) != null && rs.getString(2) != null && rs.getString(3) != null) {
+                lane(rs.getString(1), rs.getString(2), rs.getString(3)).bid(rs.getDouble(4));
+            }
+        });
+    }
+
+    private Lane lane(String truckType, String loadingPoint, String unloadingPoint) {
+        return lanes.computeIfAbsent(new LaneKey(truckType, loadingPoint, unloadingPoint),
+                key -> new Lane(truckType.trim(), loadingPoint.trim(), unloadingPoint.trim()));
+    }
+
+    @Override
+    public void start() {
+        ReadRouting.runOnPrimary(this::restore);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        checkpoint();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Restored before the web server starts (and checkpointed after it stops), so no request sees a
+    // half-restored state and no late booking misses the final checkpoint.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.stats.lanes", lanes, Map::size)
+             .description("Lanes with rate statistics")
+             .register(meterRegistry);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class LaneKey {
+
+        private final String truckType;
+        private final String origin;
+        private final String destination;
+
+        private LaneKey(String truckType, String origin, String destination) {
+            this.truckType = key(truckType);
+            this.origin = key(origin);
+            this.destination = key(destination);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof LaneKey)) {
+                return false;
+            }
+            LaneKey lane = (LaneKey) other;
+            return truckType.equals(lane.truckType) && origin.equals(lane.origin) && destination.equals(lane.destination);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(truckType, origin, destination);
+        }
+    }
+
+    private static final class Lane {
+
+        private final String truckType;
+        private final String loadingPoint;
+        private final String unloadingPoint;
+        private final MergingDigest rates;
+        private long bids;
+        private long accepted;
+        private long rejected;
+        // Decisions not yet added to the stored lane.
+        private long pendingAccepted;
+        private long pendingRejected;
+
+        private Lane(String truckType, String loadingPoint, String unloadingPoint) {
+            this.truckType = truckType;
+            this.loadingPoint = loadingPoint;
+            this.unloadingPoint = unloadingPoint;
+            this.rates = new MergingDigest(COMPRESSION);
+        }
+
+        private Lane(LaneRateStatsRepository.LaneRow row) {
+            this.truckType = row.getTruckType();
+            this.loadingPoint = row.getLoadingPoint();
+            this.unloadingPoint = row.getUnloadingPoint();
+            this.rates = MergingDigest.fromBytes(ByteBuffer.wrap(row.getRateDigest()));
+            this.bids = row.getBids();
+            this.accepted = row.getAccepted();
+            this.rejected = row.getRejected();
+        }
+
+        // Bookings are always created PENDING; their later decisions arrive as updates.
+        private synchronized void bid(double rate) {
+            rates.add(rate);
+            bids++;
+        }
+
+        private synchronized void decide(Booking.Status previousStatus, Booking.Status status) {
+            if (previousStatus != status) {
+                count(previousStatus, -1);
+                count(status, 1);
+            }
+        }
+
+        private void count(Booking.Status status, int delta) {
+            if (status == Booking.Status.ACCEPTED) {
+                accepted += delta;
+                pendingAccepted += delta;
+            } else if (status == Booking.Status.REJECTED) {
+                rejected += delta;
+                pendingRejected += delta;
+            }
+        }
+
+        private synchronized LaneStatsDTO.Response toResponse() {
+            LaneStatsDTO.Response response = new LaneStatsDTO.Response();
+            response.setTruckType(truckType);
+            response.setLoadingPoint(loadingPoint);
+            response.setUnloadingPoint(unloadingPoint);
+            response.setBids(bids);
+            response.setAccepted(accepted);
+            response.setRejected(rejected);
+            // A lane known only from decisions has no rates yet.
+            if (rates.size() > 0) {
+                response.setMinRate(rates.getMin());
+                response.setP50Rate(rates.quantile(0.5));
+                response.setP90Rate(rates.quantile(0.9));
+                response.setMaxRate(rates.getMax());
+            }
+            return response;
+        }
+
+        private synchronized long[] takeDecisions() {
+            if (pendingAccepted == 0 && pendingRejected == 0) {
+                return null;
+            }
+            long[] decided = {pendingAccepted, pendingRejected};
+            pendingAccepted = 0;
+            pendingRejected = 0;
+            return decided;
+        }
+
+        private synchronized void returnDecisions(long[] decided) {
+            pendingAccepted += decided[0];
+            pendingRejected += decided[1];
+        }
+    }
+
+    // What one checkpoint adds to a stored lane: bids folded from the bookings table and this instance's
+    // decisions.
+    private static final class Fold {
+
+        private final String truckType;
+        private final String loadingPoint;
+        private final String unloadingPoint;
+        private final MergingDigest rates = new MergingDigest(COMPRESSION);
+        private long bids;
+        private long accepted;
+        private long rejected;
+
+        private Fold(String truckType, String loadingPoint, String unloadingPoint) {
+            this.truckType = truckType;
+            this.loadingPoint = loadingPoint;
+            this.unloadingPoint = unloadingPoint;
+        }
+
+        private Fold(Lane lane) {
+            this(lane.truckType, lane.loadingPoint, lane.unloadingPoint);
+        }
+
+        private void bid(double rate) {
+            rates.add(rate);
+            bids++;
+        }
+
+        private void decided(long[] decided) {
+            accepted += decided[0];
+            rejected += decided[1];
+        }
+
+        private LaneRateStatsRepository.LaneRow mergeInto(Optional<LaneRateStatsRepository.LaneRow> stored) {
+            MergingDigest merged = stored.map(row -> MergingDigest.fromBytes(ByteBuffer.wrap(row.getRateDigest())))
+                                         .orElseGet(() -> new MergingDigest(COMPRESSION));
+            // MergingDigest cannot merge an empty digest.
+            if (bids > 0) {
+                merged.add(List.of(rates));
+            }
+            merged.compress();
+            ByteBuffer digest = ByteBuffer.allocate(merged.smallByteSize());
+            merged.asSmallBytes(digest);
+            // The stored spelling of the lane wins, so the row is updated rather than duplicated.
+            return new LaneRateStatsRepository.LaneRow(
+                    stored.map(LaneRateStatsRepository.LaneRow::getTruckType).orElse(truckType),
+                    stored.map(LaneRateStatsRepository.LaneRow::getLoadingPoint).orElse(loadingPoint),
+                    stored.map(LaneRateStatsRepository.LaneRow::getUnloadingPoint).orElse(unloadingPoint),
+                    stored.map(LaneRateStatsRepository.LaneRow::getBids).orElse(0L) + bids,
+                    stored.map(LaneRateStatsRepository.LaneRow::getAccepted).orElse(0L) + accepted,
+                    stored.map(LaneRateStatsRepository.LaneRow::getRejected).orElse(0L) + rejected,
+                    digest.array());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.repositories.LoadRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class LoadBatchService {
+
+    public static final String CREATED = "CREATED";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBatchService.class);
+
+    private final LoadRepository loadRepository;
+    private final Validator validator;
+    private final ObjectReader createReader;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public LoadBatchService(LoadRepository loadRepository,
+                            Validator validator,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            EntityManager entityManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${cargo.load.batch.chunk-size:500}") int chunkSize,
+                            @Value("${cargo.load.batch.max-items:10000}") int maxItems) {
+        this.loadRepository = loadRepository;
+        this.validator = validator;
+        this.createReader = objectMapper.readerFor(LoadDTO.Create.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Validates every item up front and persists the valid ones in chunks, each chunk in its own
+     * transaction so one bad chunk does not roll back the rest of the batch.
+     */
+    public LoadDTO.BatchResponse createLoads(List<LoadDTO.Create> createDtos) {
+        if (createDtos.size() > maxItems) {
+            throw tooManyItems();
+        }
+        return createLoads(createDtos, Collections.emptyMap());
+    }
+
+    /**
+     * Reads one load per line, rejecting the batch as soon as it has more than {@code max-items} lines
+     * rather than after reading all of them. A line that cannot be parsed is reported as an INVALID
+     * item and the other lines are still stored.
+     */
+    public LoadDTO.BatchResponse createLoads(BufferedReader lines) throws IOException {
+        List<LoadDTO.Create> createDtos = new ArrayList<>();
+        Map<Integer, Map<String, String>> parseErrors = new HashMap<>();
+        int lineNumber = 0;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (createDtos.size() == maxItems) {
+                throw tooManyItems();
+            }
+            try {
+                createDtos.add(createReader.readValue(line));
+            } catch (JsonProcessingException ex) {
+                parseErrors.put(createDtos.size(), parseError(lineNumber, ex));
+                createDtos.add(null);
+            }
+        }
+        return createLoads(createDtos, parseErrors);
+    }
+
+    private LoadDTO.BatchResponse createLoads(List<LoadDTO.Create> createDtos, Map<Integer, Map<String, String>> parseErrors) {
+        List<LoadDTO.BatchItemResult> results = new ArrayList<>(createDtos.size());
+        List<LoadDTO.BatchItemResult> pendingResults = new ArrayList<>();
+        List<Load> pendingLoads = new ArrayList<>();
+        for (int i = 0; i < createDtos.size(); i++) {
+            LoadDTO.BatchItemResult result = new LoadDTO.BatchItemResult();
+            result.setIndex(i);
+            results.add(result);
+
+            LoadDTO.Create createDto = createDtos.get(i);
+            Map<String, String> errors = parseErrors.containsKey(i) ? parseErrors.get(i) : validate(createDto);
+            if (!errors.isEmpty()) {
+                result.setStatus(INVALID);
+                result.setErrors(errors);
+                continue;
+            }
+            pendingResults.add(result);
+            pendingLoads.add(LoadService.newLoad(createDto));
+        }
+
+        for (int from = 0; from < pendingLoads.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, pendingLoads.size());
+            persistChunk(pendingLoads.subList(from, to), pendingResults.subList(from, to));
+        }
+
+        LoadDTO.BatchResponse response = new LoadDTO.BatchResponse();
+        response.setResults(results);
+        response.setCreated((int) results.stream().filter(r -> CREATED.equals(r.getStatus())).count());
+        response.setFailed(results.size() - response.getCreated());
+        return response;
+    }
+
+    private void persistChunk(List<Load> loads, List<LoadDTO.BatchItemResult> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Ids come from the UUID generator before the INSERTs are issued, so Hibernate can
+                // group the whole chunk into JDBC batches (hibernate.jdbc.batch_size).
+                loadRepository.saveAll(loads);
+                loadRepository.flush();
+                entityManager.clear();
+                loads.forEach(load -> eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.CREATED, load)));
+            });
+        } catch (RuntimeException ex) {
+            // The exception text can carry SQL and constraint names; clients get a stable message.
+            log.warn("Failed to store a chunk of {} loads", loads.size(), ex);
+            results.forEach(result -> {
+                result.setStatus(FAILED);
+                result.setErrors(Collections.singletonMap("load", "Could not be stored; retry the item."));
+            });
+            return;
+        }
+        for (int i = 0; i < loads.size(); i++) {
+            results.get(i).setId(loads.get(i).getId());
+            results.get(i).setStatus(CREATED);
+        }
+    }
+
+    private InvalidRequestException tooManyItems() {
+        return new InvalidRequestException("A batch may contain at most " + maxItems + " loads.");
+    }
+
+    private static Map<String, String> parseError(int lineNumber, JsonProcessingException ex) {
+        if (ex instanceof JsonMappingException && !((JsonMappingException) ex).getPath().isEmpty()) {
+            String field = ((JsonMappingException) ex).getPath().stream()
+                                                      .map(reference -> reference.getFieldName() != null
+                                                              ? reference.getFieldName() : String.valueOf(reference.getIndex()))
+                                                      .collect(Collectors.joining("."));
+            return Collections.singletonMap(field, "Line " + lineNumber + " has an invalid value for this field.");
+        }
+        return Collections.singletonMap("load", "Line " + lineNumber + " is not a valid JSON object.");
+    }
+
+    private Map<String, String> validate(LoadDTO.Create createDto) {
+        if (createDto == null) {
+            return Collections.singletonMap("load", "Item is empty or malformed.");
+        }
+        Set<ConstraintViolation<LoadDTO.Create>> violations = validator.validate(createDto);
+        Map<String, String> errors = new LinkedHashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+}
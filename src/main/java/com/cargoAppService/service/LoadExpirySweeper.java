@@ -0,0 +1,144 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves POSTED and BOOKED loads whose loading date has passed to EXPIRED, so they drop off the load
+ * board. Due loads come from {@link LoadExpiryWheel}; every batch of at most {@code cargo.expiry.batch-size}
+ * loads is expired by primary key in its own transaction, and the pending bookings on those loads are
+ * rejected with one statement. Loads with an accepted booking are left alone and put back on the wheel
+ * to be checked again after {@code cargo.expiry.recheck-interval}, since the wheel hears of load changes
+ * only and would otherwise never see the acceptance withdrawn.
+ */
+@Component
+public class LoadExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadExpirySweeper.class);
+
+    private final LoadExpiryWheel wheel;
+    private final LoadRepository loadRepository;
+    private final BookingRepository bookingRepository;
+    private final LoadLockStripes loadLockStripes;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long recheckMillis;
+
+    public LoadExpirySweeper(LoadExpiryWheel wheel, LoadRepository loadRepository, BookingRepository bookingRepository,
+                             LoadLockStripes loadLockStripes, CacheManager cacheManager,
+                             ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                             @Value("${cargo.expiry.batch-size:500}") int batchSize,
+                             @Value("${cargo.expiry.recheck-interval:PT10M}") Duration recheckInterval) {
+        this.wheel = wheel;
+        this.loadRepository = loadRepository;
+        this.bookingRepository = bookingRepository;
+        this.loadLockStripes = loadLockStripes;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.recheckMillis = recheckInterval.toMillis();
+    }
+
+    /**
+     * Expires every load that is due as of now and returns how many were expired.
+     */
+    @Scheduled(fixedDelayString = "${cargo.expiry.sweep-interval:PT1M}", initialDelayString = "${cargo.expiry.sweep-interval:PT1M}")
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        List<UUID> due;
+        while (!(due = wheel.pollDue(now, batchSize)).isEmpty()) {
+            List<UUID> batch = due;
+            List<UUID> skipped = new ArrayList<>();
+            try (LoadLockStripes.Held held = loadLockStripes.lockAll(batch)) {
+                expired += transactionTemplate.execute(status -> expireBatch(batch, new Timestamp(now), skipped));
+            } catch (RuntimeException ex) {
+                wheel.reschedule(batch, now);
+                log.warn("Expiring {} loads failed; they will be retried on the next sweep", batch.size(), ex);
+                break;
+            }
+            wheel.reschedule(skipped, now + recheckMillis);
+        }
+        return expired;
+    }
+
+    private int expireBatch(List<UUID> loadIds, Timestamp now, List<UUID> skipped) {
+        List<UUID> open = loadRepository.findAllById(loadIds).stream()
+                                        .filter(load -> load.getStatus() == Load.Status.POSTED
+                                                || load.getStatus() == Load.Status.BOOKED)
+                                        .map(Load::getId)
+                                        .collect(Collectors.toList());
+        int updated = open.isEmpty() ? 0 : loadRepository.expire(open, now);
+        if (updated == 0) {
+            skipped.addAll(open);
+            return 0;
+        }
+        // A load that a transporter has been accepted for is under way, whatever its loading date says;
+        // expire() leaves it open.
+        List<Load> expired = new ArrayList<>(updated);
+        for (Load load : loadRepository.findAllById(open)) {
+            if (load.getStatus() == Load.Status.EXPIRED) {
+                expired.add(load);
+            } else {
+                skipped.add(load.getId());
+            }
+        }
+        if (expired.size() != updated) {
+            throw new OptimisticLockingFailureException("Loads changed while they were being expired.");
+        }
+        Set<UUID> expiredIds = expired.stream().map(Load::getId).collect(Collectors.toSet());
+
+        List<Booking> pending = bookingRepository.findAllWithLoadByLoadIds(expiredIds, Booking.Status.PENDING);
+        List<UUID> pendingIds = new ArrayList<>(pending.size());
+        pending.forEach(booking -> pendingIds.add(booking.getId()));
+        if (!pendingIds.isEmpty()
+                && bookingRepository.updateStatus(pendingIds, Booking.Status.PENDING, Booking.Status.REJECTED) != pendingIds.size()) {
+            throw new OptimisticLockingFailureException("Bookings changed while their loads were being expired.");
+        }
+
+        Cache bookingCache = cacheManager.getCache(CacheConfig.BOOKINGS);
+        for (Booking booking : pending) {
+            // Detached by the bulk update; the new status is only set for the event.
+            booking.setStatus(Booking.Status.REJECTED);
+            eventPublisher.publishEvent(BookingEvent.of(BookingEvent.Type.UPDATED, booking, Booking.Status.PENDING));
+            if (bookingCache != null) {
+                bookingCache.evict(booking.getId());
+            }
+        }
+        Cache loadCache = cacheManager.getCache(CacheConfig.LOADS);
+        for (Load load : expired) {
+            eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.EXPIRED, load));
+            if (loadCache != null) {
+                loadCache.evict(load.getId());
+            }
+        }
+        return expired.size();
+    }
+}
@@ -0,0 +1,163 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.repositories.LoadRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Upcoming loading dates of every POSTED or BOOKED load, bucketed by {@code cargo.expiry.tick}, so
+ * {@link LoadExpirySweeper} can find the loads that are due without querying for them.
+ * <p>
+ * The wheel is seeded from the live loads once the application is ready and then follows committed
+ * load events: creating or updating a load (re)schedules it, cancelling or expiring it removes it. As in
+ * {@link LoadMatchIndex}, an event only applies if it carries a newer load version.
+ */
+@Component
+public class LoadExpiryWheel implements MeterBinder {
+
+    private static final List<Load.Status> LIVE = List.of(Load.Status.POSTED, Load.Status.BOOKED);
+
+    private final LoadRepository loadRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final long tickMillis;
+
+    private final ConcurrentSkipListMap<Long, Set<UUID>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Deadline> deadlines = new ConcurrentHashMap<>();
+
+    public LoadExpiryWheel(LoadRepository loadRepository, PlatformTransactionManager transactionManager,
+                           @Value("${cargo.export.fetch-size:500}") int fetchSize,
+                           @Value("${cargo.expiry.tick:PT1M}") Duration tick) {
+        this.loadRepository = loadRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.tickMillis = Math.max(1, tick.toMillis());
+    }
+
+    @TransactionalEventListener
+    public void onLoadEvent(LoadEvent event) {
+        Load load = event.getLoad();
+        boolean live = LIVE.contains(load.getStatus()) && load.getLoadingDate() != null;
+        schedule(load.getId(), load.getVersion(), live ? load.getLoadingDate().getTime() : null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        ReadRouting.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = loadRepository.streamLoadingDates(LIVE, fetchSize)) {
+                rows.forEach(row -> schedule((UUID) row[0], (Long) row[2], ((Timestamp) row[1]).getTime()));
+            }
+        }));
+    }
+
+    /**
+     * Removes and returns up to {@code max} loads whose loading date is not after {@code now}. Only the
+     * buckets up to the current tick are visited.
+     */
+    public List<UUID> pollDue(long now, int max) {
+        List<UUID> due = new ArrayList<>();
+        for (Map.Entry<Long, Set<UUID>> bucket : buckets.headMap(bucketOf(now), true).entrySet()) {
+            Iterator<UUID> ids = bucket.getValue().iterator();
+            while (ids.hasNext() && due.size() < max) {
+                UUID id = ids.next();
+                Deadline deadline = deadlines.get(id);
+                if (deadline != null && deadline.bucket == bucket.getKey() && deadline.millis <= now
+                        && deadlines.remove(id, deadline)) {
+                    ids.remove();
+                    due.add(id);
+                }
+            }
+            buckets.computeIfPresent(bucket.getKey(), (key, remaining) -> remaining.isEmpty() ? null : remaining);
+            if (due.size() >= max) {
+                break;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Puts polled loads back on the wheel as due at {@code millis}, unless an event has rescheduled them
+     * in the meantime. Any later event takes precedence as well.
+     */
+    public void reschedule(Collection<UUID> loadIds, long millis) {
+        loadIds.forEach(id -> schedule(id, -1, millis));
+    }
+
+    private void schedule(UUID id, long version, Long millis) {
+        deadlines.compute(id, (key, current) -> {
+            if (current != null && (version < 0 || current.version >= version)) {
+                return current;
+            }
+            if (current != null) {
+                buckets.computeIfPresent(current.bucket, (bucket, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            if (millis == null) {
+                return null;
+            }
+            Deadline next = new Deadline(version, millis, bucketOf(millis));
+            // Added inside compute so a concurrent poll cannot drop the bucket we are adding to.
+            buckets.compute(next.bucket, (bucket, ids) -> {
+                Set<UUID> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                updated.add(id);
+                return updated;
+            });
+            return next;
+        });
+    }
+
+    private long bucketOf(long millis) {
+        return Math.floorDiv(millis, tickMillis);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.expiry.scheduled", this, LoadExpiryWheel::size)
+             .description("Loads waiting on the expiry wheel")
+             .register(meterRegistry);
+    }
+
+    private static final class Deadline {
+
+        private final long version;
+        private final long millis;
+        private final long bucket;
+
+        private Deadline(long version, long millis, long bucket) {
+            this.version = version;
+            this.millis = millis;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.repositories.BookingRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Advice behind {@link LoadLocked}. Resolves the load ids before the target runs, so any lookup it
+ * needs happens outside the transaction, and holds their stripes until the target has returned.
+ */
+public class LoadLockInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<LoadLockStripes> loadLockStripes;
+    private final ObjectProvider<BookingRepository> bookingRepository;
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Expression> expressions = new ConcurrentHashMap<>();
+
+    public LoadLockInterceptor(ObjectProvider<LoadLockStripes> loadLockStripes, ObjectProvider<BookingRepository> bookingRepository) {
+        this.loadLockStripes = loadLockStripes;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        LoadLockStripes stripes = loadLockStripes.getObject();
+        if (!stripes.isEnabled()) {
+            return invocation.proceed();
+        }
+        try (LoadLockStripes.Held held = stripes.lockAll(loadIds(invocation))) {
+            return invocation.proceed();
+        }
+    }
+
+    private Collection<UUID> loadIds(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Expression expression = expressions.computeIfAbsent(method, key -> {
+            LoadLocked annotation = AnnotatedElementUtils.findMergedAnnotation(key, LoadLocked.class);
+            return parser.parseExpression(Objects.requireNonNull(annotation, "@LoadLocked").value());
+        });
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(new Lookups(), method, invocation.getArguments(), parameterNames);
+        Object value = expression.getValue(context);
+        if (value instanceof UUID) {
+            return Collections.singleton((UUID) value);
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream()
+                                          .filter(UUID.class::isInstance)
+                                          .map(UUID.class::cast)
+                                          .collect(Collectors.toSet());
+        }
+        // Nothing to lock, e.g. an unknown booking; the target reports that itself.
+        return Collections.emptySet();
+    }
+
+    // Root object of the @LoadLocked expressions.
+    public class Lookups {
+
+        public UUID loadOf(UUID bookingId) {
+            return bookingId == null ? null : bookingRepository.getObject().findLoadIdById(bookingId).orElse(null);
+        }
+
+        public List<UUID> loadsOf(Collection<UUID> bookingIds) {
+            List<UUID> known = bookingIds.stream().filter(Objects::nonNull).collect(Collectors.toList());
+            return known.isEmpty() ? Collections.emptyList() : bookingRepository.getObject().findLoadIdsByIds(known);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cargoAppService.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Holds the {@link LoadLockStripes} stripes of the loads a write touches for the whole transactional
+ * call. The advice runs outside the transaction advice and inside {@link ConflictRetryable}, so each
+ * attempt waits for its stripes before it opens a transaction and releases them after it commits.
+ * <p>
+ * The value is a SpEL expression over the method parameters that yields a load id or a collection of
+ * them; {@code loadOf(bookingId)} and {@code loadsOf(bookingIds)} resolve bookings to their loads.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LoadLocked {
+    String value();
+}
@@ -0,0 +1,350 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.repositories.LoadSpecifications;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of POSTED loads for {@code GET /load/match}, keyed by truck type and lane
+ * (loading point to unloading point) and bucketed by loading day, so a match never touches the
+ * database.
+ * <p>
+ * The index holds immutable {@link LoadSnapshot}s. It follows committed load events, and booking events for
+ * the bidders, and is rebuilt from the database at startup and every {@code cargo.match.resync-interval},
+ * which also picks up writes made by other instances. Every change is applied only if it carries a newer
+ * load version than the one already indexed, so events and resyncs can interleave in any order.
+ */
+@Component
+public class LoadMatchIndex implements MeterBinder {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry entry) -> entry.loadingDate)
+                                                               .thenComparing(entry -> entry.load.getDatePosted(),
+                                                                       Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final LoadRepository loadRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    // Latest known state per load. Loads that left POSTED stay as unindexed tombstones until the next
+    // resync so a late, older event cannot bring them back.
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Map<Lane, NavigableMap<Long, Map<UUID, Entry>>>> posted = new ConcurrentHashMap<>();
+    // Transporters with a booking on a load; they are not offered that load again.
+    private final Map<UUID, Bidders> bidders = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public LoadMatchIndex(LoadRepository loadRepository, BookingRepository bookingRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${cargo.export.fetch-size:500}") int fetchSize) {
+        this.loadRepository = loadRepository;
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns up to {@code limit} POSTED loads for the truck type, soonest loading date first and
+     * newest posting first among equal dates. Origin, destination and the loading-date window are
+     * optional; loads the transporter already bid on are skipped.
+     */
+    public List<LoadSnapshot> match(String transporterId, String truckType, String origin, String destination,
+                            Instant from, Instant to, int limit) {
+        Map<Lane, NavigableMap<Long, Map<UUID, Entry>>> lanes = posted.get(key(truckType));
+        if (lanes == null) {
+            return Collections.emptyList();
+        }
+        String originKey = origin == null ? null : key(origin);
+        String destinationKey = destination == null ? null : key(destination);
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+
+        List<Entry> candidates = new ArrayList<>();
+        if (originKey != null && destinationKey != null) {
+            NavigableMap<Long, Map<UUID, Entry>> days = lanes.get(new Lane(originKey, destinationKey));
+            if (days != null) {
+                collect(days, transporterId, fromMillis, toMillis, limit, candidates);
+            }
+        } else {
+            lanes.forEach((lane, days) -> {
+                if ((originKey == null || lane.origin.equals(originKey))
+                        && (destinationKey == null || lane.destination.equals(destinationKey))) {
+                    collect(days, transporterId, fromMillis, toMillis, limit, candidates);
+                }
+            });
+        }
+
+        candidates.sort(RANKING);
+        List<LoadSnapshot> matches = new ArrayList<>(Math.min(limit, candidates.size()));
+        Set<UUID> seen = new HashSet<>();
+        for (Entry entry : candidates) {
+            // An entry moving between buckets can briefly be visible in both.
+            if (seen.add(entry.load.getId())) {
+                matches.add(entry.load);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Walks a lane's day buckets in order. Only whole buckets are taken because loads inside a bucket
+    // are unordered, so once `limit` candidates are collected no later bucket can rank higher.
+    private void collect(NavigableMap<Long, Map<UUID, Entry>> days, String transporterId, long fromMillis, long toMillis,
+                         int limit, List<Entry> candidates) {
+        NavigableMap<Long, Map<UUID, Entry>> window = days.subMap(Math.floorDiv(fromMillis, MILLIS_PER_DAY), true,
+                Math.floorDiv(toMillis, MILLIS_PER_DAY), true);
+        int taken = 0;
+        for (Map<UUID, Entry> bucket : window.values()) {
+            for (Entry entry : bucket.values()) {
+                if (entry.loadingDate >= fromMillis && entry.loadingDate <= toMillis && !hasBid(entry, transporterId)) {
+                    candidates.add(entry);
+                    taken++;
+                }
+            }
+            if (taken >= limit) {
+                return;
+            }
+        }
+    }
+
+    private boolean hasBid(Entry entry, String transporterId) {
+        if (transporterId == null) {
+            return false;
+        }
+        Bidders loadBidders = bidders.get(entry.load.getId());
+        return loadBidders != null && loadBidders.transporterIds.contains(transporterId);
+    }
+
+    @TransactionalEventListener
+    public void onLoadEvent(LoadEvent event) {
+        apply(LoadSnapshot.of(event.getLoad()));
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() == BookingEvent.Type.CREATED) {
+            bidders.compute(event.getLoadId(), (id, current) ->
+                    Bidders.of(current).with(event.getTransporterId(), true, epoch.incrementAndGet()));
+        } else if (event.getType() == BookingEvent.Type.DELETED) {
+            // Kept even when empty, so a resync that read the bidders earlier cannot bring it back.
+            bidders.compute(event.getLoadId(), (id, current) ->
+                    Bidders.of(current).with(event.getTransporterId(), false, epoch.incrementAndGet()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resync();
+    }
+
+    /**
+     * Reconciles the index with the database: every POSTED load is (re)applied, and loads that are no
+     * longer POSTED are dropped unless an event touched them after the resync started.
+     */
+    @Scheduled(fixedDelayString = "${cargo.match.resync-interval:PT5M}", initialDelayString = "${cargo.match.resync-interval:PT5M}")
+    public void resync() {
+        long startEpoch = epoch.get();
+        Set<UUID> seen = new HashSet<>();
+        Map<UUID, Set<String>> currentBidders = new HashMap<>();
+        // Read from the primary: a lagging replica would drop loads whose events were already applied.
+        ReadRouting.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Load> loads = loadRepository.streamAll(
+                    LoadSpecifications.withFilters(null, null, Load.Status.POSTED.name()), LoadSpecifications.KEYSET_ORDER, fetchSize)) {
+                loads.forEach(load -> {
+                    seen.add(load.getId());
+                    apply(LoadSnapshot.of(load));
+                });
+            }
+            for (Object[] row : bookingRepository.findLoadBidders(Load.Status.POSTED)) {
+                currentBidders.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+        }));
+
+        for (UUID loadId : entries.keySet()) {
+            if (!seen.contains(loadId)) {
+                entries.computeIfPresent(loadId, (id, entry) -> {
+                    if (entry.epoch > startEpoch) {
+                        return entry;
+                    }
+                    if (entry.posted) {
+                        unindex(entry);
+                    }
+                    return null;
+                });
+            }
+        }
+        // Like the loads, bidders a booking event changed after the resync started are left alone.
+        currentBidders.forEach((loadId, transporterIds) -> bidders.compute(loadId, (id, current) ->
+                current != null && current.epoch > startEpoch ? current
+                        : new Bidders(Collections.unmodifiableSet(transporterIds), startEpoch)));
+        for (UUID loadId : bidders.keySet()) {
+            if (!currentBidders.containsKey(loadId)) {
+                bidders.computeIfPresent(loadId, (id, current) -> current.epoch > startEpoch ? current : null);
+            }
+        }
+    }
+
+    private void apply(LoadSnapshot load) {
+        entries.compute(load.getId(), (id, current) -> {
+            if (current != null && current.version >= load.getVersion()) {
+                return current;
+            }
+            Entry next = new Entry(load, epoch.incrementAndGet());
+            if (current != null && current.posted) {
+                unindex(current);
+            }
+            if (next.posted) {
+                posted.computeIfAbsent(next.truckType, truckType -> new ConcurrentHashMap<>())
+                      .computeIfAbsent(next.lane, lane -> new ConcurrentSkipListMap<>())
+                      .computeIfAbsent(next.day, day -> new ConcurrentHashMap<>())
+                      .put(id, next);
+            }
+            return next;
+        });
+    }
+
+    private void unindex(Entry entry) {
+        Map<Lane, NavigableMap<Long, Map<UUID, Entry>>> lanes = posted.get(entry.truckType);
+        NavigableMap<Long, Map<UUID, Entry>> days = lanes == null ? null : lanes.get(entry.lane);
+        if (days != null) {
+            days.computeIfPresent(entry.day, (day, bucket) -> {
+                bucket.remove(entry.load.getId());
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    public int size() {
+        return posted.values().stream()
+                     .flatMap(lanes -> lanes.values().stream())
+                     .flatMap(days -> days.values().stream())
+                     .mapToInt(Map::size)
+                     .sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.match.index.size", this, LoadMatchIndex::size)
+             .description("POSTED loads held by the match index")
+             .register(meterRegistry);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Lane {
+
+        private final String origin;
+        private final String destination;
+
+        private Lane(String origin, String destination) {
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Lane)) {
+                return false;
+            }
+            Lane lane = (Lane) other;
+            return origin.equals(lane.origin) && destination.equals(lane.destination);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, destination);
+        }
+    }
+
+    // Copied on write so match() can read a load's bidders without locking.
+    private static final class Bidders {
+
+        private static final Bidders NONE = new Bidders(Collections.emptySet(), 0);
+
+        private final Set<String> transporterIds;
+        private final long epoch;
+
+        private Bidders(Set<String> transporterIds, long epoch) {
+            this.transporterIds = transporterIds;
+            this.epoch = epoch;
+        }
+
+        private static Bidders of(Bidders current) {
+            return current == null ? NONE : current;
+        }
+
+        private Bidders with(String transporterId, boolean present, long epoch) {
+            Set<String> next = new HashSet<>(transporterIds);
+            if (present) {
+                next.add(transporterId);
+            } else {
+                next.remove(transporterId);
+            }
+            return new Bidders(Collections.unmodifiableSet(next), epoch);
+        }
+    }
+
+    private static final class Entry {
+
+        private final LoadSnapshot load;
+        private final long version;
+        private final long epoch;
+        private final boolean posted;
+        private final String truckType;
+        private final Lane lane;
+        private final long loadingDate;
+        private final long day;
+
+        private Entry(LoadSnapshot load, long epoch) {
+            this.load = load;
+            this.version = load.getVersion();
+            this.epoch = epoch;
+            this.posted = load.getStatus() == Load.Status.POSTED && load.getTruckType() != null
+                    && load.getLoadingPoint() != null && load.getUnloadingPoint() != null && load.getLoadingDate() != null;
+            this.truckType = load.getTruckType() == null ? null : key(load.getTruckType());
+            this.lane = posted ? new Lane(key(load.getLoadingPoint()), key(load.getUnloadingPoint())) : null;
+            this.loadingDate = load.getLoadingDate() == null ? 0 : load.getLoadingDate().toEpochMilli();
+            this.day = Math.floorDiv(loadingDate, MILLIS_PER_DAY);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.repositories.LoadSpecifications;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over {@code loadingPoint}, {@code unloadingPoint} and {@code productType} for
+ * {@code GET /load/search}.
+ * <p>
+ * Every word is split into trigrams padded with two leading blanks and one trailing blank. Query words
+ * are only padded at the front, so a prefix of a word matches all of its trigrams, and a typo costs up
+ * to three of them. A load matches when it shares at least {@code cargo.search.min-similarity} of the
+ * query's trigrams. Candidates are drawn only from the rarest query trigrams (any load reaching the
+ * threshold must contain one of them), so a lookup reads short posting lists no matter how many loads
+ * are indexed.
+ * <p>
+ * Only POSTED and BOOKED loads are searchable; a load that is cancelled or expires is dropped. The index
+ * is built by streaming the open loads once the application is ready, follows committed load and booking
+ * events, and is resynced every {@code cargo.search.resync-interval} to pick up writes made by other
+ * instances. Like {@link LoadMatchIndex}, it holds {@link LoadSnapshot}s and an update only applies if it
+ * carries a newer load version.
+ */
+@Component
+public class LoadSearchIndex implements MeterBinder {
+
+    private final LoadRepository loadRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final double minSimilarity;
+
+    // Latest known state per load. Loads that were cancelled or expired stay as tombstones without
+    // trigrams until the next resync so a late, older event cannot bring them back.
+    private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public LoadSearchIndex(LoadRepository loadRepository, PlatformTransactionManager transactionManager,
+                           @Value("${cargo.export.fetch-size:500}") int fetchSize,
+                           @Value("${cargo.search.min-similarity:0.6}") double minSimilarity) {
+        this.loadRepository = loadRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Returns up to {@code limit} loads whose text fields resemble {@code query}, best match first and
+     * newest posting first among equal scores. Status (POSTED or BOOKED) and truck type are optional
+     * exact filters.
+     */
+    public List<LoadSnapshot> search(String query, Load.Status status, String truckType, int limit) {
+        Set<String> queryTrigrams = trigrams(query, false);
+        if (queryTrigrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int required = Math.max(1, (int) Math.ceil(queryTrigrams.size() * minSimilarity));
+
+        List<Set<UUID>> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, Collections.emptySet()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        String truckTypeKey = truckType == null ? null : truckType.trim().toLowerCase(Locale.ROOT);
+        Set<UUID> candidates = new HashSet<>();
+        for (Set<UUID> list : lists.subList(0, queryTrigrams.size() - required + 1)) {
+            candidates.addAll(list);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (UUID id : candidates) {
+            Document document = documents.get(id);
+            if (document == null || !document.searchable
+                    || (status != null && document.load.getStatus() != status)
+                    || (truckTypeKey != null && !truckTypeKey.equals(document.truckType))) {
+                continue;
+            }
+            int shared = 0;
+            for (String trigram : queryTrigrams) {
+                if (document.trigrams.contains(trigram)) {
+                    shared++;
+                }
+            }
+            if (shared >= required) {
+                hits.add(new Hit(document.load, (double) shared / queryTrigrams.size()));
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble((Hit hit) -> hit.score).reversed()
+                            .thenComparing(hit -> hit.load.getDatePosted(), Comparator.nullsLast(Comparator.reverseOrder())));
+        List<LoadSnapshot> results = new ArrayList<>(Math.min(limit, hits.size()));
+        for (Hit hit : hits.subList(0, Math.min(limit, hits.size()))) {
+            results.add(hit.load);
+        }
+        return results;
+    }
+
+    @TransactionalEventListener
+    public void onLoadEvent(LoadEvent event) {
+        apply(LoadSnapshot.of(event.getLoad()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resync();
+    }
+
+    /**
+     * Reconciles the index with the database: every open load is (re)applied, and loads that are no
+     * longer open are dropped unless an event touched them after the resync started.
+     */
+    @Scheduled(fixedDelayString = "${cargo.search.resync-interval:PT5M}", initialDelayString = "${cargo.search.resync-interval:PT5M}")
+    public void resync() {
+        long startEpoch = epoch.get();
+        Set<UUID> seen = new HashSet<>();
+        // Read from the primary: a lagging replica would drop loads whose events were already applied.
+        ReadRouting.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Load> loads = loadRepository.streamAll(
+                    LoadSpecifications.isOpen(), LoadSpecifications.KEYSET_ORDER, fetchSize)) {
+                loads.forEach(load -> {
+                    seen.add(load.getId());
+                    apply(LoadSnapshot.of(load));
+                });
+            }
+        }));
+
+        for (UUID loadId : documents.keySet()) {
+            if (!seen.contains(loadId)) {
+                documents.computeIfPresent(loadId, (id, document) -> {
+                    if (document.epoch > startEpoch) {
+                        return document;
+                    }
+                    unindex(id, document, Collections.emptySet());
+                    return null;
+                });
+            }
+        }
+    }
+
+    private void apply(LoadSnapshot load) {
+        documents.compute(load.getId(), (id, current) -> {
+            if (current != null && current.version >= load.getVersion()) {
+                return current;
+            }
+            Document next = new Document(load, epoch.incrementAndGet());
+            if (current != null) {
+                unindex(id, current, next.trigrams);
+            }
+            for (String trigram : next.trigrams) {
+                // Added inside compute so a concurrent removal cannot drop the set we are adding to.
+                postings.compute(trigram, (key, ids) -> {
+                    Set<UUID> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    updated.add(id);
+                    return updated;
+                });
+            }
+            return next;
+        });
+    }
+
+    // Removes the load from the posting lists of the trigrams it no longer has.
+    private void unindex(UUID id, Document document, Set<String> kept) {
+        for (String trigram : document.trigrams) {
+            if (!kept.contains(trigram)) {
+                postings.computeIfPresent(trigram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    public int size() {
+        return (int) documents.values().stream().filter(document -> document.searchable).count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("cargo.search.index.size", this, LoadSearchIndex::size)
+             .description("Loads held by the search index")
+             .register(meterRegistry);
+        Gauge.builder("cargo.search.index.trigrams", postings, Map::size)
+             .description("Distinct trigrams held by the search index")
+             .register(meterRegistry);
+    }
+
+    private static Set<String> trigrams(String text, boolean padEnd) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        for (String word : normalize(text).split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + (padEnd ? " " : "");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    // Lower-cases and turns everything but letters and digits into word separators.
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        text.toLowerCase(Locale.ROOT).codePoints()
+            .forEach(c -> normalized.appendCodePoint(Character.isLetterOrDigit(c) ? c : ' '));
+        return normalized.toString();
+    }
+
+    private static final class Document {
+
+        private final LoadSnapshot load;
+        private final long version;
+        private final long epoch;
+        private final boolean searchable;
+        private final String truckType;
+        private final Set<String> trigrams;
+
+        private Document(LoadSnapshot load, long epoch) {
+            this.load = load;
+            this.version = load.getVersion();
+            this.epoch = epoch;
+            this.searchable = load.getStatus() == Load.Status.POSTED || load.getStatus() == Load.Status.BOOKED;
+            this.truckType = load.getTruckType() == null ? null : load.getTruckType().trim().toLowerCase(Locale.ROOT);
+            Set<String> fields = new HashSet<>();
+            if (searchable) {
+                fields.addAll(trigrams(load.getLoadingPoint(), true));
+                fields.addAll(trigrams(load.getUnloadingPoint(), true));
+                fields.addAll(trigrams(load.getProductType(), true));
+            }
+            this.trigrams = fields;
+        }
+    }
+
+    private static final class Hit {
+
+        private final LoadSnapshot load;
+        private final double score;
+
+        private Hit(LoadSnapshot load, double score) {
+            this.load = load;
+            this.score = score;
+        }
+    }
+}
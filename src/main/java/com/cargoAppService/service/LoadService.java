@@ -1,33 +1,74 @@
 package com.cargoAppService.service;
 
 
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.dto.Cursor;
+import com.cargoAppService.dto.CursorPage;
 import com.cargoAppService.dto.LoadDTO;
 import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.exceptions.ResourceNotFoundException;
+import com.cargoAppService.repositories.EntityVersion;
+import com.cargoAppService.repositories.FieldPaths;
 import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.repositories.LoadSpecifications;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.criteria.Predicate;
 import java.sql.Timestamp;
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
+@Timed(value = "cargo.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class LoadService {
 
     private final LoadRepository loadRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadMatchIndex loadMatchIndex;
+    private final LoadSearchIndex loadSearchIndex;
+    private final int maxMatches;
+    private final int maxSearchResults;
+    private final int maxPageSize;
 
-    public LoadService(LoadRepository loadRepository) {
+    public LoadService(LoadRepository loadRepository, ApplicationEventPublisher eventPublisher,
+                       LoadMatchIndex loadMatchIndex,
+                       LoadSearchIndex loadSearchIndex,
+                       @Value("${cargo.match.max-results:100}") int maxMatches,
+                       @Value("${cargo.search.max-results:100}") int maxSearchResults,
+                       @Value("${cargo.page.max-size:100}") int maxPageSize) {
         this.loadRepository = loadRepository;
+        this.eventPublisher = eventPublisher;
+        this.loadMatchIndex = loadMatchIndex;
+        this.loadSearchIndex = loadSearchIndex;
+        this.maxMatches = maxMatches;
+        this.maxSearchResults = maxSearchResults;
+        this.maxPageSize = maxPageSize;
     }
 
     @Transactional
     public Load createLoad(LoadDTO.Create createDto) {
+        Load load = loadRepository.save(newLoad(createDto));
+        eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+        return load;
+    }
+
+    static Load newLoad(LoadDTO.Create createDto) {
         Load load = new Load();
 
         load.setShipperId(createDto.getShipperId());
@@ -45,36 +86,94 @@ public class LoadService {
         load.setStatus(Load.Status.POSTED);
         load.setDatePosted(new Timestamp(System.currentTimeMillis()));
 
-        return loadRepository.save(load);
+        return load;
     }
 
     @Transactional(readOnly = true)
     public Page<Load> getLoads(String shipperId, String truckType, String status, Pageable pageable) {
-        Specification<Load> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (shipperId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("shipperId"), shipperId));
-            }
-            if (truckType != null) {
-                predicates.add(criteriaBuilder.equal(root.get("truckType"), truckType));
+        PageSizes.require(pageable.getPageSize(), maxPageSize);
+        return loadRepository.findAll(LoadSpecifications.withFilters(shipperId, truckType, status), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getLoadFields(String shipperId, String truckType, String status, String fields,
+                                                   Pageable pageable) {
+        PageSizes.require(pageable.getPageSize(), maxPageSize);
+        Map<String, String> fieldPaths = FieldPaths.select(fields, FieldPaths.LOAD);
+        return loadRepository.findProjected(LoadSpecifications.withFilters(shipperId, truckType, status), fieldPaths, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Load> getLoadsAfter(String shipperId, String truckType, String status, String after, int size) {
+        PageSizes.require(size, maxPageSize);
+        Specification<Load> spec = LoadSpecifications.withFilters(shipperId, truckType, status);
+        if (after != null && !after.isEmpty()) {
+            spec = spec.and(LoadSpecifications.after(Cursor.decode(after)));
+        }
+        // One extra row tells us whether there is a next page without running a count query.
+        List<Load> window = loadRepository.findWindow(spec, LoadSpecifications.KEYSET_ORDER, size + 1);
+        return CursorPage.of(window, size, load -> Cursor.encode(load.getDatePosted(), load.getId()));
+    }
+
+    // Served from the in-memory index; no transaction or query involved.
+    public List<LoadSnapshot> matchLoads(String transporterId, String truckType, String origin, String destination,
+                                         Instant from, Instant to, int limit) {
+        if (limit < 1 || limit > maxMatches) {
+            throw new InvalidRequestException("Limit must be between 1 and " + maxMatches + ".");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestException("'from' must not be after 'to'.");
+        }
+        return loadMatchIndex.match(transporterId, truckType, origin, destination, from, to, limit);
+    }
+
+    // Served from the in-memory trigram index, like matchLoads.
+    public List<LoadSnapshot> searchLoads(String query, String status, String truckType, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query must not be blank.");
+        }
+        if (limit < 1 || limit > maxSearchResults) {
+            throw new InvalidRequestException("Limit must be between 1 and " + maxSearchResults + ".");
+        }
+        Load.Status loadStatus = null;
+        if (status != null) {
+            try {
+                loadStatus = Load.Status.valueOf(status.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException("Unknown load status '" + status + "'.");
             }
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), Load.Status.valueOf(status.toUpperCase())));
+            if (loadStatus != Load.Status.POSTED && loadStatus != Load.Status.BOOKED) {
+                throw new InvalidRequestException("Only POSTED and BOOKED loads are searchable.");
             }
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-        return loadRepository.findAll(spec, pageable);
+        }
+        return loadSearchIndex.search(query, loadStatus, truckType, limit);
     }
 
+    // Caches the response DTO rather than the entity, so cached values carry no persistence context or lazy state.
+    // Read from the primary: a copy from a lagging replica would stay cached until the next eviction.
+    @Cacheable(cacheNames = CacheConfig.LOADS, key = "#loadId", sync = true)
     @Transactional(readOnly = true)
-    public Load getLoadById(UUID loadId) {
-        return loadRepository.findById(loadId)
-                             .orElseThrow(() -> new RuntimeException("Load not found with id: " + loadId));
+    public LoadDTO.Response getLoadById(UUID loadId) {
+        return ReadRouting.onPrimary(() -> LoadDTO.Response.from(findLoad(loadId)));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.LOADS, key = "#loadId")
+    public void evictLoad(UUID loadId) {
     }
 
+    // Two columns by primary key; tells conditional GETs whether the cached load is current.
+    @Transactional(readOnly = true)
+    public EntityVersion getLoadVersion(UUID loadId) {
+        return loadRepository.findVersionById(loadId)
+                             .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + loadId));
+    }
+
+    @ConflictRetryable
+    @LoadLocked("#loadId")
+    @CacheEvict(cacheNames = CacheConfig.LOADS, key = "#loadId")
     @Transactional
     public Load updateLoad(UUID loadId, LoadDTO.Update updateDto) {
-        Load existingLoad = getLoadById(loadId);
+        Load existingLoad = findLoad(loadId);
         // Update fields if they are provided in the DTO
         if (updateDto.getLoadingPoint() != null) {
             existingLoad.setLoadingPoint(updateDto.getLoadingPoint());
@@ -82,6 +181,12 @@ public class LoadService {
         if (updateDto.getUnloadingPoint() != null) {
             existingLoad.setUnloadingPoint(updateDto.getUnloadingPoint());
         }
+        if (updateDto.getLoadingDate() != null) {
+            existingLoad.setLoadingDate(updateDto.getLoadingDate());
+        }
+        if (updateDto.getUnloadingDate() != null) {
+            existingLoad.setUnloadingDate(updateDto.getUnloadingDate());
+        }
         if (updateDto.getProductType() != null) {
             existingLoad.setProductType(updateDto.getProductType());
         }
@@ -97,14 +202,26 @@ public class LoadService {
         if (updateDto.getComment() != null) {
             existingLoad.setComment(updateDto.getComment());
         }
-        existingLoad.setStatus(Load.Status.POSTED);
-        return loadRepository.save(existingLoad);
+        // Updating re-posts the load; it stays BOOKED while it still has active bookings.
+        existingLoad.setStatus(existingLoad.getActiveBookingCount() > 0 ? Load.Status.BOOKED : Load.Status.POSTED);
+        // Flushed so the published event carries the incremented version that ETags and stream clients see.
+        Load updatedLoad = loadRepository.saveAndFlush(existingLoad);
+        eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.UPDATED, updatedLoad));
+        return updatedLoad;
     }
 
+    @ConflictRetryable
+    @LoadLocked("#loadId")
+    @CacheEvict(cacheNames = CacheConfig.LOADS, key = "#loadId")
     @Transactional
     public void deleteLoad(UUID loadId) {
-        Load load = getLoadById(loadId);
+        Load load = findLoad(loadId);
         load.setStatus(Load.Status.CANCELLED);
-        loadRepository.save(load);
+        eventPublisher.publishEvent(new LoadEvent(LoadEvent.Type.CANCELLED, loadRepository.saveAndFlush(load)));
+    }
+
+    private Load findLoad(UUID loadId) {
+        return loadRepository.findById(loadId)
+                             .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + loadId));
     }
 }
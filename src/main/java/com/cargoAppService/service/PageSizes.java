@@ -0,0 +1,16 @@
+package com.cargoAppService.service;
+
+import com.cargoAppService.exceptions.InvalidRequestException;
+
+final class PageSizes {
+
+    private PageSizes() {
+    }
+
+    // Bounded so one request cannot pull a whole table, and so size + 1 for keyset windows cannot overflow.
+    static void require(int size, int maxPageSize) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxPageSize + ".");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.cargoAppService.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application first accepts traffic: the time from JVM start to
+ * readiness split into phases, and the bean definitions that took longest to instantiate, excluding
+ * the time spent creating their dependencies.
+ * <p>
+ * Phases are {@code jvm} (until Spring Boot starts), {@code environment} (configuration loading),
+ * {@code context} (bean definition loading), {@code refresh} (bean creation and web server start) and
+ * {@code ready} (runners and ready listeners, including index rebuilds and the warm-up). They add up to
+ * the total. The split is only available when the application was started with a
+ * {@link BufferingApplicationStartup}, as {@code CargoProApplication.main} does; the full timeline is
+ * served at {@code /actuator/startup}.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final ApplicationStartup applicationStartup;
+    private final int topBeans;
+
+    private volatile Duration total;
+    private volatile Map<String, Duration> phases = Collections.emptyMap();
+    private volatile Map<String, Duration> slowestBeans = Collections.emptyMap();
+
+    public StartupReport(ApplicationStartup applicationStartup,
+                         @Value("${cargo.startup.report.top-beans:10}") int topBeans) {
+        this.applicationStartup = applicationStartup;
+        this.topBeans = topBeans;
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || total != null) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        total = Duration.between(jvmStart, now);
+
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            log.info("Application ready in {} ms after JVM start", total.toMillis());
+            return;
+        }
+        StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+        phases = phases(timeline, jvmStart, now);
+        slowestBeans = slowestBeans(timeline.getEvents());
+        log.info("Application ready in {} ms after JVM start ({})", total.toMillis(), format(phases));
+        log.info("Slowest bean initializations: {}", format(slowestBeans));
+    }
+
+    public Duration getTotal() {
+        return total;
+    }
+
+    public Map<String, Duration> getPhases() {
+        return phases;
+    }
+
+    public Map<String, Duration> getSlowestBeans() {
+        return slowestBeans;
+    }
+
+    private static Map<String, Duration> phases(StartupTimeline timeline, Instant jvmStart, Instant now) {
+        Map<String, Instant> ends = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            ends.putIfAbsent(event.getStartupStep().getName(), event.getEndTime());
+        }
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        Instant from = jvmStart;
+        from = phase(phases, "jvm", from, timeline.getStartTime());
+        from = phase(phases, "environment", from, ends.get("spring.boot.application.environment-prepared"));
+        from = phase(phases, "context", from, ends.get("spring.boot.application.context-loaded"));
+        from = phase(phases, "refresh", from, ends.get("spring.boot.application.started"));
+        phase(phases, "ready", from, now);
+        return phases;
+    }
+
+    // A step missing from a full buffer folds its phase into the next one.
+    private static Instant phase(Map<String, Duration> phases, String name, Instant from, Instant to) {
+        if (to == null) {
+            return from;
+        }
+        phases.put(name, Duration.between(from, to));
+        return to;
+    }
+
+    private Map<String, Duration> slowestBeans(List<StartupTimeline.TimelineEvent> events) {
+        Map<Long, Duration> children = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName()) && step.getParentId() != null) {
+                children.merge(step.getParentId(), event.getDuration(), Duration::plus);
+            }
+        }
+        Map<String, Duration> self = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName())) {
+                Duration own = event.getDuration().minus(children.getOrDefault(step.getId(), Duration.ZERO));
+                self.merge(beanName(step), own, Duration::plus);
+            }
+        }
+        return self.entrySet().stream()
+                   .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                   .limit(topBeans)
+                   .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "(unnamed)";
+    }
+
+    private static String format(Map<String, Duration> durations) {
+        return durations.entrySet().stream()
+                        .map(entry -> entry.getKey() + " " + entry.getValue().toMillis() + " ms")
+                        .collect(Collectors.joining(", "));
+    }
+}
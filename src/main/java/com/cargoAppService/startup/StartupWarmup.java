@@ -0,0 +1,127 @@
+package com.cargoAppService.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Opt-in warm-up ({@code cargo.startup.warm-up.enabled}) that sends the {@code /load} and
+ * {@code /booking} read paths and create validation through the running server before the instance
+ * reports ready, so lazily created beans, Hibernate query plans, Jackson serializers and the JIT are
+ * paid for by the warm-up and not by the first real requests.
+ * <p>
+ * It runs as an {@link ApplicationReadyEvent} listener, which Spring Boot completes before it switches
+ * the readiness state to accepting traffic. Only reads and requests that fail validation are sent, so
+ * nothing is written. It stops after {@code cargo.startup.warm-up.iterations} rounds or
+ * {@code cargo.startup.warm-up.max-duration}, whichever comes first.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final String contextPath;
+
+    private volatile int requests;
+
+    public StartupWarmup(@Value("${cargo.startup.warm-up.enabled:false}") boolean enabled,
+                         @Value("${cargo.startup.warm-up.iterations:20}") int iterations,
+                         @Value("${cargo.startup.warm-up.max-duration:PT5S}") Duration maxDuration,
+                         @Value("${server.servlet.context-path:}") String contextPath) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.contextPath = contextPath;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext)) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        if (port <= 0) {
+            return;
+        }
+        String base = "http://localhost:" + port + contextPath;
+        HttpClient client = HttpClient.newBuilder()
+                                      .version(HttpClient.Version.HTTP_1_1)
+                                      .connectTimeout(Duration.ofSeconds(5))
+                                      .build();
+        List<HttpRequest> round = round(base);
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        int sent = 0;
+        int failed = 0;
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                for (HttpRequest request : round) {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500) {
+                        failed++;
+                    }
+                    sent++;
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Warm-up stopped after {} requests", sent, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        requests = sent;
+        if (failed > 0) {
+            log.warn("{} of {} warm-up requests failed with a server error", failed, sent);
+        }
+        log.info("Warmed up with {} requests in {} ms", sent, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    private static List<HttpRequest> round(String base) {
+        String unknownId = UUID.randomUUID().toString();
+        return Arrays.asList(
+                get(base + "/load?size=10"),
+                get(base + "/load?status=POSTED&truckType=Flatbed&size=10"),
+                get(base + "/load/match?truckType=Flatbed&origin=Mumbai"),
+                get(base + "/load/search?q=warm"),
+                get(base + "/load/" + unknownId),
+                post(base + "/load"),
+                get(base + "/booking?size=10"),
+                get(base + "/booking/" + unknownId),
+                post(base + "/booking"));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(10)).GET().build();
+    }
+
+    // An empty object fails bean validation, which still runs Jackson, validation and the error handler.
+    private static HttpRequest post(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                          .timeout(Duration.ofSeconds(10))
+                          .header("Content-Type", "application/json")
+                          .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                          .build();
+    }
+}
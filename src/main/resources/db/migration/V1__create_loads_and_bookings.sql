@@ -0,0 +1,30 @@
+-- Mirrors the schema previously generated by ddl-auto=update, so existing databases
+-- baseline onto it without changes.
+create table if not exists loads (
+    id              uuid         not null,
+    shipper_id      varchar(255),
+    loading_point   varchar(255),
+    unloading_point varchar(255),
+    loading_date    timestamp,
+    unloading_date  timestamp,
+    product_type    varchar(255),
+    truck_type      varchar(255),
+    no_of_trucks    integer      not null,
+    weight          float8       not null,
+    comment         varchar(255),
+    date_posted     timestamp,
+    status          varchar(255),
+    primary key (id)
+);
+
+create table if not exists bookings (
+    id             uuid         not null,
+    transporter_id varchar(255),
+    proposed_rate  float8       not null,
+    comment        varchar(255),
+    status         varchar(255),
+    requested_at   timestamp,
+    load_id        uuid         not null,
+    primary key (id),
+    constraint fk_bookings_load foreign key (load_id) references loads (id)
+);
@@ -0,0 +1,17 @@
+-- Composite indexes follow the equality filters of LoadSpecifications / BookingSpecifications
+-- and end with the keyset sort columns, so filtered pages are read in index order.
+--
+-- On PostgreSQL the indexes are built concurrently, outside a transaction (see the .conf file), so
+-- writes to loads and bookings go on while they build. A concurrent build that fails leaves an invalid
+-- index behind, which "if not exists" would then skip: drop it before re-running the migration.
+
+create index ${concurrently} if not exists idx_loads_shipper_status_posted on loads (shipper_id, status, date_posted desc, id desc);
+create index ${concurrently} if not exists idx_loads_truck_type_status_posted on loads (truck_type, status, date_posted desc, id desc);
+create index ${concurrently} if not exists idx_loads_status_posted on loads (status, date_posted desc, id desc);
+create index ${concurrently} if not exists idx_loads_posted on loads (date_posted desc, id desc);
+
+-- Leading load_id also serves the Load.bookings collection fetch and the foreign key.
+create index ${concurrently} if not exists idx_bookings_load_status_requested on bookings (load_id, status, requested_at desc, id desc);
+create index ${concurrently} if not exists idx_bookings_transporter_status_requested on bookings (transporter_id, status, requested_at desc, id desc);
+create index ${concurrently} if not exists idx_bookings_status_requested on bookings (status, requested_at desc, id desc);
+create index ${concurrently} if not exists idx_bookings_requested on bookings (requested_at desc, id desc);
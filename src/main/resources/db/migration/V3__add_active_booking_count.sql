@@ -0,0 +1,7 @@
+alter table loads add column active_booking_count integer not null default 0;
+
+update loads
+set active_booking_count = (select count(*)
+                            from bookings b
+                            where b.load_id = loads.id
+                              and b.status in ('PENDING', 'ACCEPTED'));
@@ -0,0 +1,2 @@
+alter table loads add column version bigint not null default 0;
+alter table bookings add column version bigint not null default 0;
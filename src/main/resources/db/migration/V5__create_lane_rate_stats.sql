@@ -0,0 +1,18 @@
+-- Checkpoints of the in-memory lane rate statistics; see LaneRateStats.
+create table lane_rate_stats (
+    truck_type      varchar(255) not null,
+    loading_point   varchar(255) not null,
+    unloading_point varchar(255) not null,
+    bids            bigint       not null,
+    accepted        bigint       not null,
+    rejected        bigint       not null,
+    rate_digest     bytea        not null,
+    primary key (truck_type, loading_point, unloading_point)
+);
+
+-- Single row: bookings requested after covered_until are replayed from the bookings table on startup.
+create table lane_rate_checkpoint (
+    id            integer   not null,
+    covered_until timestamp not null,
+    primary key (id)
+);
@@ -0,0 +1,10 @@
+-- Last-Modified for conditional GETs; existing rows start from their creation time.
+alter table loads add column updated_at timestamp;
+update loads set updated_at = coalesce(date_posted, current_timestamp);
+alter table loads alter column updated_at set default current_timestamp;
+alter table loads alter column updated_at set not null;
+
+alter table bookings add column updated_at timestamp;
+update bookings set updated_at = coalesce(requested_at, current_timestamp);
+alter table bookings alter column updated_at set default current_timestamp;
+alter table bookings alter column updated_at set not null;
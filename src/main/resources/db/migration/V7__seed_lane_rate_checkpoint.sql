@@ -0,0 +1,5 @@
+-- LaneRateStats locks this row while it folds bookings into lane_rate_stats, so it must exist before the
+-- first checkpoint; 1970 means nothing has been folded yet.
+insert into lane_rate_checkpoint (id, covered_until)
+select 1, timestamp '1970-01-01 00:00:00'
+where not exists (select 1 from lane_rate_checkpoint where id = 1);
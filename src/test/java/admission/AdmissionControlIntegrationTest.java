@@ -0,0 +1,74 @@
+package admission;
+
+import com.cargoAppService.admission.AdmissionControlInterceptor;
+import com.cargoAppService.launcher.CargoProApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class, properties = {
+        "cargo.ratelimit.enabled=true",
+        "cargo.ratelimit.read.requests-per-second=0.1",
+        "cargo.ratelimit.read.burst=3",
+        "cargo.admission.enabled=true",
+        "cargo.admission.initial-limit=1",
+        "cargo.admission.min-limit=1",
+        "cargo.admission.max-limit=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Test
+    void rejectsAClientOverItsRateWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/load").header("X-Client-Id", "SHIP-FLOOD")).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/load").header("X-Client-Id", "SHIP-FLOOD"))
+               .andExpect(status().isTooManyRequests())
+               .andExpect(header().string("Retry-After", "10"))
+               .andExpect(jsonPath("$.error").exists());
+
+        mockMvc.perform(get("/load").header("X-Client-Id", "SHIP-QUIET")).andExpect(status().isOk());
+        mockMvc.perform(get("/load/search").param("q", "pune").header("X-Client-Id", "SHIP-FLOOD"))
+               .andExpect(status().isOk());
+        // The id is not proof of identity: the same id from elsewhere has buckets of its own.
+        mockMvc.perform(get("/load").header("X-Client-Id", "SHIP-FLOOD").with(request -> {
+                   request.setRemoteAddr("10.0.0.9");
+                   return request;
+               }))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void shedsRequestsOverTheConcurrencyLimit() throws Exception {
+        // Holds the endpoint's only slot, as a slow request would.
+        MockHttpServletRequest inFlight = new MockHttpServletRequest("GET", "/booking");
+        inFlight.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/booking");
+        admissionControlInterceptor.preHandle(inFlight, new MockHttpServletResponse(), null);
+
+        mockMvc.perform(get("/booking").header("X-Client-Id", "TRANS-SHED"))
+               .andExpect(status().isServiceUnavailable())
+               .andExpect(header().string("Retry-After", "1"));
+
+        admissionControlInterceptor.afterCompletion(inFlight, new MockHttpServletResponse(), null, null);
+        mockMvc.perform(get("/booking").header("X-Client-Id", "TRANS-SHED")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,56 @@
+package admission;
+
+import com.cargoAppService.admission.ConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shedsRequestsOverTheLimit() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 10, 2);
+        assertEquals(0, limit.tryAcquire());
+        assertEquals(1, limit.tryAcquire());
+        assertEquals(-1, limit.tryAcquire());
+        limit.release();
+        assertEquals(1, limit.tryAcquire());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndRecoversWhenItFalls() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(20, 4, 100, 2);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, 19);
+        }
+        int healthy = limit.getLimit();
+        assertTrue(healthy > 20, "Expected the limit to grow while latency is steady, was " + healthy);
+
+        // Requests queue behind each other: latency goes up tenfold.
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100 * MILLIS, limit.getLimit());
+        }
+        int overloaded = limit.getLimit();
+        assertTrue(overloaded < healthy / 2, "Expected the limit to shrink under queueing, was " + overloaded);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() > overloaded);
+    }
+
+    @Test
+    void ignoresSamplesFromAnUnderusedEndpoint() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(20, 4, 100, 2);
+        limit.onSample(10 * MILLIS, 0);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100 * MILLIS, 0);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+}
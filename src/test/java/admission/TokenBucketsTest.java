@@ -0,0 +1,66 @@
+package admission;
+
+import com.cargoAppService.admission.TokenBuckets;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsTheBurstThenRefillsAtTheRate() {
+        TokenBuckets buckets = new TokenBuckets(2, 3, 100);
+        long now = 5 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("SHIP-1 GET /load", now));
+        }
+        long wait = buckets.tryAcquire("SHIP-1 GET /load", now);
+        assertEquals(SECOND / 2, wait);
+        // Other clients and other endpoints have buckets of their own.
+        assertEquals(0, buckets.tryAcquire("SHIP-2 GET /load", now));
+        assertEquals(0, buckets.tryAcquire("SHIP-1 POST /load", now));
+
+        assertEquals(0, buckets.tryAcquire("SHIP-1 GET /load", now + wait));
+        assertTrue(buckets.tryAcquire("SHIP-1 GET /load", now + wait) > 0);
+    }
+
+    @Test
+    void evictsIdleBucketsAndBoundsTheirNumber() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 2);
+        long now = 5 * SECOND;
+        assertEquals(0, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("b", now));
+        // Full map, nothing idle yet: newcomers share the overflow bucket.
+        assertEquals(0, buckets.tryAcquire("c", now));
+        assertTrue(buckets.tryAcquire("d", now) > 0);
+        assertEquals(3, buckets.size());
+
+        assertEquals(3, buckets.evictIdle(now + SECOND));
+        assertEquals(0, buckets.size());
+        assertEquals(0, buckets.tryAcquire("d", now + SECOND));
+    }
+
+    @Test
+    void boundsTheBucketsOfOneGroup() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100, 2);
+        long now = 5 * SECOND;
+        assertEquals(0, buckets.tryAcquire("10.0.0.1", "a@10.0.0.1", now));
+        assertEquals(0, buckets.tryAcquire("10.0.0.1", "b@10.0.0.1", now));
+        // Made-up ids past the cap share the address's overflow bucket.
+        assertEquals(0, buckets.tryAcquire("10.0.0.1", "c@10.0.0.1", now));
+        assertTrue(buckets.tryAcquire("10.0.0.1", "d@10.0.0.1", now) > 0);
+        // Other addresses are not affected.
+        assertEquals(0, buckets.tryAcquire("10.0.0.2", "c@10.0.0.2", now));
+        assertEquals(4, buckets.size());
+
+        assertEquals(4, buckets.evictIdle(now + SECOND));
+        assertEquals(0, buckets.tryAcquire("10.0.0.1", "d@10.0.0.1", now + SECOND));
+        assertEquals(0, buckets.tryAcquire("10.0.0.1", "e@10.0.0.1", now + SECOND));
+        assertEquals(2, buckets.size());
+    }
+}
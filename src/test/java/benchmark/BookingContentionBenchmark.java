@@ -0,0 +1,194 @@
+package benchmark;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many transporters bidding on, accepting and rejecting bookings of a few hot loads while the shipper
+ * keeps editing them. Reports throughput and optimistic conflict/retry rates with and without striped
+ * per-load locking, and checks that no active booking was lost from the load counters.
+ * Run with {@code ./gradlew benchmark -Dbenchmark.threads=16 -Dbenchmark.operations=4000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = CargoProApplication.class)
+@ActiveProfiles("test")
+class BookingContentionBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 2000);
+    private static final int HOT_LOADS = Integer.getInteger("benchmark.hotLoads", 2);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 500);
+
+    @Nested
+    @TestPropertySource(properties = "cargo.locking.striped.enabled=false")
+    class OptimisticOnly extends Scenario {
+
+        OptimisticOnly() {
+            super("optimistic only");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "cargo.locking.striped.enabled=true")
+    class StripedLocks extends Scenario {
+
+        StripedLocks() {
+            super("striped locks");
+        }
+    }
+
+    // Each nested class runs in its own context, so the services are injected per scenario.
+    abstract class Scenario {
+
+        private final String label;
+
+        @Autowired
+        private LoadService loadService;
+
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private LoadRepository loadRepository;
+
+        @Autowired
+        private BookingRepository bookingRepository;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+
+        @Test
+        void contendedBookings() throws Exception {
+            List<UUID> loadIds = new ArrayList<>();
+            for (int i = 0; i < HOT_LOADS; i++) {
+                loadIds.add(loadService.createLoad(createLoadDto()).getId());
+            }
+            List<UUID> bookingIds = new CopyOnWriteArrayList<>();
+            // Warm up single-threaded so the measured run is not dominated by class loading and JIT.
+            for (int i = 0; i < WARMUP; i++) {
+                operation(loadIds, bookingIds);
+            }
+            AtomicInteger failures = new AtomicInteger();
+            double conflictsBefore = counter("cargo.optimistic.conflicts");
+            double exhaustedBefore = counter("cargo.optimistic.exhausted");
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+            for (int t = 0; t < THREADS; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        while (remaining.getAndDecrement() > 0) {
+                            try {
+                                operation(loadIds, bookingIds);
+                            } catch (OptimisticLockingFailureException e) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+            long nanos = System.nanoTime() - startNanos;
+
+            double conflicts = counter("cargo.optimistic.conflicts") - conflictsBefore;
+            double exhausted = counter("cargo.optimistic.exhausted") - exhaustedBefore;
+            System.out.printf("%nBooking contention (%s), %d threads, %d operations on %d loads%n",
+                    label, THREADS, OPERATIONS, HOT_LOADS);
+            System.out.printf("  throughput      : %8.0f ops/s (%d ms)%n", OPERATIONS / (nanos / 1_000_000_000.0), nanos / 1_000_000);
+            System.out.printf("  conflicts       : %8.0f (%.2f%% of operations retried)%n", conflicts, 100.0 * conflicts / OPERATIONS);
+            System.out.printf("  retry exhausted : %8.0f (%d surfaced as 409)%n%n", exhausted, failures.get());
+
+            // No lost updates: every load's counter equals its number of pending and accepted bookings.
+            for (UUID loadId : loadIds) {
+                Load load = loadRepository.findById(loadId).orElseThrow(IllegalStateException::new);
+                long active = bookingRepository.findAll().stream()
+                                               .filter(booking -> booking.getLoad().getId().equals(loadId))
+                                               .filter(booking -> booking.getStatus().isActive())
+                                               .count();
+                assertEquals(active, load.getActiveBookingCount());
+                assertEquals(active > 0 ? Load.Status.BOOKED : Load.Status.POSTED, load.getStatus());
+            }
+        }
+
+        private void operation(List<UUID> loadIds, List<UUID> bookingIds) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            UUID loadId = loadIds.get(random.nextInt(loadIds.size()));
+            int roll = random.nextInt(100);
+            if (roll < 60 || bookingIds.isEmpty()) {
+                BookingDTO.Create createDto = new BookingDTO.Create();
+                createDto.setLoadId(loadId);
+                createDto.setTransporterId("TRANS" + random.nextInt(100));
+                createDto.setProposedRate(1000 + random.nextInt(500));
+                bookingIds.add(bookingService.createBooking(createDto).getId());
+            } else if (roll < 90) {
+                BookingDTO.Update updateDto = new BookingDTO.Update();
+                updateDto.setStatus(random.nextBoolean() ? Booking.Status.ACCEPTED.name() : Booking.Status.REJECTED.name());
+                bookingService.updateBooking(bookingIds.get(random.nextInt(bookingIds.size())), updateDto);
+            } else {
+                LoadDTO.Update updateDto = new LoadDTO.Update();
+                updateDto.setComment("revised " + random.nextInt());
+                loadService.updateLoad(loadId, updateDto);
+            }
+        }
+
+        private double counter(String name) {
+            return meterRegistry.counter(name).count();
+        }
+
+        private LoadDTO.Create createLoadDto() {
+            LoadDTO.Create createDto = new LoadDTO.Create();
+            createDto.setShipperId("SHIP-HOT");
+            createDto.setLoadingPoint("Mumbai");
+            createDto.setUnloadingPoint("Chennai");
+            createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000L));
+            createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000L));
+            createDto.setProductType("Electronics");
+            createDto.setTruckType("Flatbed");
+            createDto.setNoOfTrucks(1);
+            createDto.setWeight(1000);
+            return createDto;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package benchmark;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.service.BookingGroupCommitter;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bursts of concurrent {@code POST /booking} creates, once through {@link BookingService} (one transaction
+ * per booking) and once through {@link BookingGroupCommitter}. Reports throughput and p50/p99/max latency
+ * of each. The embedded H2 database does not sync on commit, so it only shows the per-transaction
+ * overhead that group commit saves; point {@code benchmark.url} (with {@code benchmark.user} and
+ * {@code benchmark.password}) at PostgreSQL to include commit fsyncs.
+ * Run with {@code ./gradlew benchmark --tests benchmark.BookingGroupCommitBenchmark -Dbenchmark.threads=64}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = CargoProApplication.class, properties = "cargo.booking.group-commit.enabled=true")
+@ActiveProfiles("test")
+class BookingGroupCommitBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 10_000);
+    private static final int LOADS = Integer.getInteger("benchmark.loads", 50);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 1000);
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingGroupCommitter bookingGroupCommitter;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("benchmark.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.user", ""));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.password", ""));
+            registry.add("spring.datasource.driver-class-name", () -> "");
+        }
+    }
+
+    @Test
+    void perTransactionVersusGroupCommit() throws Exception {
+        List<UUID> loadIds = new ArrayList<>();
+        for (int i = 0; i < LOADS; i++) {
+            loadIds.add(loadService.createLoad(createLoadDto()).getId());
+        }
+        // Warm up both paths so the comparison is not dominated by class loading and JIT.
+        run(loadIds, bookingService::createBooking, WARMUP);
+        run(loadIds, bookingGroupCommitter::createBooking, WARMUP);
+
+        Result direct = run(loadIds, bookingService::createBooking, OPERATIONS);
+        Result grouped = run(loadIds, bookingGroupCommitter::createBooking, OPERATIONS);
+
+        System.out.printf("%nBooking creation, %d threads, %d bookings on %d loads%n", THREADS, OPERATIONS, LOADS);
+        direct.print("transaction per booking");
+        grouped.print("group commit");
+        System.out.printf("  speed-up                : %8.1fx%n%n", (double) direct.nanos / grouped.nanos);
+    }
+
+    private Result run(List<UUID> loadIds, Function<BookingDTO.Create, Booking> create, int operations) throws InterruptedException {
+        long[] latencies = new long[operations];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < operations) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        BookingDTO.Create createDto = new BookingDTO.Create();
+                        createDto.setLoadId(loadIds.get(random.nextInt(loadIds.size())));
+                        createDto.setTransporterId("TRANS" + random.nextInt(1000));
+                        createDto.setProposedRate(1000 + random.nextInt(500));
+                        long begin = System.nanoTime();
+                        create.apply(createDto);
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return new Result(operations, System.nanoTime() - startNanos, latencies);
+    }
+
+    private LoadDTO.Create createLoadDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-BURST");
+        createDto.setLoadingPoint("Indore");
+        createDto.setUnloadingPoint("Kolkata");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000L));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000L));
+        createDto.setProductType("Textiles");
+        createDto.setTruckType("Container");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(1000);
+        return createDto;
+    }
+
+    private static final class Result {
+
+        private final int operations;
+        private final long nanos;
+        private final long[] latencies;
+
+        private Result(int operations, long nanos, long[] latencies) {
+            this.operations = operations;
+            this.nanos = nanos;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+        }
+
+        private void print(String label) {
+            System.out.printf("  %-24s: %8.0f bookings/s, latency p50 %6.2f ms, p99 %6.2f ms, max %6.2f ms%n", label,
+                    operations / (nanos / 1_000_000_000.0), millis(0.50), millis(0.99), latencies[latencies.length - 1] / 1e6);
+        }
+
+        private double millis(double quantile) {
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1)] / 1e6;
+        }
+    }
+}
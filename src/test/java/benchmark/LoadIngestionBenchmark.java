@@ -0,0 +1,90 @@
+package benchmark;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.launcher.CargoProApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares single-item {@code POST /load} with {@code POST /load/batch}.
+ * Run with {@code ./gradlew benchmark -Dbenchmark.loads=5000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = CargoProApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadIngestionBenchmark {
+
+    private static final int LOADS = Integer.getInteger("benchmark.loads", 2000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batchSize", 500);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void singleVersusBatchIngestion() {
+        // Warm up both paths so the comparison is not dominated by class loading and JIT.
+        postSingle(200);
+        postBatches(200);
+
+        long singleNanos = postSingle(LOADS);
+        long batchNanos = postBatches(LOADS);
+
+        System.out.printf("%nLoad ingestion, %d loads%n", LOADS);
+        System.out.printf("  single POST /load      : %8.0f loads/s (%d ms)%n", perSecond(singleNanos), singleNanos / 1_000_000);
+        System.out.printf("  POST /load/batch (%4d): %8.0f loads/s (%d ms)%n", BATCH_SIZE, perSecond(batchNanos), batchNanos / 1_000_000);
+        System.out.printf("  speed-up               : %8.1fx%n%n", (double) singleNanos / batchNanos);
+    }
+
+    private long postSingle(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            ResponseEntity<String> response = restTemplate.postForEntity("/load", createDto(i), String.class);
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long postBatches(int count) {
+        long start = System.nanoTime();
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            List<LoadDTO.Create> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + BATCH_SIZE, count); i++) {
+                batch.add(createDto(i));
+            }
+            ResponseEntity<LoadDTO.BatchResponse> response =
+                    restTemplate.postForEntity("/load/batch", batch, LoadDTO.BatchResponse.class);
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private double perSecond(long nanos) {
+        return LOADS / (nanos / 1_000_000_000.0);
+    }
+
+    private LoadDTO.Create createDto(int i) {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP" + (i % 20));
+        createDto.setLoadingPoint("City " + (i % 50));
+        createDto.setUnloadingPoint("City " + (i % 37));
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000L));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000L));
+        createDto.setProductType("Electronics");
+        createDto.setTruckType("Flatbed");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(1000 + i);
+        return createDto;
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import com.cargoAppService.launcher.CargoProApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Time from JVM start to readiness, default against {@code warm-start}, each measured in a fresh JVM so
+ * class loading and the JIT start cold as they do on a new instance, and the latency of the first
+ * {@code GET /load} and {@code POST /booking} served once ready. The startup numbers are the ones
+ * {@code StartupReport} logs; the warm-start figure includes its warm-up. Runs against the embedded H2
+ * test database. Run with {@code ./gradlew benchmark --tests benchmark.StartupBenchmark -Dbenchmark.runs=5}.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+    private static final Pattern READY = Pattern.compile("Application ready in (\\d+) ms after JVM start \\((.*)\\)");
+    private static final Pattern PORT = Pattern.compile("Tomcat started on port\\(s\\): (\\d+)");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void defaultVersusWarmStart() throws Exception {
+        List<Run> defaults = new ArrayList<>();
+        List<Run> warmStarts = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            defaults.add(boot("test", run));
+            warmStarts.add(boot("test,warm-start", run));
+        }
+        System.out.printf("%nStartup, %d fresh JVMs per mode (medians)%n", RUNS);
+        print("default   ", defaults);
+        print("warm-start", warmStarts);
+        System.out.println();
+    }
+
+    private static void print(String mode, List<Run> runs) {
+        System.out.printf("  %s: ready %6d ms, first GET /load %5d ms, first POST /booking %5d ms (last run: %s)%n", mode,
+                median(runs.stream().map(run -> run.readyMillis).collect(Collectors.toList())),
+                median(runs.stream().map(run -> run.firstGetMillis).collect(Collectors.toList())),
+                median(runs.stream().map(run -> run.firstPostMillis).collect(Collectors.toList())),
+                runs.get(runs.size() - 1).phases);
+    }
+
+    private Run boot(String profiles, int run) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                CargoProApplication.class.getName(),
+                "--spring.profiles.active=" + profiles,
+                "--server.port=0",
+                "--cargo.journal.directory=" + directory.resolve(profiles + "-" + run))
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int port = 0;
+            while ((line = output.readLine()) != null) {
+                Matcher started = PORT.matcher(line);
+                if (started.find()) {
+                    port = Integer.parseInt(started.group(1));
+                }
+                Matcher ready = READY.matcher(line);
+                if (ready.find()) {
+                    HttpClient client = HttpClient.newHttpClient();
+                    long firstGet = time(client, HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load?size=10")).GET());
+                    long firstPost = time(client, HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/booking"))
+                                                             .header("Content-Type", "application/json")
+                                                             .POST(HttpRequest.BodyPublishers.ofString("{}")));
+                    return new Run(Long.parseLong(ready.group(1)), ready.group(2), firstGet, firstPost);
+                }
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        return fail("The application exited before becoming ready with profiles " + profiles);
+    }
+
+    private static long time(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static final class Run {
+
+        private final long readyMillis;
+        private final String phases;
+        private final long firstGetMillis;
+        private final long firstPostMillis;
+
+        Run(long readyMillis, String phases, long firstGetMillis, long firstPostMillis) {
+            this.readyMillis = readyMillis;
+            this.phases = phases;
+            this.firstGetMillis = firstGetMillis;
+            this.firstPostMillis = firstPostMillis;
+        }
+    }
+}
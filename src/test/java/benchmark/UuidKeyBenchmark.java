@@ -0,0 +1,116 @@
+package benchmark;
+
+import com.cargoAppService.entities.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares random (v4) UUID keys with {@link TimeOrderedUuidGenerator} keys on insert throughput and on
+ * the size of the primary key and of a {@code load_id}-style secondary index, the way bookings reference
+ * recently posted loads. Runs against a file-backed H2 database by default; point {@code benchmark.url}
+ * (with {@code benchmark.user} and {@code benchmark.password}) at PostgreSQL for representative sizes.
+ * Run with {@code ./gradlew benchmark --tests benchmark.UuidKeyBenchmark -Dbenchmark.rows=500000}.
+ */
+@Tag("benchmark")
+class UuidKeyBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int BATCH_SIZE = 1_000;
+    // Every load gets this many rows that reference it, inserted while the load is recent.
+    private static final int ROWS_PER_LOAD = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void randomVersusTimeOrderedKeys() throws SQLException {
+        String url = System.getProperty("benchmark.url", "jdbc:h2:file:" + directory.resolve("uuid-keys") + ";MODE=PostgreSQL");
+        try (Connection connection = DriverManager.getConnection(url, System.getProperty("benchmark.user", "sa"),
+                System.getProperty("benchmark.password", ""))) {
+            // Warm up both paths so the comparison is not dominated by class loading and JIT.
+            insert(connection, "uuid_bench_warmup", UUID::randomUUID, ROWS / 10);
+            insert(connection, "uuid_bench_warmup", TimeOrderedUuidGenerator::next, ROWS / 10);
+
+            long randomNanos = insert(connection, "uuid_bench_random", UUID::randomUUID, ROWS);
+            long orderedNanos = insert(connection, "uuid_bench_ordered", TimeOrderedUuidGenerator::next, ROWS);
+
+            System.out.printf("%nUUID primary keys, %d rows, %s%n", ROWS, connection.getMetaData().getDatabaseProductName());
+            System.out.printf("  random (v4)      : %8.0f rows/s, %s%n", perSecond(randomNanos), size(connection, "uuid_bench_random"));
+            System.out.printf("  time-ordered (v7): %8.0f rows/s, %s%n", perSecond(orderedNanos), size(connection, "uuid_bench_ordered"));
+            System.out.printf("  speed-up         : %8.1fx%n%n", (double) randomNanos / orderedNanos);
+
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[]{"uuid_bench_warmup", "uuid_bench_random", "uuid_bench_ordered"}) {
+                    statement.execute("drop table " + table);
+                }
+            }
+        }
+    }
+
+    private long insert(Connection connection, String table, Supplier<UUID> ids, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists " + table
+                    + " (id uuid primary key, load_id uuid not null, transporter_id varchar(255))");
+            statement.execute("create index if not exists " + table + "_load_id on " + table + " (load_id)");
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, load_id, transporter_id) values (?, ?, ?)")) {
+            UUID loadId = ids.get();
+            for (int i = 0; i < rows; i++) {
+                if (i % ROWS_PER_LOAD == 0) {
+                    loadId = ids.get();
+                }
+                insert.setObject(1, ids.get());
+                insert.setObject(2, loadId);
+                insert.setString(3, "TRANS" + (i % 500));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private String size(Connection connection, String table) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        if (product.startsWith("PostgreSQL")) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet sizes = statement.executeQuery("select pg_relation_size('" + table + "_pkey'), pg_relation_size('"
+                         + table + "_load_id'), pg_table_size('" + table + "')")) {
+                sizes.next();
+                return String.format("pkey %,d KB, load_id index %,d KB, table %,d KB",
+                        sizes.getLong(1) / 1024, sizes.getLong(2) / 1024, sizes.getLong(3) / 1024);
+            }
+        }
+        // H2 only reports the table together with its indexes.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("checkpoint sync");
+            try (ResultSet sizes = statement.executeQuery("call disk_space_used('" + table.toUpperCase() + "')")) {
+                sizes.next();
+                return String.format("table and indexes %,d KB", sizes.getLong(1) / 1024);
+            }
+        }
+    }
+
+    private double perSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+}
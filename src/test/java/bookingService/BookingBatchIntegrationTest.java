@@ -0,0 +1,128 @@
+package bookingService;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingBatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void acceptingOneBookingRejectsTheOtherPendingOnes() throws Exception {
+        Load load = loadService.createLoad(createDto());
+        Booking winner = createBooking(load, "TRANS-BATCH-1");
+        Booking loser = createBooking(load, "TRANS-BATCH-2");
+        Booking other = createBooking(load, "TRANS-BATCH-3");
+        // Cached before the batch, so a stale copy would show up below.
+        bookingService.getBookingById(loser.getId());
+
+        String body = "[{\"bookingId\":\"" + winner.getId() + "\",\"status\":\"ACCEPTED\"},"
+                + "{\"bookingId\":\"" + loser.getId() + "\",\"status\":\"REJECTED\"}]";
+        mockMvc.perform(put("/booking/batch").param("rejectOtherPending", "true")
+                                             .contentType(MediaType.APPLICATION_JSON).content(body))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.updated").value(2))
+               .andExpect(jsonPath("$.results[0].status").value("UPDATED"))
+               .andExpect(jsonPath("$.results[0].previousStatus").value("PENDING"))
+               .andExpect(jsonPath("$.autoRejected[0]").value(other.getId().toString()));
+
+        assertEquals("ACCEPTED", bookingService.getBookingById(winner.getId()).getStatus());
+        assertEquals("REJECTED", bookingService.getBookingById(loser.getId()).getStatus());
+        assertEquals("REJECTED", bookingService.getBookingById(other.getId()).getStatus());
+        LoadDTO.Response reloaded = loadService.getLoadById(load.getId());
+        assertEquals(1, reloaded.getActiveBookingCount());
+        assertEquals("BOOKED", reloaded.getStatus());
+
+        // Rejecting the accepted booking as well returns the load to POSTED.
+        mockMvc.perform(put("/booking/batch").contentType(MediaType.APPLICATION_JSON)
+                                             .content("[{\"bookingId\":\"" + winner.getId() + "\",\"status\":\"REJECTED\"}]"))
+               .andExpect(status().isOk());
+        reloaded = loadService.getLoadById(load.getId());
+        assertEquals(0, reloaded.getActiveBookingCount());
+        assertEquals("POSTED", reloaded.getStatus());
+    }
+
+    @Test
+    void reportsUnknownBookingsAsMultiStatus() throws Exception {
+        Load load = loadService.createLoad(createDto());
+        Booking booking = createBooking(load, "TRANS-BATCH-1");
+
+        String body = "[{\"bookingId\":\"" + booking.getId() + "\",\"status\":\"PENDING\"},"
+                + "{\"bookingId\":\"" + UUID.randomUUID() + "\",\"status\":\"ACCEPTED\"}]";
+        mockMvc.perform(put("/booking/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+               .andExpect(status().isMultiStatus())
+               .andExpect(jsonPath("$.failed").value(2))
+               .andExpect(jsonPath("$.results[0].status").value("INVALID"))
+               .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(put("/booking/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+               .andExpect(status().isBadRequest());
+    }
+
+    private Booking createBooking(Load load, String transporterId) {
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(load.getId());
+        bookingDto.setTransporterId(transporterId);
+        bookingDto.setProposedRate(1500);
+        return bookingService.createBooking(bookingDto);
+    }
+
+    private LoadDTO.Create createDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-BATCH");
+        createDto.setLoadingPoint("Pune");
+        createDto.setUnloadingPoint("Chennai");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000));
+        createDto.setProductType("Machinery");
+        createDto.setTruckType("Flatbed-Batch");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(1200);
+        return createDto;
+    }
+}
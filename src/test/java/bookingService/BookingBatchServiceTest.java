@@ -0,0 +1,166 @@
+package bookingService;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBatchServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingBatchService bookingBatchService;
+
+    private Load load;
+
+    @BeforeEach
+    void setUp() {
+        bookingBatchService = new BookingBatchService(bookingRepository, loadRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), cacheManager, eventPublisher, 10);
+        load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(Load.Status.BOOKED);
+    }
+
+    @Test
+    void decide_GroupsUpdatesByTransitionAndReportsEveryItem() {
+        Booking accept = booking(Booking.Status.PENDING);
+        Booking reject = booking(Booking.Status.PENDING);
+        Booking unchanged = booking(Booking.Status.REJECTED);
+        UUID missing = UUID.randomUUID();
+        when(bookingRepository.findAllWithLoadByIds(anyCollection())).thenReturn(List.of(accept, reject, unchanged));
+        when(bookingRepository.updateStatus(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> invocation.<java.util.Collection<UUID>>getArgument(0).size());
+        when(loadRepository.findAllById(Set.of(load.getId()))).thenReturn(List.of(load));
+
+        BookingDTO.BatchResponse response = bookingBatchService.decide(Arrays.asList(
+                decision(accept.getId(), "ACCEPTED"),
+                decision(reject.getId(), "REJECTED"),
+                decision(unchanged.getId(), "REJECTED"),
+                decision(missing, "REJECTED"),
+                decision(accept.getId(), "REJECTED"),
+                decision(UUID.randomUUID(), "MAYBE")), false);
+
+        assertEquals(2, response.getUpdated());
+        assertEquals(3, response.getFailed());
+        assertEquals(BookingBatchService.UPDATED, response.getResults().get(0).getStatus());
+        assertEquals("PENDING", response.getResults().get(0).getPreviousStatus());
+        assertEquals(BookingBatchService.UPDATED, response.getResults().get(1).getStatus());
+        assertEquals(BookingBatchService.UNCHANGED, response.getResults().get(2).getStatus());
+        assertEquals(BookingBatchService.NOT_FOUND, response.getResults().get(3).getStatus());
+        assertEquals(BookingBatchService.INVALID, response.getResults().get(4).getStatus());
+        assertEquals(BookingBatchService.INVALID, response.getResults().get(5).getStatus());
+        assertTrue(response.getAutoRejected().isEmpty());
+
+        // One statement per transition, and one counter update for the load that lost an active booking.
+        verify(bookingRepository).updateStatus(List.of(accept.getId()), Booking.Status.PENDING, Booking.Status.ACCEPTED);
+        verify(bookingRepository).updateStatus(List.of(reject.getId()), Booking.Status.PENDING, Booking.Status.REJECTED);
+        verify(bookingRepository, times(2)).updateStatus(anyCollection(), any(), any());
+        verify(loadRepository).adjustActiveBookingCounts(List.of(load.getId()), -1);
+        verify(eventPublisher).publishEvent(BookingEvent.of(BookingEvent.Type.UPDATED, accept, Booking.Status.PENDING));
+        verify(eventPublisher).publishEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load));
+    }
+
+    @Test
+    void decide_RejectsOtherPendingBookingsWithTheExplicitRejections() {
+        Booking accept = booking(Booking.Status.PENDING);
+        Booking reject = booking(Booking.Status.PENDING);
+        Booking other = booking(Booking.Status.PENDING);
+        when(bookingRepository.findAllWithLoadByIds(anyCollection())).thenReturn(List.of(accept, reject));
+        when(bookingRepository.findOthersOnLoads(eq(Set.of(load.getId())), eq(Booking.Status.PENDING), anyCollection()))
+                .thenReturn(List.of(other));
+        when(bookingRepository.updateStatus(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> invocation.<java.util.Collection<UUID>>getArgument(0).size());
+
+        BookingDTO.BatchResponse response = bookingBatchService.decide(List.of(
+                decision(accept.getId(), "ACCEPTED"), decision(reject.getId(), "REJECTED")), true);
+
+        assertEquals(List.of(other.getId()), response.getAutoRejected());
+        verify(bookingRepository).updateStatus(List.of(reject.getId(), other.getId()),
+                Booking.Status.PENDING, Booking.Status.REJECTED);
+        verify(loadRepository).adjustActiveBookingCounts(List.of(load.getId()), -2);
+    }
+
+    @Test
+    void decide_RejectsASecondAcceptanceOnTheSameLoad() {
+        Booking first = booking(Booking.Status.PENDING);
+        Booking second = booking(Booking.Status.PENDING);
+        when(bookingRepository.findAllWithLoadByIds(anyCollection())).thenReturn(List.of(first, second));
+        when(bookingRepository.updateStatus(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> invocation.<java.util.Collection<UUID>>getArgument(0).size());
+
+        BookingDTO.BatchResponse response = bookingBatchService.decide(List.of(
+                decision(first.getId(), "accepted"), decision(second.getId(), "Accepted")), false);
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getFailed());
+        assertEquals(BookingBatchService.UPDATED, response.getResults().get(0).getStatus());
+        assertEquals(BookingBatchService.INVALID, response.getResults().get(1).getStatus());
+        assertTrue(response.getResults().get(1).getErrors().containsKey("status"));
+        verify(bookingRepository).updateStatus(List.of(first.getId()), Booking.Status.PENDING, Booking.Status.ACCEPTED);
+        verify(bookingRepository, times(1)).updateStatus(anyCollection(), any(), any());
+    }
+
+    @Test
+    void decide_FailsWhenABookingChangedConcurrently() {
+        Booking accept = booking(Booking.Status.PENDING);
+        when(bookingRepository.findAllWithLoadByIds(anyCollection())).thenReturn(List.of(accept));
+        when(bookingRepository.updateStatus(anyCollection(), any(), any())).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> bookingBatchService.decide(List.of(decision(accept.getId(), "ACCEPTED")), false));
+        verify(loadRepository, never()).adjustActiveBookingCounts(anyCollection(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private Booking booking(Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setLoad(load);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static BookingDTO.Decision decision(UUID bookingId, String status) {
+        BookingDTO.Decision decision = new BookingDTO.Decision();
+        decision.setBookingId(bookingId);
+        decision.setStatus(status);
+        return decision;
+    }
+}
@@ -0,0 +1,151 @@
+package bookingService;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.exceptions.BookingValidationException;
+import com.cargoAppService.exceptions.ResourceNotFoundException;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingGroupCommitter;
+import com.cargoAppService.service.LoadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class, properties = {
+        "cargo.booking.group-commit.enabled=true",
+        // Long enough that concurrent requests reliably share a batch.
+        "cargo.booking.group-commit.max-wait=PT0.05S"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingGroupCommitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingGroupCommitter bookingGroupCommitter;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentCreatesShareATransactionButFailOnTheirOwn() throws Exception {
+        Load first = loadService.createLoad(createDto());
+        Load second = loadService.createLoad(createDto());
+        Load cancelled = loadService.createLoad(createDto());
+        loadService.deleteLoad(cancelled.getId());
+
+        List<Callable<Booking>> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            UUID loadId = i % 3 == 0 ? second.getId() : first.getId();
+            String transporterId = "TRANS-GC-" + i;
+            requests.add(() -> bookingGroupCommitter.createBooking(bookingDto(loadId, transporterId)));
+        }
+        requests.add(() -> bookingGroupCommitter.createBooking(bookingDto(cancelled.getId(), "TRANS-GC-C")));
+        requests.add(() -> bookingGroupCommitter.createBooking(bookingDto(UUID.randomUUID(), "TRANS-GC-M")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        List<Future<Booking>> results;
+        try {
+            results = executor.invokeAll(requests);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(Booking.Status.PENDING, results.get(i).get().getStatus());
+        }
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> results.get(12).get());
+        assertInstanceOf(BookingValidationException.class, rejected.getCause());
+        ExecutionException missing = assertThrows(ExecutionException.class, () -> results.get(13).get());
+        assertInstanceOf(ResourceNotFoundException.class, missing.getCause());
+
+        LoadDTO.Response firstReloaded = loadService.getLoadById(first.getId());
+        assertEquals(8, firstReloaded.getActiveBookingCount());
+        assertEquals("BOOKED", firstReloaded.getStatus());
+        assertEquals(4, loadService.getLoadById(second.getId()).getActiveBookingCount());
+        assertEquals(12, bookingRepository.count());
+        assertTrue(meterRegistry.get("cargo.booking.group-commit.batch.size").summary().max() > 1);
+    }
+
+    @Test
+    void postBookingGoesThroughTheGroupCommit() throws Exception {
+        Load load = loadService.createLoad(createDto());
+
+        mockMvc.perform(post("/booking").contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"loadId\":\"" + load.getId() + "\",\"transporterId\":\"TRANS-GC\",\"proposedRate\":900}"))
+               .andExpect(status().isCreated())
+               .andExpect(jsonPath("$.status").value("PENDING"));
+        mockMvc.perform(post("/booking").contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"loadId\":\"" + UUID.randomUUID() + "\",\"transporterId\":\"TRANS-GC\",\"proposedRate\":900}"))
+               .andExpect(status().isNotFound());
+
+        assertEquals(1, loadService.getLoadById(load.getId()).getActiveBookingCount());
+    }
+
+    private BookingDTO.Create bookingDto(UUID loadId, String transporterId) {
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(loadId);
+        bookingDto.setTransporterId(transporterId);
+        bookingDto.setProposedRate(1500);
+        return bookingDto;
+    }
+
+    private LoadDTO.Create createDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-GC");
+        createDto.setLoadingPoint("Nashik");
+        createDto.setUnloadingPoint("Surat");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000));
+        createDto.setProductType("Grapes");
+        createDto.setTruckType("Reefer-GC");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(800);
+        return createDto;
+    }
+}
@@ -0,0 +1,106 @@
+package bookingService;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingGroupCommitter;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadLockStripes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingGroupCommitterTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingGroupCommitter committer;
+
+    private Load load;
+
+    @BeforeEach
+    void setUp() {
+        committer = new BookingGroupCommitter(bookingService, bookingRepository, loadRepository,
+                new LoadLockStripes(false, 1), cacheManager, eventPublisher, transactionManager,
+                true, 10, Duration.ZERO, 10, Duration.ofSeconds(5));
+        committer.start();
+        load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(Load.Status.POSTED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.stop();
+    }
+
+    @Test
+    void failedBatchIsRetriedOnTheCallersThread() {
+        Booking booking = new Booking();
+        AtomicReference<Thread> retriedOn = new AtomicReference<>();
+        when(loadRepository.findAllById(anyCollection())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(bookingService.createBooking(any())).thenAnswer(invocation -> {
+            retriedOn.set(Thread.currentThread());
+            return booking;
+        });
+
+        assertSame(booking, committer.createBooking(bookingDto()));
+        assertSame(Thread.currentThread(), retriedOn.get());
+    }
+
+    @Test
+    void writerSurvivesAnUnexpectedFailure() {
+        when(loadRepository.findAllById(anyCollection())).thenReturn(List.of(load));
+        when(loadRepository.incrementActiveBookingCounts(anyCollection(), anyInt())).thenReturn(1);
+        when(cacheManager.getCache(any())).thenThrow(new IllegalStateException("cache gone")).thenReturn(null);
+
+        assertThrows(IllegalStateException.class, () -> committer.createBooking(bookingDto()));
+        assertEquals(Booking.Status.PENDING, committer.createBooking(bookingDto()).getStatus());
+        verify(bookingService, never()).createBooking(any());
+    }
+
+    private BookingDTO.Create bookingDto() {
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(load.getId());
+        bookingDto.setTransporterId("TRANS-GC");
+        bookingDto.setProposedRate(1500);
+        return bookingDto;
+    }
+}
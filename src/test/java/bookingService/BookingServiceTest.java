@@ -5,6 +5,8 @@ package bookingService;
 import com.cargoAppService.dto.BookingDTO;
 import com.cargoAppService.entities.Booking;
 import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
 import com.cargoAppService.exceptions.BookingValidationException;
 import com.cargoAppService.exceptions.ResourceNotFoundException;
 import com.cargoAppService.repositories.BookingRepository;
@@ -13,18 +15,18 @@ import com.cargoAppService.service.BookingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +38,12 @@ class BookingServiceTest {
     @Mock
     private LoadRepository loadRepository;
 
-    @InjectMocks
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private BookingService bookingService;
 
     private Load testLoad;
@@ -45,6 +52,8 @@ class BookingServiceTest {
 
     @BeforeEach
     void setUp() {
+        bookingService = new BookingService(bookingRepository, loadRepository, cacheManager, eventPublisher, 100);
+
         // Prepare a reusable Load object for tests
         testLoad = new Load();
         testLoad.setId(UUID.randomUUID());
@@ -65,11 +74,11 @@ class BookingServiceTest {
     }
 
     @Test
-    void createBooking_Success_ShouldChangeLoadStatusToBooked() {
+    void createBooking_Success_ShouldIncrementActiveBookingCount() {
         // Arrange
         when(loadRepository.findById(testLoad.getId())).thenReturn(Optional.of(testLoad));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
+        when(loadRepository.incrementActiveBookingCount(testLoad.getId())).thenReturn(1);
 
         // Act
         Booking result = bookingService.createBooking(createDto);
@@ -78,14 +87,29 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(Booking.Status.PENDING, result.getStatus());
 
-        // Use ArgumentCaptor to capture the Load object passed to save()
-        ArgumentCaptor<Load> loadCaptor = ArgumentCaptor.forClass(Load.class);
-        verify(loadRepository, times(1)).save(loadCaptor.capture());
+        // The count update also moves the load to BOOKED; the load entity itself is not rewritten.
+        verify(loadRepository, times(1)).incrementActiveBookingCount(testLoad.getId());
+        verify(loadRepository, never()).save(any(Load.class));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        // The load event carries the load as re-read after the count update, not the copy read before it.
+        verify(eventPublisher).publishEvent(BookingEvent.of(BookingEvent.Type.CREATED, testBooking, null));
+        verify(loadRepository, times(2)).findById(testLoad.getId());
+        verify(eventPublisher).publishEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, testLoad));
+    }
 
-        Load savedLoad = loadCaptor.getValue();
-        assertEquals(Load.Status.BOOKED, savedLoad.getStatus(), "Load status should be updated to BOOKED.");
+    @Test
+    void createBooking_Fail_WhenLoadIsCancelledConcurrently() {
+        // Arrange: the load was POSTED when read, but a cancel committed before the counter update.
+        when(loadRepository.findById(testLoad.getId())).thenReturn(Optional.of(testLoad));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(loadRepository.incrementActiveBookingCount(testLoad.getId())).thenReturn(0);
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        // Act & Assert
+        BookingValidationException exception = assertThrows(BookingValidationException.class, () -> {
+            bookingService.createBooking(createDto);
+        });
+
+        assertEquals("Cannot create booking for a cancelled load.", exception.getMessage());
     }
 
     @Test
@@ -102,6 +126,7 @@ class BookingServiceTest {
         assertEquals("Cannot create booking for a cancelled load.", exception.getMessage());
         verify(bookingRepository, never()).save(any());
         verify(loadRepository, never()).save(any());
+        verify(loadRepository, never()).incrementActiveBookingCount(any(UUID.class));
     }
 
     @Test
@@ -131,55 +156,54 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(Booking.Status.ACCEPTED, result.getStatus());
         verify(bookingRepository, times(1)).save(testBooking);
+        // PENDING -> ACCEPTED keeps the booking active, so the load counter is untouched.
+        verify(loadRepository, never()).adjustActiveBookingCount(any(UUID.class), anyInt());
+    }
+
+    @Test
+    void updateBooking_Reject_ShouldDecrementActiveBookingCount() {
+        // Arrange
+        BookingDTO.Update updateDto = new BookingDTO.Update();
+        updateDto.setStatus("REJECTED");
+
+        when(bookingRepository.findById(testBooking.getId())).thenReturn(Optional.of(testBooking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Booking result = bookingService.updateBooking(testBooking.getId(), updateDto);
+
+        // Assert
+        assertEquals(Booking.Status.REJECTED, result.getStatus());
+        verify(loadRepository, times(1)).adjustActiveBookingCount(testLoad.getId(), -1);
     }
 
     @Test
-    void deleteBooking_Success_AndRevertLoadStatusWhenNoBookingsLeft() {
-        // Arrange: The booking to be deleted is the only one for the load.
+    void deleteBooking_Success_AndDecrementCountForActiveBooking() {
+        // Arrange: The booking to be deleted is still pending.
         when(bookingRepository.findById(testBooking.getId())).thenReturn(Optional.of(testBooking));
-        // After deletion, the findById on the load should return a load with an empty booking list.
-        when(loadRepository.findById(testLoad.getId())).thenReturn(Optional.of(testLoad));
 
         // Act
         bookingService.deleteBooking(testBooking.getId());
 
         // Assert
         verify(bookingRepository, times(1)).delete(testBooking);
-
-        // Capture the load that is saved to check its status
-        ArgumentCaptor<Load> loadCaptor = ArgumentCaptor.forClass(Load.class);
-        verify(loadRepository, times(1)).save(loadCaptor.capture());
-
-        Load savedLoad = loadCaptor.getValue();
-        assertEquals(Load.Status.POSTED, savedLoad.getStatus(), "Load status should revert to POSTED.");
+        // The counter decides the load status; the bookings collection is never loaded.
+        verify(loadRepository, times(1)).adjustActiveBookingCount(testLoad.getId(), -1);
+        verify(eventPublisher).publishEvent(BookingEvent.of(BookingEvent.Type.DELETED, testBooking, Booking.Status.PENDING));
     }
 
     @Test
-    void deleteBooking_Success_AndKeepLoadStatusWhenOtherBookingsExist() {
-        // Arrange: Setup a load with two bookings.
-        Booking anotherBooking = new Booking();
-        anotherBooking.setId(UUID.randomUUID());
-        anotherBooking.setStatus(Booking.Status.PENDING);
-
-        testLoad.setBookings(List.of(testBooking, anotherBooking));
-        testBooking.setLoad(testLoad);
-
+    void deleteBooking_Success_AndKeepCountWhenBookingWasRejected() {
+        // Arrange: A rejected booking no longer counts towards the load's active bookings.
+        testBooking.setStatus(Booking.Status.REJECTED);
         when(bookingRepository.findById(testBooking.getId())).thenReturn(Optional.of(testBooking));
 
-        // Simulate the state of the load after the booking is deleted.
-        // The load will still have 'anotherBooking' associated with it.
-        Load refreshedLoad = new Load();
-        refreshedLoad.setId(testLoad.getId());
-        refreshedLoad.setBookings(List.of(anotherBooking)); // Only one booking remains.
-
-        when(loadRepository.findById(testLoad.getId())).thenReturn(Optional.of(refreshedLoad));
-
         // Act
         bookingService.deleteBooking(testBooking.getId());
 
         // Assert
         verify(bookingRepository, times(1)).delete(testBooking);
-        // The save method should NOT be called on the load repository because an active booking still exists.
+        verify(loadRepository, never()).adjustActiveBookingCount(any(UUID.class), anyInt());
         verify(loadRepository, never()).save(any());
     }
 }
@@ -0,0 +1,140 @@
+package cache;
+
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.exceptions.ResourceNotFoundException;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@ActiveProfiles("test")
+class EntityCacheIntegrationTest {
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Load load;
+
+    @BeforeEach
+    void setUp() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP001");
+        createDto.setLoadingPoint("Pune");
+        createDto.setUnloadingPoint("Delhi");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis()));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setProductType("Steel");
+        createDto.setTruckType("Flatbed");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(1000);
+        load = loadService.createLoad(createDto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getLoadByIdIsServedFromCacheUntilUpdated() {
+        LoadDTO.Response first = loadService.getLoadById(load.getId());
+        LoadDTO.Response second = loadService.getLoadById(load.getId());
+
+        assertSame(first, second);
+        assertSame(first, loads().get(load.getId()).get());
+
+        LoadDTO.Update updateDto = new LoadDTO.Update();
+        updateDto.setComment("Updated");
+        loadService.updateLoad(load.getId(), updateDto);
+
+        assertNull(loads().get(load.getId()));
+        assertEquals("Updated", loadService.getLoadById(load.getId()).getComment());
+    }
+
+    @Test
+    void deleteLoadEvictsCachedEntry() {
+        loadService.getLoadById(load.getId());
+
+        loadService.deleteLoad(load.getId());
+
+        assertEquals("CANCELLED", loadService.getLoadById(load.getId()).getStatus());
+    }
+
+    @Test
+    void bookingChangesEvictTheBookingAndItsParentLoad() {
+        loadService.getLoadById(load.getId());
+        Booking booking = bookingService.createBooking(createBookingDto());
+        assertNull(loads().get(load.getId()), "creating a booking flips the load status");
+        assertEquals("BOOKED", loadService.getLoadById(load.getId()).getStatus());
+
+        bookingService.getBookingById(booking.getId());
+        BookingDTO.Update updateDto = new BookingDTO.Update();
+        updateDto.setStatus("ACCEPTED");
+        bookingService.updateBooking(booking.getId(), updateDto);
+        assertNull(bookings().get(booking.getId()));
+        assertEquals("ACCEPTED", bookingService.getBookingById(booking.getId()).getStatus());
+
+        bookingService.deleteBooking(booking.getId());
+        assertNull(bookings().get(booking.getId()));
+        assertNull(loads().get(load.getId()));
+        assertEquals("POSTED", loadService.getLoadById(load.getId()).getStatus());
+    }
+
+    @Test
+    void missingEntitiesAreNotCached() {
+        UUID missing = UUID.randomUUID();
+
+        assertThrows(ResourceNotFoundException.class, () -> loadService.getLoadById(missing));
+
+        assertNull(loads().get(missing));
+    }
+
+    private BookingDTO.Create createBookingDto() {
+        BookingDTO.Create createDto = new BookingDTO.Create();
+        createDto.setLoadId(load.getId());
+        createDto.setTransporterId("TRANS001");
+        createDto.setProposedRate(5000);
+        return createDto;
+    }
+
+    private Cache loads() {
+        return cacheManager.getCache(CacheConfig.LOADS);
+    }
+
+    private Cache bookings() {
+        return cacheManager.getCache(CacheConfig.BOOKINGS);
+    }
+}
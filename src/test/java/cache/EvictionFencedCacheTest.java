@@ -0,0 +1,68 @@
+package cache;
+
+import com.cargoAppService.config.EvictionFencedCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvictionFencedCacheTest {
+
+    @Test
+    void dropsAValueLoadedAcrossAnEviction() {
+        EvictionFencedCache cache = new EvictionFencedCache(new ConcurrentMapCache("loads"), 100);
+
+        // A writer commits and evicts while the reader is still loading the old row.
+        assertEquals("v5", cache.get("load", () -> {
+            cache.evict("load");
+            return "v5";
+        }));
+        assertNull(cache.get("load"));
+
+        assertEquals("v6", cache.get("load", () -> "v6"));
+        assertEquals("v6", cache.get("load").get());
+        assertEquals("v6", cache.get("load", () -> "unused"));
+    }
+
+    @Test
+    void evictionsOfOtherKeysDoNotDropTheValue() {
+        EvictionFencedCache cache = new EvictionFencedCache(new ConcurrentMapCache("loads"), 100);
+
+        cache.get("load", () -> {
+            cache.evict("other");
+            return "v5";
+        });
+
+        assertEquals("v5", cache.get("load").get());
+    }
+
+    @Test
+    void foldedFencesStillDropLoadsThatWereRunning() {
+        EvictionFencedCache cache = new EvictionFencedCache(new ConcurrentMapCache("loads"), 2);
+
+        cache.get("load", () -> {
+            cache.evict("load");
+            cache.evict("a");
+            cache.evict("b");
+            return "v5";
+        });
+        assertNull(cache.get("load"));
+
+        cache.get("load", () -> "v6");
+        assertEquals("v6", cache.get("load").get());
+    }
+
+    @Test
+    void loaderFailuresAreNotCached() {
+        EvictionFencedCache cache = new EvictionFencedCache(new ConcurrentMapCache("loads"), 100);
+
+        Cache.ValueRetrievalException ex = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("load", () -> {
+                    throw new IllegalStateException("gone");
+                }));
+
+        assertTrue(ex.getCause() instanceof IllegalStateException);
+        assertNull(cache.get("load"));
+    }
+}
@@ -0,0 +1,163 @@
+package conditional;
+
+import com.cargoAppService.config.CacheConfig;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Load load;
+
+    @BeforeEach
+    void setUp() {
+        load = new Load();
+        load.setShipperId("SHIP-ETAG");
+        load.setLoadingPoint("Pune");
+        load.setUnloadingPoint("Delhi");
+        load.setTruckType("Flatbed");
+        load.setNoOfTrucks(1);
+        load.setWeight(1000);
+        load.setStatus(Load.Status.POSTED);
+        load.setDatePosted(new Timestamp(System.currentTimeMillis()));
+        load = loadRepository.save(load);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void loadAnswers304UntilItChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/load/{id}", load.getId()))
+                             .andExpect(status().isOk())
+                             .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/load/{id}", load.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+
+        mockMvc.perform(put("/load/{id}", load.getId()).contentType(MediaType.APPLICATION_JSON)
+                                                       .content("{\"comment\":\"Handle with care\"}"))
+               .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/load/{id}", load.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed);
+    }
+
+    @Test
+    void staleCachedLoadIsNeitherServedNorTaggedAsCurrent() throws Exception {
+        // As a fill that raced a write, or a write on another instance, would leave it.
+        LoadDTO.Response stale = LoadDTO.Response.from(load);
+        stale.setComment("Stale");
+        stale.setVersion(load.getVersion() - 1);
+        cacheManager.getCache(CacheConfig.LOADS).put(load.getId(), stale);
+
+        mockMvc.perform(get("/load/{id}", load.getId()))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, "\"" + load.getVersion() + "\""))
+               .andExpect(jsonPath("$.comment").doesNotExist())
+               .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void loadHonoursIfModifiedSince() throws Exception {
+        mockMvc.perform(get("/load/{id}", load.getId())
+                       .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+               .andExpect(status().isNotModified());
+        mockMvc.perform(get("/load/{id}", load.getId())
+                       .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 2015 00:00:00 GMT"))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void bookingAnswers304AndMissingBookingIs404() throws Exception {
+        Booking booking = new Booking();
+        booking.setLoad(load);
+        booking.setTransporterId("TRANS-ETAG");
+        booking.setProposedRate(5000);
+        booking.setStatus(Booking.Status.PENDING);
+        booking.setRequestedAt(new Timestamp(System.currentTimeMillis()));
+        booking = bookingRepository.save(booking);
+
+        String eTag = mockMvc.perform(get("/booking/{id}", booking.getId()))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/booking/{id}", booking.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified());
+        mockMvc.perform(get("/booking/{id}", java.util.UUID.randomUUID()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listPagesCarryWeakETagsThatChangeWithTheirEntries() throws Exception {
+        String eTag = mockMvc.perform(get("/load").param("shipperId", "SHIP-ETAG"))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ETAG").header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified());
+
+        // Booking the load bumps its version, which changes the page.
+        mockMvc.perform(post("/booking").contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"loadId\":\"" + load.getId() + "\",\"transporterId\":\"TRANS-ETAG\",\"proposedRate\":1500}"))
+               .andExpect(status().isCreated());
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ETAG").header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isOk());
+
+        String cursorETag = mockMvc.perform(get("/booking").param("loadId", load.getId().toString()).param("after", ""))
+                                   .andExpect(status().isOk())
+                                   .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/booking").param("loadId", load.getId().toString()).param("after", "")
+                                       .header(HttpHeaders.IF_NONE_MATCH, cursorETag))
+               .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,117 @@
+package expiry;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.exceptions.BookingValidationException;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadExpirySweeper;
+import com.cargoAppService.service.LoadExpiryWheel;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@ActiveProfiles("test")
+class LoadExpiryIntegrationTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadExpirySweeper sweeper;
+
+    @Autowired
+    private LoadExpiryWheel wheel;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void sweepExpiresPassedLoadsAndRejectsTheirPendingBookings() {
+        Load stale = loadService.createLoad(createDto(System.currentTimeMillis() - HOUR));
+        Booking pending = createBooking(stale);
+        Load accepted = loadService.createLoad(createDto(System.currentTimeMillis() - HOUR));
+        Booking winner = createBooking(accepted);
+        BookingDTO.Update accept = new BookingDTO.Update();
+        accept.setStatus("ACCEPTED");
+        bookingService.updateBooking(winner.getId(), accept);
+        Load upcoming = loadService.createLoad(createDto(System.currentTimeMillis() + 24 * HOUR));
+        // Cached before the sweep, so a stale copy would show up below.
+        loadService.getLoadById(stale.getId());
+
+        assertEquals(1, sweeper.sweep());
+
+        LoadDTO.Response expired = loadService.getLoadById(stale.getId());
+        assertEquals("EXPIRED", expired.getStatus());
+        assertEquals(0, expired.getActiveBookingCount());
+        assertEquals("REJECTED", bookingService.getBookingById(pending.getId()).getStatus());
+        assertEquals("BOOKED", loadService.getLoadById(accepted.getId()).getStatus());
+        assertEquals("POSTED", loadService.getLoadById(upcoming.getId()).getStatus());
+        assertThrows(BookingValidationException.class, () -> createBooking(stale));
+
+        // Nothing is due any more, but the accepted load is checked again later.
+        assertEquals(0, sweeper.sweep());
+        assertTrue(wheel.pollDue(System.currentTimeMillis() + HOUR, 100).contains(accepted.getId()));
+    }
+
+    @Test
+    void movingTheLoadingDateIntoThePastMakesTheLoadDue() {
+        Load load = loadService.createLoad(createDto(System.currentTimeMillis() + 24 * HOUR));
+        assertEquals(0, sweeper.sweep());
+
+        LoadDTO.Update update = new LoadDTO.Update();
+        update.setLoadingDate(new Timestamp(System.currentTimeMillis() - HOUR));
+        loadService.updateLoad(load.getId(), update);
+
+        assertEquals(1, sweeper.sweep());
+        assertEquals("EXPIRED", loadService.getLoadById(load.getId()).getStatus());
+    }
+
+    private Booking createBooking(Load load) {
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(load.getId());
+        bookingDto.setTransporterId("TRANS-EXPIRY");
+        bookingDto.setProposedRate(900);
+        return bookingService.createBooking(bookingDto);
+    }
+
+    private LoadDTO.Create createDto(long loadingDate) {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-EXPIRY");
+        createDto.setLoadingPoint("Surat");
+        createDto.setUnloadingPoint("Jaipur");
+        createDto.setLoadingDate(new Timestamp(loadingDate));
+        createDto.setUnloadingDate(new Timestamp(loadingDate + 48 * HOUR));
+        createDto.setProductType("Ceramics");
+        createDto.setTruckType("Container-Expiry");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(700);
+        return createDto;
+    }
+}
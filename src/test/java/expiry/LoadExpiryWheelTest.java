@@ -0,0 +1,103 @@
+package expiry;
+
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadExpiryWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadExpiryWheelTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoadExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new LoadExpiryWheel(loadRepository, transactionManager, 500, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void pollDueReturnsOnlyPassedLoadingDatesInBatches() {
+        Load past = load(Load.Status.POSTED, NOW - 3_600_000, 0);
+        Load justPassed = load(Load.Status.BOOKED, NOW - 1, 0);
+        Load laterThisTick = load(Load.Status.POSTED, NOW + 1, 0);
+        Load future = load(Load.Status.POSTED, NOW + 3_600_000, 0);
+        List.of(past, justPassed, laterThisTick, future)
+            .forEach(load -> wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load)));
+
+        List<UUID> first = wheel.pollDue(NOW, 1);
+        List<UUID> second = wheel.pollDue(NOW, 10);
+
+        assertEquals(List.of(past.getId()), first);
+        assertEquals(List.of(justPassed.getId()), second);
+        assertTrue(wheel.pollDue(NOW, 10).isEmpty());
+        assertEquals(2, wheel.size());
+        assertEquals(List.of(laterThisTick.getId()), wheel.pollDue(NOW + 1, 10));
+    }
+
+    @Test
+    void eventsRescheduleAndRemoveLoadsButStaleOnesAreIgnored() {
+        Load load = load(Load.Status.POSTED, NOW - 1000, 1);
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+
+        // Moved to next week.
+        Load moved = load(Load.Status.POSTED, NOW + 7 * 86_400_000L, 2);
+        moved.setId(load.getId());
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.UPDATED, moved));
+        // A late event for the old version does not bring the old date back.
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.UPDATED, load));
+        assertTrue(wheel.pollDue(NOW, 10).isEmpty());
+        assertEquals(1, wheel.size());
+
+        Load cancelled = load(Load.Status.CANCELLED, NOW + 7 * 86_400_000L, 3);
+        cancelled.setId(load.getId());
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.CANCELLED, cancelled));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulePutsLoadsBackUnlessAnEventMovedThem() {
+        Load first = load(Load.Status.POSTED, NOW - 1000, 1);
+        Load second = load(Load.Status.POSTED, NOW - 1000, 1);
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, first));
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, second));
+        List<UUID> due = wheel.pollDue(NOW, 10);
+        assertEquals(2, due.size());
+
+        Load moved = load(Load.Status.POSTED, NOW + 86_400_000L, 2);
+        moved.setId(second.getId());
+        wheel.onLoadEvent(new LoadEvent(LoadEvent.Type.UPDATED, moved));
+        wheel.reschedule(due, NOW);
+
+        assertEquals(List.of(first.getId()), wheel.pollDue(NOW, 10));
+    }
+
+    private static Load load(Load.Status status, long loadingDate, long version) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(status);
+        load.setVersion(version);
+        load.setLoadingDate(new Timestamp(loadingDate));
+        return load;
+    }
+}
@@ -0,0 +1,118 @@
+package exportService;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class, properties = "cargo.export.clear-interval=7")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Load load = new Load();
+            load.setShipperId(i % 5 == 0 ? "SHIP-A" : "SHIP-B");
+            load.setLoadingPoint("Pune, MH");
+            load.setUnloadingPoint("Delhi");
+            load.setTruckType("Flatbed");
+            load.setNoOfTrucks(1);
+            load.setWeight(1000);
+            load.setStatus(Load.Status.POSTED);
+            load.setDatePosted(new Timestamp(System.currentTimeMillis() - i * 1000L));
+            loads.add(load);
+        }
+        loadRepository.saveAll(loads);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Booking booking = new Booking();
+            booking.setLoad(loads.get(i));
+            booking.setTransporterId("TRANS-" + (i % 2));
+            booking.setProposedRate(500 + i);
+            booking.setStatus(Booking.Status.PENDING);
+            booking.setRequestedAt(new Timestamp(System.currentTimeMillis() - i * 1000L));
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportLoadsAsNdjsonAppliesFiltersAcrossClearIntervals() throws Exception {
+        String body = export("/load/export?shipperId=SHIP-B", "application/x-ndjson");
+
+        String[] lines = body.split("\n");
+        assertEquals(20, lines.length);
+        assertTrue(lines[0].contains("\"shipperId\":\"SHIP-B\""));
+    }
+
+    @Test
+    void exportLoadsAsCsvQuotesValuesContainingSeparators() throws Exception {
+        String body = export("/load/export?shipperId=SHIP-A&format=csv", "text/csv");
+
+        String[] lines = body.split("\n");
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].startsWith("id,shipperId,loadingPoint"));
+        assertTrue(lines[1].contains(",\"Pune, MH\",Delhi,"));
+    }
+
+    @Test
+    void exportBookingsStreamsEveryMatchingRow() throws Exception {
+        String body = export("/booking/export?transporterId=TRANS-1", "application/x-ndjson");
+
+        assertEquals(10, body.split("\n").length);
+        assertTrue(body.contains("\"loadId\""));
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        MvcResult result = mockMvc.perform(get(url))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                      .andExpect(status().isOk())
+                      .andExpect(content().contentTypeCompatibleWith(contentType))
+                      .andReturn()
+                      .getResponse()
+                      .getContentAsString();
+    }
+}
@@ -0,0 +1,106 @@
+package journal;
+
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransitionJournalIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void recordsLoadAndBookingTransitionsInOrder() throws Exception {
+        String load = "{\"shipperId\":\"SHIP-JOURNAL\",\"loadingPoint\":\"Kochi\",\"unloadingPoint\":\"Madurai\","
+                + "\"loadingDate\":\"2030-01-10T08:00:00.000Z\",\"unloadingDate\":\"2030-01-12T08:00:00.000Z\","
+                + "\"productType\":\"Spices\",\"truckType\":\"Container\",\"noOfTrucks\":1,\"weight\":120}";
+        String loadId = read(mockMvc.perform(post("/load").contentType(MediaType.APPLICATION_JSON).content(load))
+                                    .andExpect(status().isCreated())
+                                    .andReturn().getResponse().getContentAsString()).get("id").asText();
+        String booking = "{\"loadId\":\"" + loadId + "\",\"transporterId\":\"TRANS-JOURNAL\",\"proposedRate\":4000}";
+        String bookingId = read(mockMvc.perform(post("/booking").contentType(MediaType.APPLICATION_JSON).content(booking))
+                                       .andExpect(status().isCreated())
+                                       .andReturn().getResponse().getContentAsString()).get("id").asText();
+        mockMvc.perform(put("/booking/" + bookingId).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"REJECTED\"}"))
+               .andExpect(status().isOk());
+        mockMvc.perform(delete("/load/" + loadId)).andExpect(status().isOk());
+
+        JsonNode history = awaitHistory(loadId, 6);
+        assertEquals("LOAD CREATED POSTED null", describe(history.get(0)));
+        assertEquals("BOOKING CREATED PENDING null", describe(history.get(1)));
+        assertEquals("LOAD BOOKINGS_CHANGED BOOKED POSTED", describe(history.get(2)));
+        assertEquals("BOOKING UPDATED REJECTED PENDING", describe(history.get(3)));
+        assertEquals("LOAD BOOKINGS_CHANGED POSTED BOOKED", describe(history.get(4)));
+        assertEquals("LOAD CANCELLED CANCELLED POSTED", describe(history.get(5)));
+        assertEquals(bookingId, history.get(3).get("id").asText());
+        assertEquals("TRANS-JOURNAL", history.get(3).get("transporterId").asText());
+    }
+
+    @Test
+    void unknownLoadHasNoHistory() throws Exception {
+        mockMvc.perform(get("/load/" + UUID.randomUUID() + "/history")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitHistory(String loadId, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        JsonNode history = history(loadId);
+        while (history.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            history = history(loadId);
+        }
+        assertEquals(expected, history.size(), history::toString);
+        return history;
+    }
+
+    private JsonNode history(String loadId) throws Exception {
+        return read(mockMvc.perform(get("/load/" + loadId + "/history"))
+                           .andExpect(status().isOk())
+                           .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode read(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    private static String describe(JsonNode transition) {
+        return transition.get("subject").asText() + " " + transition.get("event").asText() + " "
+                + transition.get("status").asText() + " " + transition.get("previousStatus").asText();
+    }
+}
@@ -0,0 +1,177 @@
+package journal;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.journal.JournalRecord;
+import com.cargoAppService.journal.TransitionJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransitionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TransitionJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null && journal.isRunning()) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    void survivesRestartAndDropsATornLastRecord() throws IOException {
+        journal = start(Duration.ofDays(30));
+        Load load = load(Load.Status.POSTED);
+        journal.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+        journal.onBookingEvent(new BookingEvent(BookingEvent.Type.CREATED, UUID.randomUUID(), load.getId(), "TRANS-1",
+                1000, Booking.Status.PENDING, null, null, "Flatbed", "Pune", "Nagpur"));
+        load.setStatus(Load.Status.BOOKED);
+        journal.onLoadEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load));
+        // Counter changes that keep the status are not transitions.
+        journal.onLoadEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, load));
+        await(load.getId(), 3);
+        journal.stop();
+
+        // A crash in the middle of an append leaves a length with no valid record behind it.
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            channel.write(ByteBuffer.allocate(12).putInt(60).putInt(12345).putInt(-1).flip(), end(channel));
+        }
+
+        journal = start(Duration.ofDays(30));
+        List<JournalRecord> history = journal.history(load.getId());
+        assertEquals(3, history.size());
+        assertEquals("TRANS-1", history.get(1).getTransporterId());
+        assertEquals("BOOKED", history.get(2).getStatus());
+        assertEquals("POSTED", history.get(2).getPreviousStatus());
+
+        load.setStatus(Load.Status.CANCELLED);
+        journal.onLoadEvent(new LoadEvent(LoadEvent.Type.CANCELLED, load));
+        assertEquals("BOOKED", await(load.getId(), 4).get(3).getPreviousStatus());
+    }
+
+    @Test
+    void compactionRemovesLoadsTerminatedBeforeRetention() throws Exception {
+        journal = start(Duration.ofMillis(1));
+        List<Load> cancelled = new ArrayList<>();
+        List<Load> open = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Load load = load(Load.Status.POSTED);
+            journal.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+            if (i % 2 == 0) {
+                load.setStatus(Load.Status.CANCELLED);
+                journal.onLoadEvent(new LoadEvent(LoadEvent.Type.CANCELLED, load));
+                cancelled.add(load);
+            } else {
+                open.add(load);
+            }
+        }
+        await(open.get(open.size() - 1).getId(), 1);
+        assertTrue(segments().size() > 2, "Expected the journal to roll to new segments");
+        Thread.sleep(10);
+
+        int sealedRecords = 0;
+        for (Load load : cancelled) {
+            sealedRecords += journal.history(load.getId()).size();
+        }
+        assertTrue(journal.compact() > 0);
+        assertEquals(0, journal.compact());
+        for (Load load : cancelled.subList(0, cancelled.size() - 1)) {
+            // The last cancelled load may still be in the active segment, which is never compacted.
+            assertTrue(journal.history(load.getId()).size() <= 2);
+        }
+        assertTrue(cancelled.stream().mapToInt(load -> journal.history(load.getId()).size()).sum() < sealedRecords);
+        for (Load load : open) {
+            assertEquals(1, journal.history(load.getId()).size());
+        }
+
+        journal.stop();
+        journal = start(Duration.ofMillis(1));
+        for (Load load : open) {
+            assertEquals(1, journal.history(load.getId()).size());
+        }
+        assertEquals(List.of(), journal.history(cancelled.get(0).getId()));
+    }
+
+    @Test
+    void refusesADirectoryInUse() {
+        journal = start(Duration.ofDays(30));
+        TransitionJournal second = journal(Duration.ofDays(30));
+        assertThrows(IllegalStateException.class, second::start);
+        assertFalse(second.isRunning());
+    }
+
+    private TransitionJournal start(Duration retention) {
+        TransitionJournal started = journal(retention);
+        started.start();
+        return started;
+    }
+
+    private TransitionJournal journal(Duration retention) {
+        return new TransitionJournal(directory.toString(), DataSize.ofKilobytes(4), Duration.ofMillis(10), retention, 1000);
+    }
+
+    private List<JournalRecord> await(UUID loadId, int expected) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<JournalRecord> history = journal.history(loadId);
+        while (history.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+            history = journal.history(loadId);
+        }
+        assertEquals(expected, history.size());
+        return history;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // Walks the [length][crc][payload] records after the 8-byte header to where appends would resume.
+    private static long end(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        long offset = 8;
+        while (true) {
+            header.clear();
+            channel.read(header, offset);
+            int length = header.flip().getInt();
+            if (length == 0) {
+                return offset;
+            }
+            offset += 8 + length;
+        }
+    }
+
+    private static Load load(Load.Status status) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(status);
+        return load;
+    }
+}
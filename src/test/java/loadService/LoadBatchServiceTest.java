@@ -0,0 +1,151 @@
+package loadService;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadBatchServiceTest {
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LoadBatchService loadBatchService;
+
+    @BeforeEach
+    void setUp() {
+        loadBatchService = new LoadBatchService(loadRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper(), transactionManager, entityManager, eventPublisher, 2, 100);
+    }
+
+    @Test
+    void createLoads_PersistsValidItemsInChunksAndReportsInvalidOnes() {
+        when(loadRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Load> loads = invocation.getArgument(0);
+            loads.forEach(load -> load.setId(UUID.randomUUID()));
+            return loads;
+        });
+
+        LoadDTO.Create invalid = validCreateDto();
+        invalid.setShipperId(" ");
+        List<LoadDTO.Create> items = Arrays.asList(validCreateDto(), invalid, validCreateDto(), null, validCreateDto());
+
+        LoadDTO.BatchResponse response = loadBatchService.createLoads(items);
+
+        assertEquals(3, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertEquals(LoadBatchService.CREATED, response.getResults().get(0).getStatus());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals(LoadBatchService.INVALID, response.getResults().get(1).getStatus());
+        assertTrue(response.getResults().get(1).getErrors().containsKey("shipperId"));
+        assertEquals(LoadBatchService.INVALID, response.getResults().get(3).getStatus());
+        // Three valid items with a chunk size of two means two transactions.
+        verify(loadRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void createLoads_MarksWholeChunkFailedWhenItsTransactionFails() {
+        when(loadRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> {
+                    List<Load> loads = invocation.getArgument(0);
+                    loads.forEach(load -> load.setId(UUID.randomUUID()));
+                    return loads;
+                });
+
+        List<LoadDTO.Create> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(validCreateDto());
+        }
+
+        LoadDTO.BatchResponse response = loadBatchService.createLoads(items);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(LoadBatchService.FAILED, response.getResults().get(0).getStatus());
+        assertEquals(LoadBatchService.FAILED, response.getResults().get(1).getStatus());
+        assertEquals(LoadBatchService.CREATED, response.getResults().get(2).getStatus());
+        // Driver and constraint text stay in the log.
+        assertFalse(response.getResults().get(0).getErrors().get("load").contains("duplicate key"));
+    }
+
+    @Test
+    void createLoadsFromLines_ReportsMalformedLinesPerItem() throws IOException {
+        when(loadRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String valid = objectMapper().writeValueAsString(validCreateDto());
+        String lines = valid + "\n\n{not json\n" + valid.replace("\"noOfTrucks\":1", "\"noOfTrucks\":\"many\"") + "\n" + valid + "\n";
+
+        LoadDTO.BatchResponse response = loadBatchService.createLoads(new BufferedReader(new StringReader(lines)));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(LoadBatchService.INVALID, response.getResults().get(1).getStatus());
+        assertEquals("Line 3 is not a valid JSON object.", response.getResults().get(1).getErrors().get("load"));
+        assertEquals(LoadBatchService.INVALID, response.getResults().get(2).getStatus());
+        assertTrue(response.getResults().get(2).getErrors().containsKey("noOfTrucks"));
+        assertEquals(LoadBatchService.CREATED, response.getResults().get(3).getStatus());
+    }
+
+    @Test
+    void createLoadsFromLines_StopsReadingPastMaxItems() throws IOException {
+        BufferedReader lines = mock(BufferedReader.class);
+        when(lines.readLine()).thenReturn("{}");
+
+        assertThrows(InvalidRequestException.class, () -> loadBatchService.createLoads(lines));
+        // max-items is 100: the 101st line is the last one read.
+        verify(lines, times(101)).readLine();
+        verifyNoInteractions(loadRepository);
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper();
+    }
+
+    private LoadDTO.Create validCreateDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("shipper-123");
+        createDto.setLoadingPoint("Point A");
+        createDto.setUnloadingPoint("Point B");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis()));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setProductType("Electronics");
+        createDto.setTruckType("20ft");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(5000);
+        return createDto;
+    }
+}
@@ -2,20 +2,32 @@ package loadService;
 
 import com.cargoAppService.service.LoadService;
 
+import com.cargoAppService.dto.Cursor;
+import com.cargoAppService.dto.CursorPage;
 import com.cargoAppService.dto.LoadDTO;
 import com.cargoAppService.entities.Load;
+import com.cargoAppService.exceptions.InvalidRequestException;
 import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.repositories.LoadSpecifications;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.service.LoadMatchIndex;
+import com.cargoAppService.service.LoadSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +36,22 @@ public class LoadServiceTest {
     @Mock
     private LoadRepository loadRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LoadMatchIndex loadMatchIndex;
+
+    @Mock
+    private LoadSearchIndex loadSearchIndex;
+
     private LoadService loadService;
 
+    @BeforeEach
+    void setUp() {
+        loadService = new LoadService(loadRepository, eventPublisher, loadMatchIndex, loadSearchIndex, 100, 100, 100);
+    }
+
     @Test
     void testCreateLoad() {
         LoadDTO.Create createDto = new LoadDTO.Create();
@@ -50,5 +75,72 @@ public class LoadServiceTest {
 
         assertNotNull(result);
         assertEquals(Load.Status.POSTED, result.getStatus());
+        verify(eventPublisher).publishEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+    }
+
+    @Test
+    void testGetLoadsAfterReturnsNextCursorWhenMoreRowsExist() {
+        Load newest = postedLoad(2000);
+        Load older = postedLoad(1000);
+        Load oldest = postedLoad(0);
+
+        when(loadRepository.findWindow(any(), eq(LoadSpecifications.KEYSET_ORDER), eq(3)))
+                .thenReturn(List.of(newest, older, oldest));
+
+        CursorPage<Load> result = loadService.getLoadsAfter(null, null, "POSTED", null, 2);
+
+        assertEquals(List.of(newest, older), result.getContent());
+        Cursor next = Cursor.decode(result.getNextCursor());
+        assertEquals(older.getDatePosted(), next.getTimestamp());
+        assertEquals(older.getId(), next.getId());
+    }
+
+    @Test
+    void testGetLoadsAfterOmitsCursorOnLastPage() {
+        Load only = postedLoad(0);
+        String after = Cursor.encode(new Timestamp(5000), UUID.randomUUID());
+
+        when(loadRepository.findWindow(any(), eq(LoadSpecifications.KEYSET_ORDER), eq(11))).thenReturn(List.of(only));
+
+        CursorPage<Load> result = loadService.getLoadsAfter("shipper-123", null, null, after, 10);
+
+        assertEquals(List.of(only), result.getContent());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetLoadsAfterRejectsMalformedCursor() {
+        assertThrows(InvalidRequestException.class,
+                () -> loadService.getLoadsAfter(null, null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetLoadsAfterRejectsPageSizeAboveMaximum() {
+        assertThrows(InvalidRequestException.class,
+                () -> loadService.getLoadsAfter(null, null, null, null, Integer.MAX_VALUE));
+        verifyNoInteractions(loadRepository);
+    }
+
+    @Test
+    void testMatchLoadsRejectsLimitAboveMaximum() {
+        assertThrows(InvalidRequestException.class,
+                () -> loadService.matchLoads(null, "Flatbed", null, null, null, null, 101));
+    }
+
+    @Test
+    void testSearchLoadsRejectsUnknownStatus() {
+        assertThrows(InvalidRequestException.class,
+                () -> loadService.searchLoads("Mumbai", "SHIPPED", null, 10));
+        // Cancelled and expired loads are not in the search index.
+        assertThrows(InvalidRequestException.class,
+                () -> loadService.searchLoads("Mumbai", "cancelled", null, 10));
+    }
+
+    private Load postedLoad(long datePosted) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setStatus(Load.Status.POSTED);
+        load.setDatePosted(new Timestamp(datePosted));
+        return load;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Response times per operation as HdrHistograms in microseconds, with counts of client (4xx) and server
+ * (5xx, timeout or connection) errors, and of actions skipped without a request. Safe to record into
+ * from many threads.
+ */
+class LatencyRecorder {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> skipped = new ConcurrentSkipListMap<>();
+
+    /**
+     * Records one response. A {@code status} of 0 means no response arrived.
+     */
+    void record(String operation, long latencyNanos, int status) {
+        Operation stats = operations.computeIfAbsent(operation, name -> new Operation());
+        stats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status == 0 || status >= 500) {
+            stats.serverErrors.incrementAndGet();
+        } else if (status >= 400) {
+            stats.clientErrors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records an action that was due but sent no request, so the offered load fell short of the target.
+     */
+    void skip(String operation) {
+        skipped.computeIfAbsent(operation, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    Map<String, Long> skipped() {
+        Map<String, Long> counts = new TreeMap<>();
+        skipped.forEach((operation, count) -> counts.put(operation, count.get()));
+        return counts;
+    }
+
+    long skippedActions() {
+        return skipped.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    Set<String> operations() {
+        return operations.keySet();
+    }
+
+    Histogram histogram(String operation) {
+        return operations.get(operation).histogram;
+    }
+
+    long clientErrors(String operation) {
+        return operations.get(operation).clientErrors.get();
+    }
+
+    long serverErrors(String operation) {
+        return operations.get(operation).serverErrors.get();
+    }
+
+    long requests() {
+        return operations.values().stream().mapToLong(stats -> stats.histogram.getTotalCount()).sum();
+    }
+
+    long serverErrors() {
+        return operations.values().stream().mapToLong(stats -> stats.serverErrors.get()).sum();
+    }
+
+    double throughput(long elapsedNanos) {
+        return requests() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    static double p99Millis(Histogram histogram) {
+        return histogram.getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    /**
+     * The figures the SLO check compares against, in the form a later run reads back as its baseline.
+     */
+    Properties summary(double targetRate, long elapsedNanos) {
+        Properties summary = new Properties();
+        summary.setProperty("target-rate", String.valueOf(targetRate));
+        summary.setProperty("throughput", String.format(Locale.ROOT, "%.1f", throughput(elapsedNanos)));
+        summary.setProperty("requests", String.valueOf(requests()));
+        summary.setProperty("server-errors", String.valueOf(serverErrors()));
+        summary.setProperty("skipped", String.valueOf(skippedActions()));
+        for (String operation : operations()) {
+            Histogram histogram = histogram(operation);
+            summary.setProperty(operation + ".requests", String.valueOf(histogram.getTotalCount()));
+            summary.setProperty(operation + ".p50-millis", String.format(Locale.ROOT, "%.3f", histogram.getValueAtPercentile(50.0) / 1000.0));
+            summary.setProperty(operation + ".p99-millis", String.format(Locale.ROOT, "%.3f", p99Millis(histogram)));
+            summary.setProperty(operation + ".max-millis", String.format(Locale.ROOT, "%.3f", histogram.getMaxValue() / 1000.0));
+        }
+        return summary;
+    }
+
+    /**
+     * Writes {@code summary.properties} and one percentile distribution per operation ({@code <operation>.hgrm},
+     * in milliseconds), which HdrHistogram's plotter reads.
+     */
+    void write(Path directory, double targetRate, long elapsedNanos) throws IOException {
+        Files.createDirectories(directory);
+        try (OutputStream out = Files.newOutputStream(directory.resolve("summary.properties"))) {
+            summary(targetRate, elapsedNanos).store(out, "Load test summary");
+        }
+        for (String operation : operations()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(operation + ".hgrm")),
+                    false, StandardCharsets.UTF_8.name())) {
+                histogram(operation).outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static final class Operation {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+    }
+}
@@ -0,0 +1,360 @@
+package loadtest;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the application on the embedded H2 test database, seeds loads and
+ * bookings, then drives a mix of board browsing, bidding bursts, accept/reject decisions and cancels
+ * over HTTP at a fixed request rate, recording an HdrHistogram of response times per operation.
+ * <p>
+ * Requests are scheduled open-loop: each is due at a fixed point in time and its latency is measured
+ * from then, so time spent waiting for a free client thread while the server lags counts against the
+ * server instead of silently lowering the offered load. For the same reason an action that finds no
+ * load or booking left to act on is counted as skipped, and the run fails if any were. It also fails
+ * when {@link SloThresholds} are broken. Histograms and a summary are written to
+ * {@code build/reports/loadtest}; pass that summary as {@code -Dloadtest.baseline} to a later run to
+ * also fail on regressions against it.
+ * Run with {@code ./gradlew loadTest -Dloadtest.rate=200 -Dloadtest.duration=PT60S}.
+ */
+@Tag("loadtest")
+@SpringBootTest(classes = CargoProApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MarketplaceLoadTest {
+
+    private static final int LOADS = Integer.getInteger("loadtest.loads", 1000);
+    private static final int BOOKINGS = Integer.getInteger("loadtest.bookings", 2000);
+    private static final double RATE = Double.parseDouble(System.getProperty("loadtest.rate", "50"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final int BURST = Integer.getInteger("loadtest.burst", 5);
+    private static final String REPORT_DIR = System.getProperty("loadtest.reportDir", "build/reports/loadtest");
+    private static final String BASELINE = System.getProperty("loadtest.baseline");
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private static final String[] TRUCK_TYPES = {"Flatbed", "Container", "Tanker", "Trailer"};
+    private static final String[] CITIES = {"Mumbai", "Delhi", "Chennai", "Kolkata", "Pune", "Jaipur", "Surat", "Nagpur"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+                                                .version(HttpClient.Version.HTTP_1_1)
+                                                .connectTimeout(Duration.ofSeconds(5))
+                                                .build();
+    private final IdPool postedLoads = new IdPool();
+    private final IdPool pendingBookings = new IdPool();
+
+    @Test
+    void mixedMarketplaceWorkload() throws Exception {
+        seed();
+        // Warm up at the same rate so the measured run is not dominated by class loading and JIT.
+        run(WARMUP, new LatencyRecorder());
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long elapsedNanos = run(DURATION, recorder);
+        report(recorder, elapsedNanos);
+        recorder.write(Paths.get(REPORT_DIR), RATE, elapsedNanos);
+
+        List<String> violations = new ArrayList<>(SloThresholds.load().violations(recorder, RATE, elapsedNanos, baseline()));
+        recorder.skipped().forEach((operation, count) -> violations.add(String.format(
+                "%s: %d actions skipped because no loads or bookings were left, seed more with -Dloadtest.loads and -Dloadtest.bookings",
+                operation, count)));
+        assertTrue(violations.isEmpty(), "Load test SLOs not met:\n  " + String.join("\n  ", violations));
+    }
+
+    private void seed() {
+        for (int from = 0; from < LOADS; from += SEED_BATCH_SIZE) {
+            List<LoadDTO.Create> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, LOADS); i++) {
+                batch.add(createLoadDto(i));
+            }
+            ResponseEntity<LoadDTO.BatchResponse> response =
+                    restTemplate.postForEntity("/load/batch", batch, LoadDTO.BatchResponse.class);
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            response.getBody().getResults().forEach(result -> postedLoads.add(result.getId()));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BOOKINGS; i++) {
+            pendingBookings.add(bookingService.createBooking(createBookingDto(postedLoads.pick(random), random)).getId());
+        }
+    }
+
+    /**
+     * Sends requests at {@link #RATE} for {@code duration} and waits for the last to complete. Returns the
+     * time from the first request being due until then.
+     */
+    private long run(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / RATE);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        long due = startNanos;
+        while (due < endNanos) {
+            LockSupport.parkNanos(due - System.nanoTime());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Operation operation = Operation.next(random);
+            int requests = operation == Operation.BID ? BURST : 1;
+            // Every bid in a burst goes to the same load.
+            UUID loadId = postedLoads.pick(random);
+            for (int i = 0; i < requests; i++) {
+                long dueNanos = due;
+                clients.execute(() -> send(operation, loadId, dueNanos, recorder));
+            }
+            due += intervalNanos * requests;
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+        return System.nanoTime() - startNanos;
+    }
+
+    private void send(Operation operation, UUID loadId, long dueNanos, LatencyRecorder recorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = request(operation, loadId, random);
+        if (request == null) {
+            recorder.skip(operation.label);
+            return;
+        }
+        int status = 0;
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            try (InputStream body = response.body()) {
+                if (operation == Operation.BID && status == HttpStatus.CREATED.value()) {
+                    pendingBookings.add(objectMapper.readValue(body, BookingDTO.Response.class).getId());
+                } else {
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+        } catch (IOException ex) {
+            // Counted as a server error below.
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        recorder.record(operation.label, System.nanoTime() - dueNanos, status);
+    }
+
+    // Returns null when the pools ran dry, e.g. every seeded load was cancelled.
+    private HttpRequest request(Operation operation, UUID loadId, ThreadLocalRandom random) {
+        String truckType = TRUCK_TYPES[random.nextInt(TRUCK_TYPES.length)];
+        switch (operation) {
+            case BROWSE:
+                return get("/load?status=POSTED&truckType=" + truckType + "&page=" + random.nextInt(5) + "&size=20");
+            case MATCH:
+                return get("/load/match?truckType=" + truckType + "&origin=" + CITIES[random.nextInt(CITIES.length)] + "&limit=20");
+            case LOAD_DETAIL:
+                return withId(loadId, id -> get("/load/" + id));
+            case LOAD_BOOKINGS:
+                return withId(loadId, id -> get("/booking?loadId=" + id));
+            case BID:
+                return withId(loadId, id -> json("POST", "/booking", createBookingDto(id, random)));
+            case DECIDE:
+                BookingDTO.Update update = new BookingDTO.Update();
+                update.setStatus(random.nextInt(3) == 0 ? "ACCEPTED" : "REJECTED");
+                return withId(pendingBookings.take(random), id -> json("PUT", "/booking/" + id, update));
+            case WITHDRAW:
+                return withId(pendingBookings.take(random), id -> delete("/booking/" + id));
+            case CANCEL_LOAD:
+                return withId(postedLoads.take(random), id -> delete("/load/" + id));
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    private static HttpRequest withId(UUID id, Function<UUID, HttpRequest> request) {
+        return id == null ? null : request.apply(id);
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return builder(path).DELETE().build();
+    }
+
+    private HttpRequest json(String method, String path, Object body) {
+        try {
+            return builder(path).header("Content-Type", "application/json")
+                                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                                .build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static void report(LatencyRecorder recorder, long elapsedNanos) {
+        System.out.printf("%nMarketplace load test, %d loads and %d bookings seeded, %.0f req/s for %s, %d clients%n",
+                LOADS, BOOKINGS, RATE, DURATION, CLIENTS);
+        System.out.printf("  throughput %.1f req/s, %d requests, %d server errors, %d actions skipped%n",
+                recorder.throughput(elapsedNanos), recorder.requests(), recorder.serverErrors(), recorder.skippedActions());
+        System.out.printf("  %-14s %-28s %7s %5s %5s %9s %9s %9s %9s%n",
+                "operation", "endpoint", "count", "4xx", "5xx", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (String label : recorder.operations()) {
+            Histogram histogram = recorder.histogram(label);
+            System.out.printf("  %-14s %-28s %7d %5d %5d %9.2f %9.2f %9.2f %9.2f%n",
+                    label, Operation.of(label).endpoint, histogram.getTotalCount(),
+                    recorder.clientErrors(label), recorder.serverErrors(label),
+                    histogram.getValueAtPercentile(50.0) / 1000.0, histogram.getValueAtPercentile(99.0) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+        }
+        System.out.println();
+    }
+
+    private static Properties baseline() throws IOException {
+        if (BASELINE == null || BASELINE.isBlank()) {
+            return null;
+        }
+        Properties baseline = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(BASELINE))) {
+            baseline.load(in);
+        }
+        return baseline;
+    }
+
+    private static LoadDTO.Create createLoadDto(int i) {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP" + (i % 50));
+        createDto.setLoadingPoint(CITIES[i % CITIES.length]);
+        createDto.setUnloadingPoint(CITIES[(i / CITIES.length + 1 + i) % CITIES.length]);
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000L));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000L));
+        createDto.setProductType("Electronics");
+        createDto.setTruckType(TRUCK_TYPES[i % TRUCK_TYPES.length]);
+        createDto.setNoOfTrucks(1 + i % 3);
+        createDto.setWeight(1000 + i);
+        return createDto;
+    }
+
+    private static BookingDTO.Create createBookingDto(UUID loadId, ThreadLocalRandom random) {
+        BookingDTO.Create createDto = new BookingDTO.Create();
+        createDto.setLoadId(loadId);
+        createDto.setTransporterId("TRANS" + random.nextInt(200));
+        createDto.setProposedRate(1000 + random.nextInt(500));
+        return createDto;
+    }
+
+    /**
+     * The workload mix. Weights are per scheduled action; a bid action sends a burst of
+     * {@code loadtest.burst} bids on one load at once, as transporters do when a load is posted.
+     */
+    private enum Operation {
+        BROWSE("browse", "GET /load", 30),
+        MATCH("match", "GET /load/match", 15),
+        LOAD_DETAIL("load-detail", "GET /load/{loadId}", 10),
+        LOAD_BOOKINGS("load-bookings", "GET /booking?loadId", 5),
+        BID("bid", "POST /booking", 12),
+        DECIDE("decide", "PUT /booking/{bookingId}", 15),
+        WITHDRAW("withdraw", "DELETE /booking/{bookingId}", 8),
+        CANCEL_LOAD("cancel-load", "DELETE /load/{loadId}", 5);
+
+        private static final int TOTAL_WEIGHT = 100;
+
+        private final String label;
+        private final String endpoint;
+        private final int weight;
+
+        Operation(String label, String endpoint, int weight) {
+            this.label = label;
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+
+        static Operation next(ThreadLocalRandom random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return BROWSE;
+        }
+
+        static Operation of(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException(label);
+        }
+    }
+
+    private static final class IdPool {
+
+        private final List<UUID> ids = new ArrayList<>();
+
+        synchronized void add(UUID id) {
+            ids.add(id);
+        }
+
+        synchronized UUID pick(ThreadLocalRandom random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized UUID take(ThreadLocalRandom random) {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(ids.size());
+            UUID id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
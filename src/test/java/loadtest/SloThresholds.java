@@ -0,0 +1,115 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Latency and throughput limits a load test run must stay within, read from {@code loadtest-slo.properties}
+ * on the test classpath. Any key can be overridden with a {@code loadtest.slo.}-prefixed system property,
+ * e.g. {@code -Dloadtest.slo.p99-millis.bid=150}.
+ * <p>
+ * Absolute limits are a p99 ceiling per operation ({@code p99-millis.<operation>}, falling back to
+ * {@code p99-millis.default}), the fraction of the target rate that must complete
+ * ({@code min-throughput-ratio}) and the share of requests allowed to fail with a server error or no
+ * response ({@code max-server-error-ratio}). Given the summary of an earlier run as a baseline, p99 may
+ * also not rise, nor throughput fall, by more than {@code regression-tolerance}.
+ */
+class SloThresholds {
+
+    static final String RESOURCE = "loadtest-slo.properties";
+    private static final String OVERRIDE_PREFIX = "loadtest.slo.";
+
+    private final Properties limits;
+
+    SloThresholds(Properties limits) {
+        this.limits = limits;
+    }
+
+    static SloThresholds load() {
+        Properties limits = new Properties();
+        try (InputStream in = SloThresholds.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " not found on the test classpath");
+            }
+            limits.load(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        System.getProperties().stringPropertyNames().stream()
+              .filter(key -> key.startsWith(OVERRIDE_PREFIX))
+              .forEach(key -> limits.setProperty(key.substring(OVERRIDE_PREFIX.length()), System.getProperty(key)));
+        return new SloThresholds(limits);
+    }
+
+    double p99Millis(String operation) {
+        return number("p99-millis." + operation, number("p99-millis.default", Double.MAX_VALUE));
+    }
+
+    /**
+     * Every limit the run broke, as readable messages; empty when it passed. {@code baseline} may be null.
+     */
+    List<String> violations(LatencyRecorder recorder, double targetRate, long elapsedNanos, Properties baseline) {
+        List<String> violations = new ArrayList<>();
+        for (String operation : recorder.operations()) {
+            double p99 = LatencyRecorder.p99Millis(recorder.histogram(operation));
+            double ceiling = p99Millis(operation);
+            if (p99 > ceiling) {
+                violations.add(format("%s p99 %.1f ms is over its %.0f ms SLO", operation, p99, ceiling));
+            }
+        }
+
+        double throughput = recorder.throughput(elapsedNanos);
+        double minRatio = number("min-throughput-ratio", 0);
+        if (throughput < targetRate * minRatio) {
+            violations.add(format("throughput %.1f req/s is below %.0f%% of the %.1f req/s target",
+                    throughput, minRatio * 100, targetRate));
+        }
+
+        long requests = recorder.requests();
+        double errorRatio = requests == 0 ? 0 : (double) recorder.serverErrors() / requests;
+        double maxErrorRatio = number("max-server-error-ratio", 1);
+        if (errorRatio > maxErrorRatio) {
+            violations.add(format("%.2f%% of requests failed with a server error, more than the %.2f%% allowed",
+                    errorRatio * 100, maxErrorRatio * 100));
+        }
+
+        if (baseline != null) {
+            regressions(recorder, throughput, baseline, violations);
+        }
+        return violations;
+    }
+
+    private void regressions(LatencyRecorder recorder, double throughput, Properties baseline, List<String> violations) {
+        double tolerance = number("regression-tolerance", 0);
+        for (String operation : recorder.operations()) {
+            String before = baseline.getProperty(operation + ".p99-millis");
+            if (before == null) {
+                continue;
+            }
+            double p99 = LatencyRecorder.p99Millis(recorder.histogram(operation));
+            if (p99 > Double.parseDouble(before) * (1 + tolerance)) {
+                violations.add(format("%s p99 regressed from %s ms to %.1f ms, more than %.0f%%",
+                        operation, before, p99, tolerance * 100));
+            }
+        }
+        String before = baseline.getProperty("throughput");
+        if (before != null && throughput < Double.parseDouble(before) * (1 - tolerance)) {
+            violations.add(format("throughput regressed from %s req/s to %.1f req/s, more than %.0f%%",
+                    before, throughput, tolerance * 100));
+        }
+    }
+
+    private double number(String key, double fallback) {
+        String value = limits.getProperty(key);
+        return value == null || value.isBlank() ? fallback : Double.parseDouble(value.trim());
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+}
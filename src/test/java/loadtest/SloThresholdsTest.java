@@ -0,0 +1,65 @@
+package loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SloThresholdsTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long TEN_SECONDS = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void reportsP99ThroughputAndErrorViolations() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        // 100 browses of which 2 are slow, and 100 fast bids of which one is a 500.
+        for (int i = 0; i < 100; i++) {
+            recorder.record("browse", (i < 2 ? 300 : 10) * MILLI, 200);
+            recorder.record("bid", 5 * MILLI, i == 0 ? 500 : 201);
+        }
+        SloThresholds thresholds = new SloThresholds(limits());
+
+        List<String> violations = thresholds.violations(recorder, 25, TEN_SECONDS, null);
+
+        assertEquals(3, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("browse p99 300."), violations.get(0));
+        assertTrue(violations.get(1).startsWith("throughput 20.0 req/s"), violations.get(1));
+        assertTrue(violations.get(2).startsWith("0.50% of requests failed"), violations.get(2));
+        // The same requests in half the time meet the throughput target.
+        assertEquals(2, thresholds.violations(recorder, 25, TEN_SECONDS / 2, null).size());
+    }
+
+    @Test
+    void comparesAgainstABaselineWithinTolerance() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 100; i++) {
+            recorder.record("browse", 12 * MILLI, 200);
+            recorder.record("bid", 20 * MILLI, 201);
+        }
+        Properties baseline = recorder.summary(20, TEN_SECONDS);
+        baseline.setProperty("browse.p99-millis", "10.0");
+        baseline.setProperty("throughput", "30.0");
+        SloThresholds thresholds = new SloThresholds(limits());
+
+        List<String> violations = thresholds.violations(recorder, 20, TEN_SECONDS, baseline);
+
+        // browse is 20% slower, within tolerance; throughput is a third lower, beyond it.
+        assertEquals(1, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("throughput regressed from 30.0"), violations.get(0));
+    }
+
+    private static Properties limits() {
+        Properties limits = new Properties();
+        limits.setProperty("p99-millis.default", "100");
+        limits.setProperty("p99-millis.bid", "50");
+        limits.setProperty("min-throughput-ratio", "0.95");
+        limits.setProperty("max-server-error-ratio", "0.001");
+        limits.setProperty("regression-tolerance", "0.25");
+        return limits;
+    }
+}
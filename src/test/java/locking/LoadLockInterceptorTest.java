@@ -0,0 +1,98 @@
+package locking;
+
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.service.LoadLockInterceptor;
+import com.cargoAppService.service.LoadLockStripes;
+import com.cargoAppService.service.LoadLocked;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadLockInterceptorTest {
+
+    private final LoadLockStripes stripes = new LoadLockStripes(true, 16);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+    @Test
+    void holdsTheStripeForTheWholeCall() throws Exception {
+        UUID loadId = UUID.randomUUID();
+        Writer writer = proxy(new Writer(() -> assertFalse(lockableFromAnotherThread(loadId), "stripe is free during the call")));
+
+        writer.update(loadId);
+
+        assertTrue(lockableFromAnotherThread(loadId), "stripe is released after the call");
+    }
+
+    @Test
+    void resolvesBookingsToTheirLoadBeforeTheCall() throws Exception {
+        UUID loadId = UUID.randomUUID();
+        UUID bookingId = UUID.randomUUID();
+        when(bookingRepository.findLoadIdById(bookingId)).thenReturn(Optional.of(loadId));
+        Writer writer = proxy(new Writer(() -> assertFalse(lockableFromAnotherThread(loadId), "stripe is free during the call")));
+
+        writer.decide(bookingId);
+
+        assertTrue(lockableFromAnotherThread(loadId));
+    }
+
+    // True when another thread can take the load's stripe within a short wait.
+    private boolean lockableFromAnotherThread(UUID loadId) {
+        CompletableFuture<Boolean> other = CompletableFuture.supplyAsync(() -> {
+            try (LoadLockStripes.Held held = stripes.lockAll(Collections.singleton(loadId))) {
+                return true;
+            }
+        });
+        try {
+            return other.get(200, TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            // Still waiting; it takes and releases the stripe once the call returns.
+            return false;
+        }
+    }
+
+    private Writer proxy(Writer target) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("loadLockStripes", stripes);
+        beans.registerSingleton("bookingRepository", bookingRepository);
+        ObjectProvider<LoadLockStripes> stripeProvider = beans.getBeanProvider(LoadLockStripes.class);
+        ObjectProvider<BookingRepository> bookingProvider = beans.getBeanProvider(BookingRepository.class);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(LoadLocked.class),
+                new LoadLockInterceptor(stripeProvider, bookingProvider)));
+        return (Writer) factory.getProxy();
+    }
+
+    public static class Writer {
+
+        private final Runnable body;
+
+        public Writer(Runnable body) {
+            this.body = body;
+        }
+
+        @LoadLocked("#loadId")
+        public void update(UUID loadId) {
+            body.run();
+        }
+
+        @LoadLocked("loadOf(#bookingId)")
+        public void decide(UUID bookingId) {
+            body.run();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package matching;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadMatchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoadMatchIndexTest {
+
+    private static final Instant DAY_ONE = Instant.parse("2025-09-01T08:00:00Z");
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoadMatchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LoadMatchIndex(loadRepository, bookingRepository, transactionManager, 500);
+    }
+
+    @Test
+    void match_RanksByLoadingDateWithinLaneAndTruckType() {
+        Load later = load("Flatbed", "Pune", "Delhi", DAY_ONE.plus(2, ChronoUnit.DAYS));
+        Load sooner = load("Flatbed", "Pune", "Delhi", DAY_ONE);
+        Load otherLane = load("Flatbed", "Pune", "Mumbai", DAY_ONE);
+        // Same loading date as sooner; ties go to the newer posting.
+        otherLane.setDatePosted(new Timestamp(sooner.getDatePosted().getTime() - 1000));
+        Load otherTruck = load("Reefer", "Pune", "Delhi", DAY_ONE);
+        created(later, sooner, otherLane, otherTruck);
+
+        List<LoadSnapshot> matches = index.match(null, "flatbed", " pune", "DELHI", null, null, 10);
+
+        assertEquals(snapshots(sooner, later), matches);
+        assertEquals(snapshots(sooner, otherLane, later), index.match(null, "Flatbed", "Pune", null, null, null, 10));
+    }
+
+    @Test
+    void match_AppliesLoadingDateWindowAndLimit() {
+        Load first = load("Flatbed", "Pune", "Delhi", DAY_ONE);
+        Load second = load("Flatbed", "Pune", "Delhi", DAY_ONE.plus(1, ChronoUnit.DAYS));
+        Load third = load("Flatbed", "Pune", "Delhi", DAY_ONE.plus(5, ChronoUnit.DAYS));
+        created(first, second, third);
+
+        assertEquals(snapshots(second),
+                index.match(null, "Flatbed", null, null, DAY_ONE.plus(1, ChronoUnit.HOURS), DAY_ONE.plus(3, ChronoUnit.DAYS), 10));
+        assertEquals(snapshots(first, second), index.match(null, "Flatbed", null, null, null, null, 2));
+    }
+
+    @Test
+    void match_FollowsStatusChangesAndIgnoresStaleVersions() {
+        Load load = load("Flatbed", "Pune", "Delhi", DAY_ONE);
+        created(load);
+
+        Load booked = copy(load, Load.Status.BOOKED, 1);
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, booked));
+        assertTrue(index.match(null, "Flatbed", null, null, null, null, 10).isEmpty());
+
+        // A late event carrying the older state must not resurrect the load.
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+        assertTrue(index.match(null, "Flatbed", null, null, null, null, 10).isEmpty());
+
+        Load reposted = copy(load, Load.Status.POSTED, 2);
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.BOOKINGS_CHANGED, reposted));
+        assertEquals(snapshots(reposted), index.match(null, "Flatbed", null, null, null, null, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void match_SkipsLoadsTheTransporterAlreadyBidOn() {
+        Load load = load("Flatbed", "Pune", "Delhi", DAY_ONE);
+        created(load);
+
+        Booking booking = booking(load, "TRANS001", Booking.Status.REJECTED);
+        index.onBookingEvent(BookingEvent.of(BookingEvent.Type.CREATED, booking, null));
+
+        assertTrue(index.match("TRANS001", "Flatbed", null, null, null, null, 10).isEmpty());
+        assertEquals(snapshots(load), index.match("TRANS002", "Flatbed", null, null, null, null, 10));
+    }
+
+    @Test
+    void resync_KeepsBidderChangesMadeWhileItRuns() {
+        Load load = load("Flatbed", "Pune", "Delhi", DAY_ONE);
+        Booking booking = booking(load, "TRANS001", Booking.Status.PENDING);
+        index.onBookingEvent(BookingEvent.of(BookingEvent.Type.CREATED, booking, null));
+        when(loadRepository.streamAll(any(), any(), anyInt())).thenReturn(Stream.of(load));
+        when(bookingRepository.findLoadBidders(Load.Status.POSTED)).thenAnswer(invocation -> {
+            // The bid is withdrawn after the resync read it.
+            index.onBookingEvent(BookingEvent.of(BookingEvent.Type.DELETED, booking, Booking.Status.PENDING));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{load.getId(), "TRANS001"});
+            return rows;
+        });
+
+        index.resync();
+
+        assertEquals(snapshots(load), index.match("TRANS001", "Flatbed", null, null, null, null, 10));
+    }
+
+    private static List<LoadSnapshot> snapshots(Load... loads) {
+        return Arrays.stream(loads).map(LoadSnapshot::of).collect(Collectors.toList());
+    }
+
+    private static Booking booking(Load load, String transporterId, Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setLoad(load);
+        booking.setTransporterId(transporterId);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private void created(Load... loads) {
+        for (Load load : loads) {
+            index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+        }
+    }
+
+    private Load load(String truckType, String origin, String destination, Instant loadingDate) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setTruckType(truckType);
+        load.setLoadingPoint(origin);
+        load.setUnloadingPoint(destination);
+        load.setLoadingDate(Timestamp.from(loadingDate));
+        load.setDatePosted(new Timestamp(System.currentTimeMillis()));
+        load.setStatus(Load.Status.POSTED);
+        return load;
+    }
+
+    private Load copy(Load source, Load.Status status, long version) {
+        Load load = load(source.getTruckType(), source.getLoadingPoint(), source.getUnloadingPoint(),
+                source.getLoadingDate().toInstant());
+        load.setId(source.getId());
+        load.setStatus(status);
+        load.setVersion(version);
+        return load;
+    }
+}
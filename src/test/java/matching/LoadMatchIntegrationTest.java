@@ -0,0 +1,108 @@
+package matching;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoadMatchIntegrationTest {
+
+    private static final String TRUCK_TYPE = "Container-Match";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void matchFollowsCommittedLoadAndBookingChanges() throws Exception {
+        Load load = loadService.createLoad(createDto());
+
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE).param("origin", "Nagpur"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$", hasSize(1)))
+               .andExpect(jsonPath("$[0].id").value(load.getId().toString()));
+
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(load.getId());
+        bookingDto.setTransporterId("TRANS-MATCH");
+        bookingDto.setProposedRate(1200);
+        Booking booking = bookingService.createBooking(bookingDto);
+
+        // BOOKED loads are not offered.
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE))
+               .andExpect(jsonPath("$", hasSize(0)));
+
+        BookingDTO.Update reject = new BookingDTO.Update();
+        reject.setStatus("REJECTED");
+        bookingService.updateBooking(booking.getId(), reject);
+
+        // Back to POSTED, but not for the transporter that was just rejected.
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE).param("transporterId", "TRANS-OTHER"))
+               .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE).param("transporterId", "TRANS-MATCH"))
+               .andExpect(jsonPath("$", hasSize(0)));
+
+        loadService.deleteLoad(load.getId());
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE))
+               .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void matchRejectsOutOfRangeLimit() throws Exception {
+        mockMvc.perform(get("/load/match").param("truckType", TRUCK_TYPE).param("limit", "0"))
+               .andExpect(status().isBadRequest());
+    }
+
+    private LoadDTO.Create createDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-MATCH");
+        createDto.setLoadingPoint("Nagpur");
+        createDto.setUnloadingPoint("Kolkata");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000));
+        createDto.setProductType("Textiles");
+        createDto.setTruckType(TRUCK_TYPE);
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(800);
+        return createDto;
+    }
+}
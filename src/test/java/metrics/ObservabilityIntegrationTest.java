@@ -0,0 +1,110 @@
+package metrics;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class ObservabilityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void countsSqlStatementsPerEndpoint() throws Exception {
+        Load load = loadService.createLoad(createDto());
+
+        mockMvc.perform(get("/load/{loadId}", load.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("cargo.sql.statements.per.request")
+                                                      .tag("uri", "/load/{loadId}")
+                                                      .tag("method", "GET")
+                                                      .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() >= 1);
+        assertTrue(meterRegistry.get("cargo.sql.statements").tag("type", "select").timer().count() >= 1);
+    }
+
+    @Test
+    void timesServiceMethods() {
+        Load load = loadService.createLoad(createDto());
+        loadService.getLoadById(load.getId());
+
+        Timer timer = meterRegistry.get("cargo.service")
+                                   .tag("class", LoadService.class.getName())
+                                   .tag("method", "getLoadById")
+                                   .timer();
+        assertTrue(timer.count() >= 1);
+    }
+
+    @Test
+    void exposesPrometheusScrapeWithPersistenceMetrics() throws Exception {
+        loadService.createLoad(createDto());
+        mockMvc.perform(get("/load")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+               .andExpect(status().isOk())
+               .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+               .andExpect(content().string(containsString("cargo_service_seconds")))
+               .andExpect(content().string(containsString("cargo_sql_statements_per_request")))
+               .andExpect(content().string(containsString("hibernate_statements_total")))
+               .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")));
+    }
+
+    private LoadDTO.Create createDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-METRICS");
+        createDto.setLoadingPoint("Pune");
+        createDto.setUnloadingPoint("Delhi");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis()));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setProductType("Steel");
+        createDto.setTruckType("Flatbed");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(1000);
+        return createDto;
+    }
+}
@@ -0,0 +1,64 @@
+package persistence;
+
+import com.cargoAppService.entities.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void next_IsVersion7AndCarriesTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        // A burst elsewhere in the JVM may have pushed the clock a few milliseconds ahead.
+        assertTrue(millis >= before && millis <= after + 100, () -> millis + " not in [" + before + ", " + after + "]");
+    }
+
+    @Test
+    void next_IsStrictlyIncreasingAndUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> ordered = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                ordered.add(executor.submit(() -> {
+                    UUID previous = TimeOrderedUuidGenerator.next();
+                    all.add(previous);
+                    boolean increasing = true;
+                    for (int i = 1; i < perThread; i++) {
+                        UUID id = TimeOrderedUuidGenerator.next();
+                        all.add(id);
+                        // Unsigned order of the time and counter bits, as a database compares them.
+                        increasing &= Long.compareUnsigned(previous.getMostSignificantBits(), id.getMostSignificantBits()) < 0;
+                        previous = id;
+                    }
+                    return increasing;
+                }));
+            }
+            for (Future<Boolean> result : ordered) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, all.size());
+    }
+}
@@ -0,0 +1,103 @@
+package projection;
+
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Load load;
+
+    @BeforeEach
+    void setUp() {
+        load = new Load();
+        load.setShipperId("SHIP001");
+        load.setLoadingPoint("Pune");
+        load.setUnloadingPoint("Delhi");
+        load.setTruckType("Flatbed");
+        load.setNoOfTrucks(2);
+        load.setWeight(1000);
+        load.setStatus(Load.Status.BOOKED);
+        load.setDatePosted(new Timestamp(System.currentTimeMillis()));
+        load = loadRepository.save(load);
+
+        Booking booking = new Booking();
+        booking.setLoad(load);
+        booking.setTransporterId("TRANS001");
+        booking.setProposedRate(5000);
+        booking.setStatus(Booking.Status.PENDING);
+        booking.setRequestedAt(new Timestamp(System.currentTimeMillis()));
+        bookingRepository.save(booking);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void loadListReturnsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/load").param("fields", "id,loadingPoint,unloadingPoint,status").param("shipperId", "SHIP001"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content[0]", aMapWithSize(4)))
+               .andExpect(jsonPath("$.content[0].id").value(load.getId().toString()))
+               .andExpect(jsonPath("$.content[0].loadingPoint").value("Pune"))
+               .andExpect(jsonPath("$.content[0].status").value("BOOKED"))
+               .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void bookingListResolvesLoadIdFromForeignKey() throws Exception {
+        mockMvc.perform(get("/booking").param("fields", "loadId,status").param("loadId", load.getId().toString()))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content[0]", aMapWithSize(2)))
+               .andExpect(jsonPath("$.content[0].loadId").value(load.getId().toString()))
+               .andExpect(jsonPath("$.content[0].status").value("PENDING"));
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/load").param("fields", "id,bookings"))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void fieldsWithCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/load").param("fields", "id,status").param("after", ""))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/booking").param("fields", "id,status").param("after", ""))
+               .andExpect(status().isBadRequest());
+    }
+}
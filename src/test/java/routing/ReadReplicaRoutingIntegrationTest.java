@@ -0,0 +1,111 @@
+package routing;
+
+import com.cargoAppService.datasource.ReadYourWritesInterceptor;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadService;
+import com.jayway.jsonpath.JsonPath;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two embedded databases: the usual test database as the primary and an empty, migrated
+ * one as the replica, so where a read went shows in what it returns.
+ */
+@SpringBootTest(classes = CargoProApplication.class, properties = {
+        "cargo.datasource.routing.enabled=true",
+        "cargo.datasource.replicas.urls=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "cargo.datasource.routing.read-your-writes=PT0.5S"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:cargopro_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").placeholders(Map.of("concurrently", "")).load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    private static final String LOAD = "{\"shipperId\":\"SHIP-ROUTING\",\"loadingPoint\":\"Agra\",\"unloadingPoint\":\"Indore\","
+            + "\"loadingDate\":\"2030-01-10T08:00:00.000Z\",\"unloadingDate\":\"2030-01-12T08:00:00.000Z\","
+            + "\"productType\":\"Leather\",\"truckType\":\"Container\",\"noOfTrucks\":1,\"weight\":300}";
+
+    @Test
+    void readsGoToTheReplicaExceptRightAfterTheClientWrote() throws Exception {
+        mockMvc.perform(post("/load").header(ReadYourWritesInterceptor.CLIENT_HEADER, "writer")
+                                     .contentType(MediaType.APPLICATION_JSON).content(LOAD))
+               .andExpect(status().isCreated());
+
+        // The writer reads its own write from the primary.
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ROUTING").header(ReadYourWritesInterceptor.CLIENT_HEADER, "writer"))
+               .andExpect(jsonPath("$.totalElements").value(1));
+        // Everyone else reads the replica, which never received the row.
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ROUTING").header(ReadYourWritesInterceptor.CLIENT_HEADER, "reader"))
+               .andExpect(jsonPath("$.totalElements").value(0));
+
+        Thread.sleep(700);
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ROUTING").header(ReadYourWritesInterceptor.CLIENT_HEADER, "writer"))
+               .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/actuator/metrics/cargo.datasource.routed").param("tag", "target:replica-0"))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void writesWithoutAClientIdPinNobody() throws Exception {
+        mockMvc.perform(post("/load").contentType(MediaType.APPLICATION_JSON).content(LOAD))
+               .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/load").param("shipperId", "SHIP-ROUTING"))
+               .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void lookupsThatFillTheCacheReadThePrimary() throws Exception {
+        String created = mockMvc.perform(post("/load").contentType(MediaType.APPLICATION_JSON).content(LOAD))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+        String loadId = JsonPath.read(created, "$.id");
+
+        // No client is pinned here, yet the replica never saw the load.
+        assertEquals("SHIP-ROUTING", loadService.getLoadById(UUID.fromString(loadId)).getShipperId());
+    }
+}
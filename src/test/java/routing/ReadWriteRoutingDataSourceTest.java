@@ -0,0 +1,100 @@
+package routing;
+
+import com.cargoAppService.datasource.ReadRouting;
+import com.cargoAppService.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private HikariDataSource replicaA;
+
+    @Mock
+    private HikariDataSource replicaB;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaAConnection = mock(Connection.class);
+    private final Connection replicaBConnection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverReplicasAndWritesUsePrimary() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = routing(ReadWriteRoutingDataSource.Selection.ROUND_ROBIN);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(replicaAConnection, dataSource.getConnection());
+        assertSame(replicaBConnection, dataSource.getConnection());
+        assertSame(replicaAConnection, dataSource.getConnection());
+        // Pinned work reads its own writes from the primary.
+        assertSame(primaryConnection, ReadRouting.onPrimary(() -> connection(dataSource)));
+    }
+
+    @Test
+    void leastBusyPicksTheReplicaWithFewerActiveConnections() throws SQLException {
+        HikariPoolMXBean busy = mock(HikariPoolMXBean.class);
+        HikariPoolMXBean idle = mock(HikariPoolMXBean.class);
+        when(busy.getActiveConnections()).thenReturn(7);
+        when(idle.getActiveConnections()).thenReturn(1);
+        when(replicaA.getHikariPoolMXBean()).thenReturn(busy);
+        when(replicaB.getHikariPoolMXBean()).thenReturn(idle);
+        ReadWriteRoutingDataSource dataSource = routing(ReadWriteRoutingDataSource.Selection.LEAST_BUSY);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(replicaBConnection, dataSource.getConnection());
+        assertSame(replicaBConnection, dataSource.getConnection());
+    }
+
+    private ReadWriteRoutingDataSource routing(ReadWriteRoutingDataSource.Selection selection) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaA);
+        replicas.put("replica-1", replicaB);
+        return new ReadWriteRoutingDataSource(primary, replicas, List.of(replicaA, replicaB), selection);
+    }
+
+    private static Connection connection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
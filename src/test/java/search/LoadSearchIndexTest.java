@@ -0,0 +1,152 @@
+package search;
+
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.events.LoadEvent;
+import com.cargoAppService.events.LoadSnapshot;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.LoadSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoadSearchIndexTest {
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoadSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LoadSearchIndex(loadRepository, transactionManager, 500, 0.6);
+    }
+
+    @Test
+    void search_MatchesPrefixesAndTyposAcrossTextFields() {
+        Load mumbai = load("Mumbai", "Navi Mumbai", "Electronics", "Container", 2000);
+        Load bangalore = load("Bangalore", "Chennai", "Textiles", "Flatbed", 1000);
+        indexed(mumbai, bangalore);
+
+        assertEquals(snapshots(mumbai), index.search("mum", null, null, 10));
+        assertEquals(snapshots(mumbai), index.search("Mumbia", null, null, 10));
+        assertEquals(snapshots(bangalore), index.search("banglore", null, null, 10));
+        assertEquals(snapshots(bangalore), index.search("textile", null, null, 10));
+        assertTrue(index.search("Kolkata", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_RanksBetterMatchesFirstThenNewestPosting() {
+        Load pune = load("Pune", "Delhi", "Steel", "Flatbed", 1000);
+        Load puneNewer = load("Pune", "Jaipur", "Steel", "Flatbed", 3000);
+        Load punjab = load("Punjab", "Delhi", "Wheat", "Flatbed", 5000);
+        indexed(pune, puneNewer, punjab);
+
+        // "pune" shares every trigram with Pune but only three of four with Punjab.
+        assertEquals(snapshots(puneNewer, pune, punjab), index.search("pune", null, null, 10));
+        assertEquals(snapshots(puneNewer), index.search("pune", null, null, 1));
+    }
+
+    @Test
+    void search_AppliesStatusAndTruckTypeFilters() {
+        Load posted = load("Surat", "Delhi", "Textiles", "Container", 1000);
+        Load booked = load("Surat", "Indore", "Textiles", "Flatbed", 2000);
+        booked.setStatus(Load.Status.BOOKED);
+        indexed(posted, booked);
+
+        assertEquals(snapshots(posted), index.search("surat", Load.Status.POSTED, null, 10));
+        assertEquals(snapshots(booked), index.search("surat", null, "flatbed", 10));
+        assertTrue(index.search("surat", Load.Status.POSTED, "flatbed", 10).isEmpty());
+    }
+
+    @Test
+    void search_DropsCancelledLoads() {
+        Load load = load("Surat", "Delhi", "Textiles", "Container", 1000);
+        indexed(load);
+
+        Load cancelled = copy(load, "Surat", 1);
+        cancelled.setStatus(Load.Status.CANCELLED);
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.CANCELLED, cancelled));
+        // A late event carrying the open state must not bring it back.
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+
+        assertTrue(index.search("surat", null, null, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void search_FollowsUpdatesAndIgnoresStaleVersions() {
+        Load original = load("Nagpur", "Delhi", "Cotton", "Flatbed", 1000);
+        indexed(original);
+
+        Load moved = copy(original, "Nashik", 1);
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.UPDATED, moved));
+        // A late event carrying the older state must not bring the old text back.
+        index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, original));
+
+        assertTrue(index.search("nagpur", null, null, 10).isEmpty());
+        assertEquals(snapshots(moved), index.search("nashik", null, null, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void resync_DropsLoadsClosedByAnotherInstance() {
+        Load open = load("Surat", "Delhi", "Textiles", "Container", 1000);
+        Load closedElsewhere = load("Surat", "Indore", "Textiles", "Flatbed", 2000);
+        indexed(open, closedElsewhere);
+        when(loadRepository.streamAll(any(), any(), anyInt())).thenReturn(Stream.of(open));
+
+        index.resync();
+
+        assertEquals(snapshots(open), index.search("surat", null, null, 10));
+        assertEquals(1, index.size());
+    }
+
+    private static List<LoadSnapshot> snapshots(Load... loads) {
+        return Arrays.stream(loads).map(LoadSnapshot::of).collect(Collectors.toList());
+    }
+
+    private void indexed(Load... loads) {
+        for (Load load : loads) {
+            index.onLoadEvent(new LoadEvent(LoadEvent.Type.CREATED, load));
+        }
+    }
+
+    private Load load(String loadingPoint, String unloadingPoint, String productType, String truckType, long datePosted) {
+        Load load = new Load();
+        load.setId(UUID.randomUUID());
+        load.setLoadingPoint(loadingPoint);
+        load.setUnloadingPoint(unloadingPoint);
+        load.setProductType(productType);
+        load.setTruckType(truckType);
+        load.setDatePosted(new Timestamp(datePosted));
+        load.setStatus(Load.Status.POSTED);
+        return load;
+    }
+
+    private Load copy(Load source, String loadingPoint, long version) {
+        Load load = load(loadingPoint, source.getUnloadingPoint(), source.getProductType(), source.getTruckType(),
+                source.getDatePosted().getTime());
+        load.setId(source.getId());
+        load.setVersion(version);
+        return load;
+    }
+}
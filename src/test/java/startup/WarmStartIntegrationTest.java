@@ -0,0 +1,65 @@
+package startup;
+
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.startup.StartupReport;
+import com.cargoAppService.startup.StartupWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Started by hand rather than with @SpringBootTest, which neither records startup steps nor starts a server.
+class WarmStartIntegrationTest {
+
+    private static final List<String> PHASES = List.of("jvm", "environment", "context", "refresh", "ready");
+
+    @Test
+    void warmStartWarmsUpBeforeReadiness() throws Exception {
+        try (ConfigurableApplicationContext context = start("test", "warm-start")) {
+            assertTrue(context.getBean(StartupWarmup.class).getRequests() > 0);
+            StartupReport report = context.getBean(StartupReport.class);
+            assertEquals(PHASES, List.copyOf(report.getPhases().keySet()));
+            assertFalse(report.getSlowestBeans().isEmpty());
+
+            assertEquals(200, get(context, "/actuator/health/readiness"));
+            assertEquals(404, get(context, "/v3/api-docs"));
+            assertEquals(200, get(context, "/load?size=1"));
+        }
+    }
+
+    @Test
+    void defaultModeReportsStartupWithoutWarmUp() throws Exception {
+        try (ConfigurableApplicationContext context = start("test")) {
+            assertEquals(0, context.getBean(StartupWarmup.class).getRequests());
+            StartupReport report = context.getBean(StartupReport.class);
+            assertEquals(PHASES, List.copyOf(report.getPhases().keySet()));
+            assertTrue(report.getSlowestBeans().values().stream().allMatch(duration -> !duration.isNegative()));
+            assertEquals(200, get(context, "/v3/api-docs"));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(CargoProApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(CargoProApplication.STARTUP_STEPS))
+                .profiles(profiles)
+                .properties("server.port=0")
+                .run();
+    }
+
+    private static int get(ConfigurableApplicationContext context, String path) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,118 @@
+package stats;
+
+import com.cargoAppService.dto.BookingDTO;
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LaneRateStatsRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.cargoAppService.service.BookingService;
+import com.cargoAppService.service.LaneRateStats;
+import com.cargoAppService.service.LoadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LaneRateStatsIntegrationTest {
+
+    private static final String TRUCK_TYPE = "Container-Stats";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LaneRateStats laneRateStats;
+
+    @Autowired
+    private LaneRateStatsRepository laneRateStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void laneStatsFollowBookingsAndSurviveARestart() throws Exception {
+        Load load = loadService.createLoad(createDto());
+        Booking low = bookingService.createBooking(bookingDto(load, "TRANS-S1", 1000));
+        bookingService.createBooking(bookingDto(load, "TRANS-S2", 3000));
+        BookingDTO.Update accept = new BookingDTO.Update();
+        accept.setStatus("ACCEPTED");
+        bookingService.updateBooking(low.getId(), accept);
+
+        mockMvc.perform(get("/stats/lanes").param("truckType", TRUCK_TYPE).param("origin", "Raipur")
+                                            .param("destination", "Bhopal"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$", hasSize(1)))
+               .andExpect(jsonPath("$[0].bids").value(2))
+               .andExpect(jsonPath("$[0].accepted").value(1))
+               .andExpect(jsonPath("$[0].minRate").value(1000.0))
+               .andExpect(jsonPath("$[0].maxRate").value(3000.0));
+
+        laneRateStats.checkpoint();
+        // A booking placed after the checkpoint is picked up by the replay.
+        bookingService.createBooking(bookingDto(load, "TRANS-S3", 2000));
+
+        LaneRateStats restarted = new LaneRateStats(laneRateStatsRepository, transactionManager, 500, Duration.ofMinutes(1));
+        restarted.start();
+        assertEquals(3, restarted.lanes(TRUCK_TYPE, "Raipur", "Bhopal", 1).get(0).getBids());
+        assertEquals(1, restarted.lanes(TRUCK_TYPE, "Raipur", "Bhopal", 1).get(0).getAccepted());
+    }
+
+    private BookingDTO.Create bookingDto(Load load, String transporterId, double rate) {
+        BookingDTO.Create bookingDto = new BookingDTO.Create();
+        bookingDto.setLoadId(load.getId());
+        bookingDto.setTransporterId(transporterId);
+        bookingDto.setProposedRate(rate);
+        return bookingDto;
+    }
+
+    private LoadDTO.Create createDto() {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId("SHIP-STATS");
+        createDto.setLoadingPoint("Raipur");
+        createDto.setUnloadingPoint("Bhopal");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 3 * 86400000));
+        createDto.setProductType("Steel");
+        createDto.setTruckType(TRUCK_TYPE);
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(900);
+        return createDto;
+    }
+}
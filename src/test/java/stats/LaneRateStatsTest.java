@@ -0,0 +1,171 @@
+package stats;
+
+import com.cargoAppService.dto.LaneStatsDTO;
+import com.cargoAppService.entities.Booking;
+import com.cargoAppService.events.BookingEvent;
+import com.cargoAppService.exceptions.InvalidRequestException;
+import com.cargoAppService.repositories.LaneRateStatsRepository;
+import com.cargoAppService.service.LaneRateStats;
+import com.tdunning.math.stats.MergingDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LaneRateStatsTest {
+
+    @Mock
+    private LaneRateStatsRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LaneRateStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new LaneRateStats(repository, transactionManager, 500, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void lanes_ReportsQuantilesAndDecisionsPerLane() {
+        for (int rate = 1; rate <= 100; rate++) {
+            stats.onBookingEvent(created("Flatbed", "Pune", "Delhi", rate * 10));
+        }
+        stats.onBookingEvent(created("Reefer", "Pune", "Delhi", 5000));
+        stats.onBookingEvent(updated("Flatbed", "Pune", "Delhi", Booking.Status.PENDING, Booking.Status.ACCEPTED));
+        stats.onBookingEvent(updated("Flatbed", "Pune", "Delhi", Booking.Status.PENDING, Booking.Status.REJECTED));
+        stats.onBookingEvent(updated("Flatbed", "Pune", "Delhi", Booking.Status.ACCEPTED, Booking.Status.REJECTED));
+
+        List<LaneStatsDTO.Response> lanes = stats.lanes("flatbed", " PUNE", "delhi", 10);
+
+        assertEquals(1, lanes.size());
+        LaneStatsDTO.Response lane = lanes.get(0);
+        assertEquals("Flatbed", lane.getTruckType());
+        assertEquals(100, lane.getBids());
+        assertEquals(0, lane.getAccepted());
+        assertEquals(2, lane.getRejected());
+        assertEquals(10, lane.getMinRate());
+        assertEquals(1000, lane.getMaxRate());
+        assertEquals(505, lane.getP50Rate(), 10);
+        assertEquals(905, lane.getP90Rate(), 10);
+
+        // Partial filters scan the lanes, busiest first.
+        List<LaneStatsDTO.Response> fromPune = stats.lanes(null, "Pune", null, 10);
+        assertEquals(List.of("Flatbed", "Reefer"), List.of(fromPune.get(0).getTruckType(), fromPune.get(1).getTruckType()));
+    }
+
+    @Test
+    void lanes_RejectsLimitOutOfRange() {
+        assertThrows(InvalidRequestException.class, () -> stats.lanes(null, null, null, 501));
+    }
+
+    @Test
+    void checkpoint_FoldsSettledBidsAndAddsDecisionsToTheStoredLane() throws SQLException {
+        Timestamp coveredUntil = new Timestamp(System.currentTimeMillis() - 600_000);
+        when(repository.lockCoveredUntil()).thenReturn(Optional.of(coveredUntil));
+        when(repository.lockLane("Flatbed", "Pune", "Delhi")).thenReturn(Optional.of(row("FLATBED", 1000)));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("Flatbed");
+        when(rs.getString(2)).thenReturn("Pune");
+        when(rs.getString(3)).thenReturn("Delhi");
+        when(rs.getDouble(4)).thenReturn(1200.0, 1800.0);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(repository).replayBookings(eq(coveredUntil), any(Timestamp.class), any());
+        stats.onBookingEvent(updated("Flatbed", "Pune", "Delhi", Booking.Status.PENDING, Booking.Status.ACCEPTED));
+
+        stats.checkpoint();
+
+        ArgumentCaptor<LaneRateStatsRepository.LaneRow> saved = ArgumentCaptor.forClass(LaneRateStatsRepository.LaneRow.class);
+        verify(repository).saveLane(saved.capture());
+        verify(repository).moveCoveredUntil(any(Timestamp.class));
+        // The stored spelling is kept so the row is updated in place.
+        assertEquals("FLATBED", saved.getValue().getTruckType());
+        assertEquals(3, saved.getValue().getBids());
+        assertEquals(1, saved.getValue().getAccepted());
+        MergingDigest digest = MergingDigest.fromBytes(ByteBuffer.wrap(saved.getValue().getRateDigest()));
+        assertEquals(1000, digest.getMin());
+        assertEquals(1800, digest.getMax());
+
+        // The decision was written, so the next checkpoint has nothing to add for this lane.
+        when(repository.lockCoveredUntil()).thenReturn(Optional.of(new Timestamp(System.currentTimeMillis())));
+        stats.checkpoint();
+        verify(repository).saveLane(any());
+    }
+
+    @Test
+    void checkpoint_KeepsDecisionsWhenTheWriteFails() {
+        when(repository.lockCoveredUntil()).thenReturn(Optional.of(new Timestamp(System.currentTimeMillis())));
+        when(repository.lockLane("Flatbed", "Pune", "Delhi")).thenReturn(Optional.empty());
+        doThrow(new QueryTimeoutException("timed out")).doNothing().when(repository).saveLane(any());
+        stats.onBookingEvent(updated("Flatbed", "Pune", "Delhi", Booking.Status.PENDING, Booking.Status.REJECTED));
+
+        stats.checkpoint();
+        stats.checkpoint();
+
+        ArgumentCaptor<LaneRateStatsRepository.LaneRow> saved = ArgumentCaptor.forClass(LaneRateStatsRepository.LaneRow.class);
+        verify(repository, times(2)).saveLane(saved.capture());
+        assertEquals(1, saved.getValue().getRejected());
+        assertEquals(0, saved.getValue().getBids());
+    }
+
+    @Test
+    void start_RestoresStoredLanesAndReplaysLaterBookings() {
+        Timestamp coveredUntil = new Timestamp(System.currentTimeMillis());
+        when(repository.findCoveredUntil()).thenReturn(Optional.of(coveredUntil));
+        when(repository.findAll()).thenReturn(List.of(row("Flatbed", 1200)));
+
+        stats.start();
+
+        verify(repository).replayBookings(eq(coveredUntil), isNull(), any());
+        LaneStatsDTO.Response lane = stats.lanes("Flatbed", "Pune", "Delhi", 1).get(0);
+        assertEquals(1, lane.getBids());
+        assertEquals(1200, lane.getMinRate());
+        // A lane known only from decisions has no rates to report.
+        stats.onBookingEvent(updated("Reefer", "Pune", "Delhi", Booking.Status.PENDING, Booking.Status.REJECTED));
+        assertNull(stats.lanes("Reefer", "Pune", "Delhi", 1).get(0).getP50Rate());
+    }
+
+    private static LaneRateStatsRepository.LaneRow row(String truckType, double rate) {
+        MergingDigest digest = new MergingDigest(100);
+        digest.add(rate);
+        ByteBuffer bytes = ByteBuffer.allocate(digest.smallByteSize());
+        digest.asSmallBytes(bytes);
+        return new LaneRateStatsRepository.LaneRow(truckType, "Pune", "Delhi", 1, 0, 0, bytes.array());
+    }
+
+    private BookingEvent created(String truckType, String origin, String destination, double rate) {
+        return new BookingEvent(BookingEvent.Type.CREATED, UUID.randomUUID(), UUID.randomUUID(), "TRANS001", rate,
+                Booking.Status.PENDING, null, new Timestamp(System.currentTimeMillis()), truckType, origin, destination);
+    }
+
+    private BookingEvent updated(String truckType, String origin, String destination, Booking.Status from, Booking.Status to) {
+        return new BookingEvent(BookingEvent.Type.UPDATED, UUID.randomUUID(), UUID.randomUUID(), "TRANS001", 100,
+                to, from, new Timestamp(System.currentTimeMillis()), truckType, origin, destination);
+    }
+}
@@ -0,0 +1,110 @@
+package stream;
+
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = CargoProApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoadStreamIntegrationTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void streamsCommittedLoadEventsMatchingTheFilter() throws Exception {
+        MockHttpServletResponse flatbeds = open(get("/load/stream").param("truckType", "FLATBED"));
+        MockHttpServletResponse reefers = open(get("/load/stream").param("truckType", "Reefer"));
+
+        createLoad("Flatbed", "Pune", "Nagpur");
+
+        String flatbedEvents = await(flatbeds, "event:load.created");
+        assertTrue(flatbedEvents.contains("\"loadingPoint\":\"Pune\""));
+        Thread.sleep(100);
+        assertFalse(body(reefers).contains("event:load.created"));
+    }
+
+    @Test
+    void resumesFromTheLastEventId() throws Exception {
+        MockHttpServletResponse live = open(get("/load/stream").param("origin", "surat"));
+        createLoad("Tanker", "Surat", "Vapi");
+        Matcher id = EVENT_ID.matcher(await(live, "event:load.created"));
+        assertTrue(id.find());
+
+        createLoad("Tanker", "Surat", "Bharuch");
+
+        MockHttpServletResponse resumed = open(get("/load/stream").param("origin", "surat")
+                                                                   .header("Last-Event-ID", id.group(1)));
+        String replayed = await(resumed, "Bharuch");
+        assertFalse(replayed.contains("Vapi"));
+
+        MockHttpServletResponse unknown = open(get("/load/stream").header("Last-Event-ID", "elsewhere-3"));
+        await(unknown, "event:reset");
+    }
+
+    private MockHttpServletResponse open(org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder request)
+            throws Exception {
+        return mockMvc.perform(request.accept(MediaType.TEXT_EVENT_STREAM))
+                      .andExpect(request().asyncStarted())
+                      .andReturn()
+                      .getResponse();
+    }
+
+    private void createLoad(String truckType, String from, String to) throws Exception {
+        String load = "{\"shipperId\":\"SHIP-STREAM\",\"loadingPoint\":\"" + from + "\",\"unloadingPoint\":\"" + to + "\","
+                + "\"loadingDate\":\"2030-01-10T08:00:00.000Z\",\"unloadingDate\":\"2030-01-12T08:00:00.000Z\","
+                + "\"productType\":\"Steel\",\"truckType\":\"" + truckType + "\",\"noOfTrucks\":1,\"weight\":300}";
+        mockMvc.perform(post("/load").contentType(MediaType.APPLICATION_JSON).content(load))
+               .andExpect(status().isCreated());
+    }
+
+    private static String await(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = body(response);
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = body(response);
+        }
+        assertTrue(body.contains(expected), () -> "Expected " + expected + " in " + body(response));
+        return body;
+    }
+
+    private static String body(MockHttpServletResponse response) {
+        return new String(response.getContentAsByteArray(), StandardCharsets.UTF_8);
+    }
+}
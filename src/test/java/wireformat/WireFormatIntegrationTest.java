@@ -0,0 +1,135 @@
+package wireformat;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.cargoAppService.entities.Load;
+import com.cargoAppService.launcher.CargoProApplication;
+import com.cargoAppService.repositories.BookingRepository;
+import com.cargoAppService.repositories.LoadRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = CargoProApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class WireFormatIntegrationTest {
+
+    private static final String SHIPPER = "SHIP-WIRE";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Load load = new Load();
+            load.setShipperId(SHIPPER);
+            load.setLoadingPoint("Pune " + i);
+            load.setUnloadingPoint("Delhi");
+            load.setTruckType("Flatbed");
+            load.setProductType("Electronics");
+            load.setNoOfTrucks(1);
+            load.setWeight(1000 + i);
+            load.setStatus(Load.Status.POSTED);
+            load.setDatePosted(new Timestamp(System.currentTimeMillis() - i));
+            loads.add(load);
+        }
+        loadRepository.saveAll(loads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listPagesAreNegotiatedAsSmileOrCborAndJsonStaysTheDefault() throws Exception {
+        HttpResponse<byte[]> smile = get("application/x-jackson-smile", null);
+        assertEquals("application/x-jackson-smile", smile.headers().firstValue("Content-Type").orElse(null));
+        assertEquals(20, new ObjectMapper(new SmileFactory()).readTree(smile.body()).get("totalElements").asInt());
+
+        HttpResponse<byte[]> cbor = get("application/cbor", null);
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElse(null));
+        assertEquals(20, new ObjectMapper(new CBORFactory()).readTree(cbor.body()).get("totalElements").asInt());
+
+        HttpResponse<byte[]> json = get("*/*", null);
+        assertEquals("application/json", json.headers().firstValue("Content-Type").orElse(null));
+        assertTrue(smile.body().length < json.body().length);
+
+        // Each representation has its own validator.
+        assertNotEquals(json.headers().firstValue("ETag"), smile.headers().firstValue("ETag"));
+    }
+
+    @Test
+    void largeResponsesAreGzipped() throws Exception {
+        HttpResponse<byte[]> response = get("application/json", "gzip");
+
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        JsonNode page = new ObjectMapper().readTree(new GZIPInputStream(new ByteArrayInputStream(response.body())));
+        assertEquals(20, page.get("content").size());
+    }
+
+    @Test
+    void smileRequestBodiesAreAccepted() throws Exception {
+        LoadDTO.Create createDto = new LoadDTO.Create();
+        createDto.setShipperId(SHIPPER);
+        createDto.setLoadingPoint("Surat");
+        createDto.setUnloadingPoint("Indore");
+        createDto.setLoadingDate(new Timestamp(System.currentTimeMillis() + 86400000));
+        createDto.setUnloadingDate(new Timestamp(System.currentTimeMillis() + 2 * 86400000));
+        createDto.setProductType("Textiles");
+        createDto.setTruckType("Container");
+        createDto.setNoOfTrucks(1);
+        createDto.setWeight(700);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load"))
+                                                                   .header("Content-Type", "application/x-jackson-smile")
+                                                                   .header("Accept", "application/x-jackson-smile")
+                                                                   .POST(HttpRequest.BodyPublishers.ofByteArray(smileMapper.writeValueAsBytes(createDto)))
+                                                                   .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(201, response.statusCode());
+        assertEquals("Surat", smileMapper.readTree(response.body()).get("loadingPoint").asText());
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load?size=20&shipperId=" + SHIPPER))
+                                                 .header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+}
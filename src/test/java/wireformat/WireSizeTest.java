@@ -0,0 +1,72 @@
+package wireformat;
+
+import com.cargoAppService.dto.LoadDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The bytes on the wire behind PageSerializationBenchmark's timings, for the same page of loads.
+class WireSizeTest {
+
+    @Test
+    void binaryFormatsAndGzipShrinkALoadPage() throws IOException {
+        Page<LoadDTO.Response> page = page(100);
+        int json = serialize(Jackson2ObjectMapperBuilder.json().build(), page, false);
+        int jsonGzipped = serialize(Jackson2ObjectMapperBuilder.json().build(), page, true);
+        int smile = serialize(Jackson2ObjectMapperBuilder.smile().build(), page, false);
+        int cbor = serialize(Jackson2ObjectMapperBuilder.cbor().build(), page, false);
+        String sizes = String.format("json %d, json gzipped %d, smile %d, cbor %d bytes", json, jsonGzipped, smile, cbor);
+
+        assertTrue(smile < json, sizes);
+        assertTrue(cbor < json, sizes);
+        assertTrue(jsonGzipped < smile, sizes);
+    }
+
+    private static int serialize(ObjectMapper objectMapper, Page<LoadDTO.Response> page, boolean gzip) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                objectMapper.writeValue(out, page);
+            }
+        } else {
+            objectMapper.writeValue(bytes, page);
+        }
+        return bytes.size();
+    }
+
+    private static Page<LoadDTO.Response> page(int size) {
+        long now = System.currentTimeMillis();
+        List<LoadDTO.Response> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LoadDTO.Response response = new LoadDTO.Response();
+            response.setId(UUID.randomUUID());
+            response.setShipperId("SHIP" + (i % 20));
+            response.setLoadingPoint("City " + (i % 50));
+            response.setUnloadingPoint("City " + (i % 37));
+            response.setLoadingDate(new Timestamp(now + i));
+            response.setUnloadingDate(new Timestamp(now + 86400000L + i));
+            response.setProductType("Electronics");
+            response.setTruckType("Flatbed");
+            response.setNoOfTrucks(1 + i % 3);
+            response.setWeight(1000.5 + i);
+            response.setComment("Fragile items, handle with care");
+            response.setStatus("POSTED");
+            response.setDatePosted(new Timestamp(now - i));
+            content.add(response);
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size), 10L * size);
+    }
+}